@@ -0,0 +1,22 @@
+package io.github.sinri.keel.base.async;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 异步调用的时间预算（截止时间）已耗尽时的异常。
+ * <p>
+ * 截止时间通过 {@link Keel#asyncCallWithinDeadline(long, java.util.function.Supplier)} 设置，
+ * 存放于 Vert.x 上下文中，并由嵌套的 Keel 异步调用继承。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(long deadline) {
+        this("Deadline exceeded at " + deadline);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.sinri.keel.base.async;
 
 import io.github.sinri.keel.base.annotations.TechnicalPreview;
+import io.github.sinri.keel.base.internal.async.DeadlineContext;
 import io.github.sinri.keel.base.verticles.KeelVerticleBase;
 import io.vertx.core.*;
 import org.jspecify.annotations.NullMarked;
@@ -9,6 +10,7 @@ import org.jspecify.annotations.Nullable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -17,7 +19,7 @@ import java.util.function.Supplier;
  * @since 5.0.0
  */
 @NullMarked
-interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
+interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic, KeelAsyncMixinWorker {
     private static boolean isInNonBlockContext() {
         Context currentContext = Vertx.currentContext();
         return currentContext != null && currentContext.isEventLoopContext();
@@ -82,7 +84,7 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
             }
         });
 
-        return promise.future();
+        return DeadlineContext.bound(this, DeadlineContext.currentDeadline(), promise.future());
     }
 
     /**
@@ -94,7 +96,7 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
      */
     default <R> Future<R> asyncTransformRawFuture(java.util.concurrent.Future<R> rawFuture) {
         if (isInNonBlockContext()) {
-            return executeBlocking(rawFuture::get);
+            return DeadlineContext.callWithinCurrentDeadline(this, () -> executeBlocking(rawFuture::get));
         } else {
             try {
                 var r = rawFuture.get();
@@ -105,6 +107,19 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
         }
     }
 
+    /**
+     * 将 {@link java.util.concurrent.Future} 转换为 {@link Future}，等待过程在指定的具名隔离工作线程池中进行。
+     *
+     * @param rawFuture    给定的 {@link java.util.concurrent.Future}
+     * @param executorName 具名隔离工作线程池的名称，见 {@link NamedWorkerExecutor}
+     * @param <R>          异步返回值的类型
+     * @return 转换好的 {@link Future}
+     * @since 5.0.3
+     */
+    default <R> Future<R> asyncTransformRawFuture(java.util.concurrent.Future<R> rawFuture, String executorName) {
+        return DeadlineContext.callWithinCurrentDeadline(this, () -> executeBlockingOn(executorName, rawFuture::get));
+    }
+
     /**
      * 将 {@link java.util.concurrent.Future} 转换为 {@link Future}。
      *
@@ -161,6 +176,8 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
      *   <li>如果异步任务失败，抛出异常而不是返回 {@code null}</li>
      * </ul>
      * <p>
+     * 如果当前 Vert.x 上下文设置了截止时间，则最多等待至截止时间，超时则抛出 {@link DeadlineExceededException}。
+     * <p>
      *     非必要不使用此方法，使用前需要确认符合场景。
      *
      * @param longTermAsyncProcessFuture 一个耗时的异步任务所返回的 {@link Future}，不能为 {@code null}
@@ -168,6 +185,7 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
      * @return 异步任务返回的值，如果任务成功完成但结果为 {@code null}，则返回 {@code null}
      * @throws IllegalThreadStateException 如果在 EventLoop 线程中调用本方法
      * @throws RuntimeException            如果异步任务失败，或当前线程在等待过程中被中断
+     * @throws DeadlineExceededException   如果截止时间到达时异步任务仍未完成
      */
     @Nullable
     default <T> T blockAwait(Future<T> longTermAsyncProcessFuture) {
@@ -179,8 +197,13 @@ interface KeelAsyncMixinBlock extends KeelAsyncMixinLogic {
         CountDownLatch latch = new CountDownLatch(1);
         longTermAsyncProcessFuture.onComplete(ar -> latch.countDown());
 
+        long deadline = DeadlineContext.currentDeadline();
         try {
-            latch.await();
+            if (deadline == DeadlineContext.NO_DEADLINE) {
+                latch.await();
+            } else if (!latch.await(DeadlineContext.remainingTime(deadline), TimeUnit.MILLISECONDS)) {
+                throw new DeadlineExceededException(deadline);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new RuntimeException("Interrupted while waiting for async task", e);
@@ -1,11 +1,14 @@
 package io.github.sinri.keel.base.async;
 
+import io.github.sinri.keel.base.internal.async.DeadlineContext;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.function.Supplier;
+
 /**
  * Keel 异步能力调用的核心定义。
  *
@@ -28,6 +31,8 @@ interface KeelAsyncMixinCore extends Vertx {
 
     /**
      * 非阻塞地{@code 睡眠}一段时间，并允许（提前）主动中断。
+     * <p>
+     * 如果当前上下文设置了截止时间且睡眠时间超出剩余时间预算，则在截止时间到达时以 {@link DeadlineExceededException} 失败。
      *
      * @param time        以毫秒计的时间，有效值最小为 1 毫秒；如果值无效会强制置为 1毫秒。
      * @param interrupter 一个可选的{@link Promise}，供异步中断
@@ -36,8 +41,18 @@ interface KeelAsyncMixinCore extends Vertx {
     default Future<Void> asyncSleep(long time, @Nullable Promise<Void> interrupter) {
         Promise<Void> promise = Promise.promise();
         time = Math.max(1, time);
-        long timer_id = setTimer(time, timerID -> {
-            promise.tryComplete();
+        long deadline = DeadlineContext.currentDeadline();
+        long remaining = DeadlineContext.remainingTime(deadline);
+        if (remaining <= 0) {
+            return Future.failedFuture(new DeadlineExceededException(deadline));
+        }
+        boolean exceeding = time > remaining;
+        long timer_id = setTimer(Math.min(time, remaining), timerID -> {
+            if (exceeding) {
+                promise.tryFail(new DeadlineExceededException(deadline));
+            } else {
+                promise.tryComplete();
+            }
         });
         if (interrupter != null) {
             interrupter.future().onSuccess(interrupted -> {
@@ -47,4 +62,42 @@ interface KeelAsyncMixinCore extends Vertx {
         }
         return promise.future();
     }
+
+    /**
+     * 获取当前 Vert.x 上下文中的截止时间。
+     *
+     * @return 以毫秒计的截止时间戳；未设置时为 {@link Long#MAX_VALUE}
+     * @since 5.0.3
+     */
+    default long currentDeadline() {
+        return DeadlineContext.currentDeadline();
+    }
+
+    /**
+     * 获取当前 Vert.x 上下文中剩余的时间预算。
+     *
+     * @return 剩余的毫秒数，最小为 0；未设置截止时间时为 {@link Long#MAX_VALUE}
+     * @since 5.0.3
+     */
+    default long remainingTimeBudget() {
+        return DeadlineContext.remainingTime(DeadlineContext.currentDeadline());
+    }
+
+    /**
+     * 在给定的时间预算内运行一段异步逻辑。
+     * <p>
+     * 截止时间存放于专为本次调用复制的 Vert.x 上下文中，异步逻辑内嵌套的 Keel 异步调用将继承剩余的时间预算；
+     * 如果当前上下文已有更早的截止时间，则以更早者为准。
+     * 截止时间已到而异步逻辑尚未完成时，返回结果以 {@link DeadlineExceededException} 失败。
+     *
+     * @param timeout  以毫秒计的时间预算
+     * @param supplier 异步逻辑
+     * @param <T>      异步逻辑的结果类型
+     * @return 异步逻辑的结果
+     * @since 5.0.3
+     */
+    default <T> Future<T> asyncCallWithinDeadline(long timeout, Supplier<Future<T>> supplier) {
+        long deadline = Math.min(System.currentTimeMillis() + Math.max(0, timeout), DeadlineContext.currentDeadline());
+        return DeadlineContext.bound(this, deadline, DeadlineContext.runWithDeadline(this, deadline, supplier));
+    }
 }
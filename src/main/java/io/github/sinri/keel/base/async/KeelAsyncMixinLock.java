@@ -1,5 +1,6 @@
 package io.github.sinri.keel.base.async;
 
+import io.github.sinri.keel.base.internal.async.DeadlineContext;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
 
@@ -18,6 +19,8 @@ interface KeelAsyncMixinLock extends KeelAsyncMixinCore {
      * 在Vertx 的锁机制下，独占运行一段异步逻辑。
      * <p>
      * 尝试在制定时间限制内获取锁，并运行异步逻辑，执行完毕后释放锁。
+     * <p>
+     * 如果当前 Vert.x 上下文设置了截止时间，锁等待时间不超过剩余时间预算，整体结果亦受截止时间约束。
      *
      * @param <T>                             异步逻辑的返回值类型
      * @param lockName                        锁名称
@@ -33,8 +36,9 @@ interface KeelAsyncMixinLock extends KeelAsyncMixinCore {
             Supplier<Future<T>> exclusiveSupplier,
             Function<LockAcquireFailedException, Future<T>> lockAcquireFailedHandleSupplier
     ) {
-        return sharedData()
-                .getLockWithTimeout(lockName, waitTimeForLock)
+        long actualWaitTimeForLock = Math.min(waitTimeForLock, remainingTimeBudget());
+        return DeadlineContext.callWithinCurrentDeadline(this, () -> sharedData()
+                .getLockWithTimeout(lockName, actualWaitTimeForLock)
                 .compose(
                         lock -> Future.succeededFuture()
                                       .compose(v -> exclusiveSupplier.get())
@@ -43,7 +47,7 @@ interface KeelAsyncMixinLock extends KeelAsyncMixinCore {
                             LockAcquireFailedException lockAcquireFailedException = new LockAcquireFailedException(throwable.getMessage());
                             return lockAcquireFailedHandleSupplier.apply(lockAcquireFailedException);
                         }
-                );
+                ));
     }
 
     /**
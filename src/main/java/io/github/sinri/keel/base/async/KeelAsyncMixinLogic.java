@@ -1,12 +1,13 @@
 package io.github.sinri.keel.base.async;
 
+import io.github.sinri.keel.base.internal.async.DeadlineContext;
 import io.github.sinri.keel.base.internal.async.RepeatedlyCallTaskImpl;
 import io.vertx.core.Future;
-import io.vertx.core.Promise;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
@@ -23,26 +24,59 @@ import java.util.function.Supplier;
 interface KeelAsyncMixinLogic extends KeelAsyncMixinCore {
     /**
      * 执行基于给定的异步循环任务的异步循环调用。
+     * <p>
+     * 如果异步循环任务设置了截止时间，则截止时间到达而循环尚未结束时，结果以 {@link DeadlineExceededException} 失败，
+     * 循环也不再开始新的一轮。
      *
      * @param repeatedlyCallTask 给定的异步循环任务
      * @return 异步循环执行结果
      */
     private Future<Void> asyncCallRepeatedly(RepeatedlyCallTaskImpl repeatedlyCallTask) {
-        Promise<Void> promise = Promise.promise();
-        RepeatedlyCallTaskImpl.start(this, repeatedlyCallTask, promise);
-        return promise.future();
+        Future<Void> future = RepeatedlyCallTaskImpl.launch(this, repeatedlyCallTask);
+        if (repeatedlyCallTask.getDeadline() == DeadlineContext.NO_DEADLINE) {
+            return future;
+        }
+        return DeadlineContext.bound(this, repeatedlyCallTask.getDeadline(), future)
+                              .onFailure(throwable -> repeatedlyCallTask.stop());
     }
 
     /**
      * 执行基于给定的异步循环任务的异步循环调用。
+     * <p>
+     * 循环继承当前 Vert.x 上下文中的截止时间，见 {@link #asyncCallWithinDeadline(long, Supplier)}。
      *
      * @param processor 用于构建异步循环任务的循环逻辑
      * @return 异步循环执行结果
      */
     default Future<Void> asyncCallRepeatedly(Function<RepeatedlyCallTask, Future<Void>> processor) {
-        return asyncCallRepeatedly(new RepeatedlyCallTaskImpl(processor));
+        return asyncCallRepeatedly(new RepeatedlyCallTaskImpl(processor, DeadlineContext.currentDeadline()));
     }
 
+    /**
+     * 执行基于给定的异步循环任务的具名异步循环调用。
+     * <p>
+     * 任务名称用于在 {@link #getLiveRepeatedlyCallTasks()} 中辨识该循环，并不要求唯一。
+     *
+     * @param name      任务名称
+     * @param processor 用于构建异步循环任务的循环逻辑
+     * @return 异步循环执行结果
+     * @since 5.0.3
+     */
+    default Future<Void> asyncCallRepeatedly(String name, Function<RepeatedlyCallTask, Future<Void>> processor) {
+        return asyncCallRepeatedly(new RepeatedlyCallTaskImpl(name, processor, DeadlineContext.currentDeadline()));
+    }
+
+    /**
+     * 获取本 Keel 实例上当前存活的异步循环任务，可用于查看各循环的轮次、耗时、空闲时间与失败次数等统计信息，
+     * 以定位占用事件循环的后台循环。
+     * <p>
+     * 包含由本实例发起、尚未结束的所有异步循环（含基于异步循环实现的迭代、步进、无限循环等）；本实例关闭后为空。
+     *
+     * @return 存活的异步循环任务的快照
+     * @since 5.0.3
+     */
+    Collection<RepeatedlyCallTask> getLiveRepeatedlyCallTasks();
+
     /**
      * 针对一个迭代器，基于异步循环调用，进行异步批量迭代执行，并可以按需在迭代执行方法体里提前中断任务。
      *
@@ -266,4 +300,18 @@ interface KeelAsyncMixinLogic extends KeelAsyncMixinCore {
                 .eventually(Future::succeededFuture));
     }
 
+    /**
+     * 无限循环执行一个具名的异步逻辑，即时循环体抛出异常也不停止。
+     *
+     * @param name     任务名称
+     * @param supplier 异步循环逻辑
+     * @since 5.0.3
+     */
+    default void asyncCallEndlessly(String name, Supplier<Future<Void>> supplier) {
+        asyncCallRepeatedly(name, routineResult -> Future
+                .succeededFuture()
+                .compose(v -> supplier.get())
+                .eventually(Future::succeededFuture));
+    }
+
 }
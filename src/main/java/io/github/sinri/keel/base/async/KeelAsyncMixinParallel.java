@@ -1,5 +1,6 @@
 package io.github.sinri.keel.base.async;
 
+import io.github.sinri.keel.base.internal.async.DeadlineContext;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -11,6 +12,9 @@ import java.util.function.Function;
 
 /**
  * 异步并行逻辑
+ * <p>
+ * 各方法继承当前 Vert.x 上下文中的截止时间：截止时间已过时不再触发任何异步任务而直接失败，
+ * 截止时间到达而结果未定时以 {@link DeadlineExceededException} 失败。
  *
  * @since 5.0.0
  */
@@ -62,12 +66,14 @@ interface KeelAsyncMixinParallel extends KeelAsyncMixinCore {
             Iterator<T> iterator,
             Function<T, Future<Void>> itemProcessor
     ) {
-        List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
-        if (futures.isEmpty()) {
-            return Future.succeededFuture();
-        }
-        return Future.all(futures)
-                     .mapEmpty();
+        return DeadlineContext.callWithinCurrentDeadline(this, () -> {
+            List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
+            if (futures.isEmpty()) {
+                return Future.succeededFuture();
+            }
+            return Future.all(futures)
+                         .mapEmpty();
+        });
     }
 
     /**
@@ -97,12 +103,14 @@ interface KeelAsyncMixinParallel extends KeelAsyncMixinCore {
             Iterator<T> iterator,
             Function<T, Future<Void>> itemProcessor
     ) {
-        List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
-        if (futures.isEmpty()) {
-            return Future.succeededFuture();
-        }
-        return Future.any(futures)
-                     .mapEmpty();
+        return DeadlineContext.callWithinCurrentDeadline(this, () -> {
+            List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
+            if (futures.isEmpty()) {
+                return Future.succeededFuture();
+            }
+            return Future.any(futures)
+                         .mapEmpty();
+        });
     }
 
     /**
@@ -132,10 +140,12 @@ interface KeelAsyncMixinParallel extends KeelAsyncMixinCore {
             Iterator<T> iterator,
             Function<T, Future<Void>> itemProcessor
     ) {
-        List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
-        if (futures.isEmpty()) {
-            return Future.succeededFuture();
-        }
-        return Future.join(futures).mapEmpty();
+        return DeadlineContext.callWithinCurrentDeadline(this, () -> {
+            List<Future<Void>> futures = buildFutures(iterator, itemProcessor);
+            if (futures.isEmpty()) {
+                return Future.succeededFuture();
+            }
+            return Future.join(futures).mapEmpty();
+        });
     }
 }
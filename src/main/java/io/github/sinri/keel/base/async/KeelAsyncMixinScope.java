@@ -0,0 +1,55 @@
+package io.github.sinri.keel.base.async;
+
+import io.github.sinri.keel.base.internal.async.KeelAsyncScopeImpl;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.function.Function;
+
+/**
+ * 结构化并发作用域的创建与使用。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+interface KeelAsyncMixinScope extends KeelAsyncMixinCore {
+    /**
+     * 开启一个结构化并发作用域。
+     *
+     * @param timeout 以毫秒计的超时时间；小于等于 0 表示不设置截止时间
+     * @return 新的作用域
+     */
+    default KeelAsyncScope openScope(long timeout) {
+        return new KeelAsyncScopeImpl(this, timeout);
+    }
+
+    /**
+     * 开启一个不设置截止时间的结构化并发作用域。
+     *
+     * @return 新的作用域
+     */
+    default KeelAsyncScope openScope() {
+        return openScope(0);
+    }
+
+    /**
+     * 在一个新的结构化并发作用域中运行异步逻辑，并在逻辑结束后关闭作用域、等待所有子任务结束。
+     *
+     * @param timeout 以毫秒计的超时时间；小于等于 0 表示不设置截止时间
+     * @param body    作用域内的异步逻辑，可通过给定的作用域派生子任务
+     * @param <T>     异步逻辑的结果类型
+     * @return 异步逻辑的结果；如果作用域被取消（子任务失败或超时），则以取消原因失败
+     */
+    default <T> Future<T> asyncCallWithinScope(long timeout, Function<KeelAsyncScope, Future<T>> body) {
+        KeelAsyncScope scope = openScope(timeout);
+        return scope.fork(() -> body.apply(scope))
+                    .transform(bodyAR -> scope
+                            .close()
+                            .compose(closed -> {
+                                if (bodyAR.failed()) {
+                                    return Future.failedFuture(bodyAR.cause());
+                                }
+                                return Future.succeededFuture(bodyAR.result());
+                            }));
+    }
+}
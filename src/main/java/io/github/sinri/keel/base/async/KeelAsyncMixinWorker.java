@@ -0,0 +1,69 @@
+package io.github.sinri.keel.base.async;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * 具名隔离工作线程池的管理与使用。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+interface KeelAsyncMixinWorker extends KeelAsyncMixinCore {
+    /**
+     * 创建一个具名隔离工作线程池；如果同名的工作线程池已存在，则直接返回已存在的实例。
+     *
+     * @param name            工作线程池名称，如 {@code db}、{@code fs}、{@code crypto}
+     * @param poolSize        工作线程数
+     * @param maxQueueSize    最大排队任务数
+     * @param rejectionPolicy 饱和时的拒绝策略
+     * @return 具名隔离工作线程池
+     */
+    NamedWorkerExecutor createNamedWorkerExecutor(
+            String name,
+            int poolSize,
+            int maxQueueSize,
+            NamedWorkerExecutor.RejectionPolicy rejectionPolicy
+    );
+
+    /**
+     * 获取指定名称的具名隔离工作线程池。
+     *
+     * @param name 工作线程池名称
+     * @return 具名隔离工作线程池；未创建时返回 null
+     */
+    @Nullable NamedWorkerExecutor getNamedWorkerExecutor(String name);
+
+    /**
+     * @return 当前所有具名隔离工作线程池
+     */
+    Collection<NamedWorkerExecutor> getNamedWorkerExecutors();
+
+    /**
+     * 关闭并移除指定名称的具名隔离工作线程池。
+     *
+     * @param name 工作线程池名称
+     * @return 关闭完成的异步结果；未创建时直接成功
+     */
+    Future<Void> closeNamedWorkerExecutor(String name);
+
+    /**
+     * 在指定名称的具名隔离工作线程池中执行一段阻塞逻辑。
+     *
+     * @param executorName 工作线程池名称
+     * @param blockingCode 阻塞逻辑
+     * @param <T>          返回值类型
+     * @return 阻塞逻辑的异步执行结果；如果工作线程池不存在，则异步返回 {@link IllegalArgumentException}
+     */
+    default <T> Future<T> executeBlockingOn(String executorName, Callable<T> blockingCode) {
+        NamedWorkerExecutor namedWorkerExecutor = getNamedWorkerExecutor(executorName);
+        if (namedWorkerExecutor == null) {
+            return Future.failedFuture(new IllegalArgumentException("Named worker executor not found: " + executorName));
+        }
+        return namedWorkerExecutor.executeBlocking(blockingCode);
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.sinri.keel.base.async;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * 结构化并发作用域。
+ * <p>
+ * 作用域拥有通过 {@link #fork(Supplier)} 派生的所有子任务，并带有一个可选的截止时间
+ * （不晚于创建时 Vert.x 上下文中的截止时间，并传递给子任务内嵌套的 Keel 异步调用）：
+ * <ul>
+ *   <li>任一子任务失败，或截止时间已到，作用域即被取消；</li>
+ *   <li>作用域取消后，尚未完成的子任务的结果被忽略，其对应的 Future 以 {@link ScopeCancelledException} 失败；</li>
+ *   <li>作用域取消后，不再接受新的子任务，子任务可通过 {@link #cancellation()} 感知取消并尽早结束；</li>
+ *   <li>调用 {@link #close()} 后，作用域等待所有子任务实际结束后才完成。</li>
+ * </ul>
+ * 由于 Vert.x 的 {@link Future} 无法被强行中止，子任务应在耗时操作之间检查 {@link #isCancelled()}，
+ * 或将 {@link #cancellation()} 作为中断信号（例如传给 {@link Keel#asyncSleep(long, io.vertx.core.Promise)} 的中断器）。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public interface KeelAsyncScope {
+    /**
+     * @return 以毫秒计的截止时间戳；未设置截止时间时为 {@link Long#MAX_VALUE}
+     */
+    long deadline();
+
+    /**
+     * @return 距离截止时间剩余的毫秒数，最小为 0；未设置截止时间时为 {@link Long#MAX_VALUE}
+     */
+    long remainingTime();
+
+    /**
+     * @return 作用域是否已被取消
+     */
+    boolean isCancelled();
+
+    /**
+     * @return 作用域被取消的原因；未被取消时返回 null
+     */
+    @Nullable Throwable cancellationCause();
+
+    /**
+     * @return 一个在作用域被取消时成功完成的 Future，可用作子任务的中断信号
+     */
+    Future<Void> cancellation();
+
+    /**
+     * @return 尚未结束的子任务数
+     */
+    int activeChildCount();
+
+    /**
+     * 在本作用域内派生一个子任务。
+     *
+     * @param childSupplier 子任务逻辑
+     * @param <T>           子任务结果类型
+     * @return 子任务的结果；如果作用域已被取消或子任务结束前作用域被取消，则以 {@link ScopeCancelledException} 失败；
+     *         如果作用域已关闭，则以 {@link IllegalStateException} 失败
+     */
+    <T> Future<T> fork(Supplier<Future<T>> childSupplier);
+
+    /**
+     * 以指定原因取消作用域；重复调用时仅首次生效。
+     *
+     * @param cause 取消原因
+     */
+    void cancel(Throwable cause);
+
+    /**
+     * 关闭作用域：不再接受新的子任务，并等待所有子任务结束。
+     *
+     * @return 所有子任务结束后完成；如果作用域曾被取消，则以取消原因失败
+     */
+    Future<Void> close();
+
+    /**
+     * 子任务因作用域被取消而被忽略时的异常。
+     *
+     * @since 5.0.3
+     */
+    class ScopeCancelledException extends RuntimeException {
+        public ScopeCancelledException(@Nullable Throwable cause) {
+            super("Async scope cancelled", cause);
+        }
+    }
+
+    /**
+     * 作用域截止时间已到时的取消原因。
+     *
+     * @since 5.0.3
+     */
+    class ScopeTimeoutException extends DeadlineExceededException {
+        public ScopeTimeoutException(long timeout) {
+            super("Async scope timed out after " + timeout + " ms");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.sinri.keel.base.async;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 由 Keel 管理的具名隔离工作线程池。
+ * <p>
+ * 每个具名工作线程池拥有独立的线程数与最大排队数，在饱和时按照 {@link RejectionPolicy} 处理新提交的任务，
+ * 以避免某个缓慢的子系统（如数据库、文件系统、加解密）独占 Vert.x 的默认工作线程池。
+ * <p>
+ * 通过 {@link Keel#createNamedWorkerExecutor(String, int, int, RejectionPolicy)} 创建，
+ * 通过 {@link Keel#getNamedWorkerExecutor(String)} 获取。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public interface NamedWorkerExecutor {
+    /**
+     * @return 工作线程池的名称
+     */
+    String name();
+
+    /**
+     * @return 工作线程数
+     */
+    int poolSize();
+
+    /**
+     * @return 最大排队任务数，即除正在执行的任务外，最多可以等待执行的任务数量
+     */
+    int maxQueueSize();
+
+    /**
+     * @return 饱和时的拒绝策略
+     */
+    RejectionPolicy rejectionPolicy();
+
+    /**
+     * 在本工作线程池中执行一段阻塞逻辑。
+     * <p>
+     * 提交的任务之间不保证执行顺序。
+     * 当正在执行与排队的任务总数达到 {@code poolSize + maxQueueSize} 时，按照拒绝策略处理。
+     *
+     * @param blockingCode 阻塞逻辑
+     * @param <T>          返回值类型
+     * @return 阻塞逻辑的异步执行结果
+     */
+    <T> Future<T> executeBlocking(Callable<T> blockingCode);
+
+    /**
+     * @return 正在执行的任务数
+     */
+    int activeCount();
+
+    /**
+     * @return 已提交、尚未开始执行的任务数
+     */
+    int queuedCount();
+
+    /**
+     * @return 已执行完毕（无论成功与否）的任务数
+     */
+    long completedCount();
+
+    /**
+     * @return 因饱和而被拒绝的任务数；包含被转交默认工作线程池的任务
+     */
+    long rejectedCount();
+
+    /**
+     * @return 任务从提交到开始执行的平均等待时间，以毫秒计
+     */
+    double averageWaitTime();
+
+    /**
+     * @return 任务从提交到开始执行的最大等待时间，以毫秒计
+     */
+    double maxWaitTime();
+
+    /**
+     * 关闭本工作线程池；关闭后提交的任务将直接失败。
+     *
+     * @return 关闭完成的异步结果
+     */
+    Future<Void> close();
+
+    /**
+     * 具名工作线程池饱和时的拒绝策略。
+     *
+     * @since 5.0.3
+     */
+    enum RejectionPolicy {
+        /**
+         * 直接以 {@link java.util.concurrent.RejectedExecutionException} 异步失败。
+         */
+        ABORT,
+        /**
+         * 转交 Vert.x 的默认工作线程池执行。
+         */
+        DELEGATE_TO_DEFAULT_POOL,
+    }
+}
@@ -1,7 +1,11 @@
 package io.github.sinri.keel.base.async;
 
+import org.jspecify.annotations.Nullable;
+
 /**
- * 本接口定义了可重复调用的任务的露出，用于在异步控制流中进行任务终止。
+ * 本接口定义了可重复调用的任务的露出，用于在异步控制流中进行任务终止，并提供该任务的运行统计。
+ * <p>
+ * 运行统计为默认方法，未提供统计的实现返回 0、null 或 false。
  *
  * @since 5.0.0
  */
@@ -10,4 +14,76 @@ public interface RepeatedlyCallTask {
      * 决定在本执行块运行结束返回之后，停止执行任务流。
      */
     void stop();
+
+    /**
+     * @return 进程内唯一的任务编号
+     * @since 5.0.3
+     */
+    default long getId() {
+        return 0;
+    }
+
+    /**
+     * @return 任务名称；未命名时返回 null
+     * @since 5.0.3
+     */
+    default @Nullable String getName() {
+        return null;
+    }
+
+    /**
+     * @return 是否已被要求停止
+     * @since 5.0.3
+     */
+    default boolean isStopping() {
+        return false;
+    }
+
+    /**
+     * @return 以毫秒计的任务开始时间戳；尚未开始时为 0
+     * @since 5.0.3
+     */
+    default long getStartTime() {
+        return 0;
+    }
+
+    /**
+     * @return 已执行完毕的循环轮次
+     * @since 5.0.3
+     */
+    default long getIterationCount() {
+        return 0;
+    }
+
+    /**
+     * @return 最近一轮循环从开始到其异步结果完成的耗时，以毫秒计
+     * @since 5.0.3
+     */
+    default double getLastIterationLatency() {
+        return 0;
+    }
+
+    /**
+     * @return 各轮循环的平均耗时，以毫秒计
+     * @since 5.0.3
+     */
+    default double getAverageIterationLatency() {
+        return 0;
+    }
+
+    /**
+     * @return 各轮循环的累计耗时，以毫秒计
+     * @since 5.0.3
+     */
+    default double getTotalIterationTime() {
+        return 0;
+    }
+
+    /**
+     * @return 相邻两轮循环之间的累计空闲时间（等待下一轮调度的时间），以毫秒计
+     * @since 5.0.3
+     */
+    default double getTotalIdleTime() {
+        return 0;
+    }
 }
@@ -9,6 +9,8 @@
  * <p>
  * - 阻塞代码异步化（block）执行与管理
  * <p>
+ * - 具名隔离工作线程池
+ * <p>
  * - Future/Promise 处理工具
  * <p>
  * - 异步链式调用与组合
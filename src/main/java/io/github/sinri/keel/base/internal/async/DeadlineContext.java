@@ -0,0 +1,132 @@
+package io.github.sinri.keel.base.internal.async;
+
+import io.github.sinri.keel.base.async.DeadlineExceededException;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.function.Supplier;
+
+/**
+ * 基于 Vert.x 上下文的截止时间存取与约束工具。
+ * <p>
+ * 截止时间以毫秒时间戳的形式存放在复制上下文（duplicated context）的本地数据中，
+ * 在该上下文中执行的异步逻辑（包括定时器回调）均可读取，从而实现嵌套调用对剩余时间预算的继承。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class DeadlineContext {
+    /**
+     * 表示未设置截止时间。
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final String DEADLINE_KEY = DeadlineContext.class.getName() + ".deadline";
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * @return 当前 Vert.x 上下文中的截止时间；不在 Vert.x 上下文中或未设置时返回 {@link #NO_DEADLINE}
+     */
+    public static long currentDeadline() {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            return NO_DEADLINE;
+        }
+        Object deadline = context.getLocal(DEADLINE_KEY);
+        if (deadline instanceof Long l) {
+            return l;
+        }
+        return NO_DEADLINE;
+    }
+
+    /**
+     * @param deadline 截止时间
+     * @return 距离截止时间剩余的毫秒数，最小为 0；未设置截止时间时返回 {@link #NO_DEADLINE}
+     */
+    public static long remainingTime(long deadline) {
+        if (deadline == NO_DEADLINE) {
+            return NO_DEADLINE;
+        }
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    /**
+     * 在一个携带指定截止时间的复制上下文中运行异步逻辑；不对其结果施加截止时间约束。
+     * <p>
+     * 实际生效的截止时间为指定截止时间与当前上下文截止时间中较早的一个。
+     *
+     * @param vertx    Vert.x 实例
+     * @param deadline 截止时间
+     * @param supplier 异步逻辑
+     * @param <T>      结果类型
+     * @return 异步逻辑的结果
+     */
+    public static <T> Future<T> runWithDeadline(Vertx vertx, long deadline, Supplier<Future<T>> supplier) {
+        long effectiveDeadline = Math.min(deadline, currentDeadline());
+        ContextInternal duplicated = ((ContextInternal) vertx.getOrCreateContext()).duplicate();
+        duplicated.putLocal(DEADLINE_KEY, effectiveDeadline);
+        Promise<T> promise = Promise.promise();
+        duplicated.runOnContext(v -> {
+            try {
+                supplier.get().onComplete(promise);
+            } catch (Throwable throwable) {
+                promise.tryFail(throwable);
+            }
+        });
+        return promise.future();
+    }
+
+    /**
+     * 在当前上下文的截止时间约束下运行异步逻辑：截止时间已过则直接失败而不运行，否则对其结果施加截止时间约束。
+     *
+     * @param vertx    Vert.x 实例
+     * @param supplier 异步逻辑
+     * @param <T>      结果类型
+     * @return 受截止时间约束的异步结果
+     */
+    public static <T> Future<T> callWithinCurrentDeadline(Vertx vertx, Supplier<Future<T>> supplier) {
+        long deadline = currentDeadline();
+        if (deadline == NO_DEADLINE) {
+            return supplier.get();
+        }
+        if (remainingTime(deadline) <= 0) {
+            return Future.failedFuture(new DeadlineExceededException(deadline));
+        }
+        return bound(vertx, deadline, supplier.get());
+    }
+
+    /**
+     * 对给定的异步结果施加截止时间约束：截止时间已到而尚未完成时，以 {@link DeadlineExceededException} 失败。
+     *
+     * @param vertx    Vert.x 实例
+     * @param deadline 截止时间；为 {@link #NO_DEADLINE} 时原样返回
+     * @param future   给定的异步结果
+     * @param <T>      结果类型
+     * @return 受截止时间约束的异步结果
+     */
+    public static <T> Future<T> bound(Vertx vertx, long deadline, Future<T> future) {
+        if (deadline == NO_DEADLINE || future.isComplete()) {
+            return future;
+        }
+        long remaining = remainingTime(deadline);
+        if (remaining <= 0) {
+            return Future.failedFuture(new DeadlineExceededException(deadline));
+        }
+        Promise<T> promise = Promise.promise();
+        long timerID = vertx.setTimer(remaining, id -> promise.tryFail(new DeadlineExceededException(deadline)));
+        future.onComplete(ar -> {
+            vertx.cancelTimer(timerID);
+            if (ar.succeeded()) {
+                promise.tryComplete(ar.result());
+            } else {
+                promise.tryFail(ar.cause());
+            }
+        });
+        return promise.future();
+    }
+}
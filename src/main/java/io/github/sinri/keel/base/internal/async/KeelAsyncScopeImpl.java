@@ -0,0 +1,157 @@
+package io.github.sinri.keel.base.internal.async;
+
+import io.github.sinri.keel.base.async.DeadlineExceededException;
+import io.github.sinri.keel.base.async.KeelAsyncScope;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * {@link KeelAsyncScope} 的默认实现。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class KeelAsyncScopeImpl implements KeelAsyncScope {
+    private final Vertx vertx;
+    private final long deadline;
+    private final AtomicReference<@Nullable Throwable> cancellationCauseRef = new AtomicReference<>();
+    private final Promise<Void> cancellationPromise = Promise.promise();
+    private final Promise<Void> childrenEndedPromise = Promise.promise();
+    private final AtomicInteger activeChildCount = new AtomicInteger(0);
+    private final AtomicBoolean closing = new AtomicBoolean(false);
+    private final long timeout;
+    private final long timerID;
+
+    /**
+     * 构造作用域；作用域的截止时间不晚于当前 Vert.x 上下文中的截止时间。
+     *
+     * @param vertx   Vert.x 实例
+     * @param timeout 以毫秒计的超时时间；小于等于 0 表示不额外设置截止时间
+     */
+    public KeelAsyncScopeImpl(Vertx vertx, long timeout) {
+        this.vertx = vertx;
+        long now = System.currentTimeMillis();
+        this.deadline = Math.min(timeout > 0 ? now + timeout : DeadlineContext.NO_DEADLINE, DeadlineContext.currentDeadline());
+        if (this.deadline != DeadlineContext.NO_DEADLINE) {
+            this.timeout = Math.max(1, this.deadline - now);
+            this.timerID = vertx.setTimer(this.timeout, id -> cancel(new ScopeTimeoutException(this.timeout)));
+        } else {
+            this.timeout = 0;
+            this.timerID = -1;
+        }
+    }
+
+    @Override
+    public long deadline() {
+        return deadline;
+    }
+
+    @Override
+    public long remainingTime() {
+        return DeadlineContext.remainingTime(deadline);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancellationCauseRef.get() != null;
+    }
+
+    @Override
+    public @Nullable Throwable cancellationCause() {
+        return cancellationCauseRef.get();
+    }
+
+    @Override
+    public Future<Void> cancellation() {
+        return cancellationPromise.future();
+    }
+
+    @Override
+    public int activeChildCount() {
+        return activeChildCount.get();
+    }
+
+    @Override
+    public <T> Future<T> fork(Supplier<Future<T>> childSupplier) {
+        activeChildCount.incrementAndGet();
+        if (closing.get()) {
+            onChildEnded();
+            return Future.failedFuture(new IllegalStateException("Async scope has been closed"));
+        }
+        Throwable cancellationCause = cancellationCauseRef.get();
+        if (cancellationCause != null) {
+            onChildEnded();
+            return Future.failedFuture(new ScopeCancelledException(cancellationCause));
+        }
+
+        Future<T> child;
+        try {
+            if (deadline == DeadlineContext.NO_DEADLINE) {
+                child = childSupplier.get();
+            } else {
+                // 子任务在携带作用域截止时间的上下文中运行，其内嵌套的 Keel 异步调用继承剩余的时间预算
+                child = DeadlineContext.runWithDeadline(vertx, deadline, childSupplier);
+            }
+        } catch (Throwable throwable) {
+            child = Future.failedFuture(throwable);
+        }
+
+        Promise<T> promise = Promise.promise();
+        cancellationPromise.future()
+                           .onSuccess(v -> promise.tryFail(new ScopeCancelledException(cancellationCauseRef.get())));
+        child.onComplete(ar -> {
+            if (ar.succeeded()) {
+                promise.tryComplete(ar.result());
+            } else {
+                promise.tryFail(ar.cause());
+                if (ar.cause() instanceof DeadlineExceededException && remainingTime() == 0) {
+                    // 子任务因继承的截止时间而失败，与作用域自身超时同源
+                    cancel(new ScopeTimeoutException(timeout));
+                } else {
+                    cancel(ar.cause());
+                }
+            }
+            onChildEnded();
+        });
+        return promise.future();
+    }
+
+    private void onChildEnded() {
+        if (activeChildCount.decrementAndGet() == 0 && closing.get()) {
+            childrenEndedPromise.tryComplete();
+        }
+    }
+
+    @Override
+    public void cancel(Throwable cause) {
+        if (cancellationCauseRef.compareAndSet(null, cause)) {
+            cancellationPromise.tryComplete();
+        }
+    }
+
+    @Override
+    public Future<Void> close() {
+        if (closing.compareAndSet(false, true) && activeChildCount.get() == 0) {
+            childrenEndedPromise.tryComplete();
+        }
+        return childrenEndedPromise.future()
+                                   .compose(v -> {
+                                       if (timerID >= 0) {
+                                           vertx.cancelTimer(timerID);
+                                       }
+                                       Throwable cancellationCause = cancellationCauseRef.get();
+                                       if (cancellationCause != null) {
+                                           return Future.failedFuture(cancellationCause);
+                                       }
+                                       return Future.succeededFuture();
+                                   });
+    }
+}
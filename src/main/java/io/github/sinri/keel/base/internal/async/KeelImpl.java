@@ -1,12 +1,19 @@
 package io.github.sinri.keel.base.internal.async;
 
 import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.base.async.NamedWorkerExecutor;
+import io.github.sinri.keel.base.async.RepeatedlyCallTask;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.internal.VertxWrapper;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -20,6 +27,11 @@ import java.util.function.Supplier;
 @NullMarked
 public class KeelImpl extends VertxWrapper implements Keel {
     private static final AtomicReference<@Nullable Keel> sharedKeelRef = new AtomicReference<>();
+    private final Map<String, NamedWorkerExecutor> namedWorkerExecutorMap = new ConcurrentHashMap<>();
+    /**
+     * 本实例上发起、尚未结束的异步循环任务，在本实例关闭时清空。
+     */
+    private final Map<Long, RepeatedlyCallTask> liveTaskMap = new ConcurrentHashMap<>();
 
     public KeelImpl(Vertx vertx) {
         this((VertxInternal) vertx);
@@ -60,4 +72,56 @@ public class KeelImpl extends VertxWrapper implements Keel {
         }
         return sharedKeelRef.get();
     }
+
+    @Override
+    public NamedWorkerExecutor createNamedWorkerExecutor(
+            String name,
+            int poolSize,
+            int maxQueueSize,
+            NamedWorkerExecutor.RejectionPolicy rejectionPolicy
+    ) {
+        return namedWorkerExecutorMap.computeIfAbsent(
+                name,
+                k -> new NamedWorkerExecutorImpl(this, k, poolSize, maxQueueSize, rejectionPolicy)
+        );
+    }
+
+    @Override
+    public @Nullable NamedWorkerExecutor getNamedWorkerExecutor(String name) {
+        return namedWorkerExecutorMap.get(name);
+    }
+
+    @Override
+    public Collection<NamedWorkerExecutor> getNamedWorkerExecutors() {
+        return List.copyOf(namedWorkerExecutorMap.values());
+    }
+
+    @Override
+    public Future<Void> closeNamedWorkerExecutor(String name) {
+        NamedWorkerExecutor removed = namedWorkerExecutorMap.remove(name);
+        if (removed == null) {
+            return Future.succeededFuture();
+        }
+        return removed.close();
+    }
+
+    @Override
+    public Collection<RepeatedlyCallTask> getLiveRepeatedlyCallTasks() {
+        return List.copyOf(liveTaskMap.values());
+    }
+
+    void registerLiveTask(RepeatedlyCallTask task) {
+        liveTaskMap.put(task.getId(), task);
+    }
+
+    void unregisterLiveTask(RepeatedlyCallTask task) {
+        liveTaskMap.remove(task.getId());
+    }
+
+    @Override
+    public Future<Void> close() {
+        // 关闭时仍在运行的循环不会再走到注销逻辑，在此一并清除
+        return super.close()
+                    .andThen(ar -> liveTaskMap.clear());
+    }
 }
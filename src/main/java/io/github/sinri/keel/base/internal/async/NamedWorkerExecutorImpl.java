@@ -0,0 +1,155 @@
+package io.github.sinri.keel.base.internal.async;
+
+import io.github.sinri.keel.base.async.NamedWorkerExecutor;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link NamedWorkerExecutor} 的默认实现。
+ * <p>
+ * 基于 Vert.x 的共享 {@link WorkerExecutor} 提供线程隔离，并在提交时以计数方式实现排队上限。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class NamedWorkerExecutorImpl implements NamedWorkerExecutor {
+    private final Vertx vertx;
+    private final String name;
+    private final int poolSize;
+    private final int maxQueueSize;
+    private final RejectionPolicy rejectionPolicy;
+    private final WorkerExecutor workerExecutor;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    /**
+     * 已接纳（排队中与执行中）的任务数。
+     */
+    private final AtomicInteger admittedCount = new AtomicInteger(0);
+    private final AtomicInteger activeCount = new AtomicInteger(0);
+    private final LongAdder startedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong(0);
+
+    public NamedWorkerExecutorImpl(Vertx vertx, String name, int poolSize, int maxQueueSize, RejectionPolicy rejectionPolicy) {
+        if (poolSize <= 0)
+            throw new IllegalArgumentException("poolSize must be greater than 0");
+        if (maxQueueSize < 0)
+            throw new IllegalArgumentException("maxQueueSize must not be less than 0");
+        this.vertx = vertx;
+        this.name = name;
+        this.poolSize = poolSize;
+        this.maxQueueSize = maxQueueSize;
+        this.rejectionPolicy = rejectionPolicy;
+        this.workerExecutor = vertx.createSharedWorkerExecutor("keel-worker-" + name, poolSize);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int poolSize() {
+        return poolSize;
+    }
+
+    @Override
+    public int maxQueueSize() {
+        return maxQueueSize;
+    }
+
+    @Override
+    public RejectionPolicy rejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    @Override
+    public <T> Future<T> executeBlocking(Callable<T> blockingCode) {
+        if (closed.get()) {
+            return Future.failedFuture(new IllegalStateException("Named worker executor " + name + " has been closed"));
+        }
+        if (admittedCount.incrementAndGet() > poolSize + maxQueueSize) {
+            admittedCount.decrementAndGet();
+            rejectedCount.increment();
+            if (rejectionPolicy == RejectionPolicy.DELEGATE_TO_DEFAULT_POOL) {
+                return vertx.executeBlocking(blockingCode, false);
+            }
+            return Future.failedFuture(new RejectedExecutionException("Named worker executor " + name + " is saturated"));
+        }
+
+        long submittedAt = System.nanoTime();
+        AtomicBoolean started = new AtomicBoolean(false);
+        return workerExecutor.executeBlocking(() -> {
+            started.set(true);
+            long waited = System.nanoTime() - submittedAt;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            startedCount.increment();
+            activeCount.incrementAndGet();
+            try {
+                return blockingCode.call();
+            } finally {
+                activeCount.decrementAndGet();
+                admittedCount.decrementAndGet();
+                completedCount.increment();
+            }
+        }, false).onFailure(throwable -> {
+            // 任务未能开始执行（例如工作线程池已关闭而被拒绝）时，释放其占用的名额
+            if (!started.get()) {
+                admittedCount.decrementAndGet();
+            }
+        });
+    }
+
+    @Override
+    public int activeCount() {
+        return activeCount.get();
+    }
+
+    @Override
+    public int queuedCount() {
+        return Math.max(0, admittedCount.get() - activeCount.get());
+    }
+
+    @Override
+    public long completedCount() {
+        return completedCount.sum();
+    }
+
+    @Override
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public double averageWaitTime() {
+        long started = startedCount.sum();
+        if (started == 0) {
+            return 0;
+        }
+        return totalWaitNanos.sum() / 1_000_000.0 / started;
+    }
+
+    @Override
+    public double maxWaitTime() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public Future<Void> close() {
+        if (!closed.compareAndSet(false, true)) {
+            return Future.succeededFuture();
+        }
+        return workerExecutor.close();
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.sinri.keel.base.internal.async;
 
+import io.github.sinri.keel.base.async.DeadlineExceededException;
 import io.github.sinri.keel.base.async.RepeatedlyCallTask;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 
@@ -14,7 +17,11 @@ import java.util.function.Function;
  * <p>
  * 包含一个异步的循环体，以间隔 1 毫秒的节奏循环执行；
  * 每次任务循环结束时，检查任务结束标记确认是否结束循环；
- * 当循环执行任务中抛出异常引发异步失败，则循环强制结束并向外抛出该根因异常。
+ * 当循环执行任务中抛出异常引发异步失败，则循环强制结束并向外抛出该根因异常；
+ * 如果设置了截止时间，则在截止时间之后不再开始新的循环，并以 {@link DeadlineExceededException} 失败。
+ * <p>
+ * 循环过程中记录轮次、每轮耗时与轮间空闲时间等统计信息（任一轮失败即结束循环，故不单独统计失败次数）；
+ * 通过 {@link #launch(Vertx, RepeatedlyCallTaskImpl)} 在 {@link KeelImpl} 上启动的任务，运行期间登记于该实例的存活任务表中。
  *
  * @see #start(Vertx, RepeatedlyCallTaskImpl, Promise)
  * @see #stop()
@@ -22,22 +29,88 @@ import java.util.function.Function;
  */
 @NullMarked
 public final class RepeatedlyCallTaskImpl implements RepeatedlyCallTask {
+    private static final AtomicLong idSequence = new AtomicLong(0);
+
+    private final long id;
+    private final @Nullable String name;
     private final Function<RepeatedlyCallTask, Future<Void>> processor;
+    private final long deadline;
     private volatile boolean toStop = false;
 
+    private volatile long startTime = 0;
+    private volatile long iterationCount = 0;
+    private volatile long lastIterationNanos = 0;
+    private volatile long totalIterationNanos = 0;
+    private volatile long totalIdleNanos = 0;
+    private volatile long lastIterationEndedAt = 0;
+
     public RepeatedlyCallTaskImpl(Function<RepeatedlyCallTask, Future<Void>> processor) {
+        this(processor, DeadlineContext.NO_DEADLINE);
+    }
+
+    /**
+     * @param processor 循环体
+     * @param deadline  以毫秒计的截止时间戳；{@link DeadlineContext#NO_DEADLINE} 表示不设置
+     * @since 5.0.3
+     */
+    public RepeatedlyCallTaskImpl(Function<RepeatedlyCallTask, Future<Void>> processor, long deadline) {
+        this(null, processor, deadline);
+    }
+
+    /**
+     * @param name      可选的任务名称
+     * @param processor 循环体
+     * @param deadline  以毫秒计的截止时间戳；{@link DeadlineContext#NO_DEADLINE} 表示不设置
+     * @since 5.0.3
+     */
+    public RepeatedlyCallTaskImpl(@Nullable String name, Function<RepeatedlyCallTask, Future<Void>> processor, long deadline) {
+        this.id = idSequence.incrementAndGet();
+        this.name = name;
         this.processor = processor;
+        this.deadline = deadline;
+    }
+
+    /**
+     * 启动异步循环任务；给定的实例为 {@link KeelImpl} 时，任务登记于该实例的存活任务表中，结束后自动注销。
+     *
+     * @param vertx    Vert.x 实例
+     * @param thisTask 异步循环任务
+     * @return 异步循环执行结果
+     * @since 5.0.3
+     */
+    public static Future<Void> launch(Vertx vertx, RepeatedlyCallTaskImpl thisTask) {
+        Promise<Void> promise = Promise.promise();
+        if (!(vertx instanceof KeelImpl keel)) {
+            start(vertx, thisTask, promise);
+            return promise.future();
+        }
+        keel.registerLiveTask(thisTask);
+        start(vertx, thisTask, promise);
+        return promise.future()
+                      .andThen(ar -> keel.unregisterLiveTask(thisTask));
     }
 
     public static void start(Vertx vertx, RepeatedlyCallTaskImpl thisTask, Promise<Void> finalPromise) {
+        if (thisTask.startTime == 0) {
+            thisTask.startTime = System.currentTimeMillis();
+        }
+        long iterationStartedAt = System.nanoTime();
+        if (thisTask.lastIterationEndedAt > 0) {
+            thisTask.totalIdleNanos += iterationStartedAt - thisTask.lastIterationEndedAt;
+        }
         Future.succeededFuture()
               .compose(v -> {
                   if (thisTask.toStop) {
                       return Future.succeededFuture();
                   }
+                  if (thisTask.deadline != DeadlineContext.NO_DEADLINE
+                          && System.currentTimeMillis() >= thisTask.deadline) {
+                      return Future.failedFuture(new DeadlineExceededException(thisTask.deadline));
+                  }
                   return thisTask.processor.apply(thisTask);
               })
               .andThen(shouldStopAR -> {
+                  thisTask.recordIteration(iterationStartedAt);
                   if (shouldStopAR.succeeded()) {
                       if (thisTask.toStop) {
                           finalPromise.complete();
@@ -50,7 +123,76 @@ public final class RepeatedlyCallTaskImpl implements RepeatedlyCallTask {
               });
     }
 
+    /**
+     * 记录一轮循环的统计信息；同一任务的各轮循环依次执行，故此处不存在并发写入。
+     */
+    private void recordIteration(long iterationStartedAt) {
+        long iterationEndedAt = System.nanoTime();
+        long elapsed = iterationEndedAt - iterationStartedAt;
+        lastIterationNanos = elapsed;
+        totalIterationNanos += elapsed;
+        iterationCount++;
+        lastIterationEndedAt = iterationEndedAt;
+    }
+
     public void stop() {
         toStop = true;
     }
+
+    /**
+     * @return 以毫秒计的截止时间戳；{@link DeadlineContext#NO_DEADLINE} 表示未设置
+     * @since 5.0.3
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public @Nullable String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isStopping() {
+        return toStop;
+    }
+
+    @Override
+    public long getStartTime() {
+        return startTime;
+    }
+
+    @Override
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    @Override
+    public double getLastIterationLatency() {
+        return lastIterationNanos / 1_000_000.0;
+    }
+
+    @Override
+    public double getAverageIterationLatency() {
+        long count = iterationCount;
+        if (count == 0) {
+            return 0;
+        }
+        return totalIterationNanos / 1_000_000.0 / count;
+    }
+
+    @Override
+    public double getTotalIterationTime() {
+        return totalIterationNanos / 1_000_000.0;
+    }
+
+    @Override
+    public double getTotalIdleTime() {
+        return totalIdleNanos / 1_000_000.0;
+    }
 }
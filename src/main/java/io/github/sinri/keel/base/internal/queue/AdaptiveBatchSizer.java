@@ -0,0 +1,71 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 队列消费循环的自适应批次大小。
+ * <p>
+ * 消费者在每轮处理后以本轮的处理耗时与剩余积压调用 {@link #adjust(long, long)}：
+ * <ul>
+ *     <li>处理耗时超过目标时，批次减半，优先保证处理延迟；</li>
+ *     <li>积压超过一个批次且耗时不足目标的一半时，批次加倍，以更大的批次摊薄每次 I/O 的开销；</li>
+ *     <li>积压不足四分之一个批次时，批次逐步缩小，空闲时以小批次尽快写出。</li>
+ * </ul>
+ * 批次大小始终位于给定的上下界之内。仅应由消费者调用 {@link #adjust(long, long)}，{@link #currentSize()} 可在任意线程读取。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class AdaptiveBatchSizer {
+    private final int minSize;
+    private final int maxSize;
+    private final long targetLatencyNanos;
+    private volatile int currentSize;
+
+    /**
+     * @param initialSize        初始批次大小，将被限制在上下界之内
+     * @param minSize            批次大小下界
+     * @param maxSize            批次大小上界
+     * @param targetLatencyNanos 以纳秒计的单轮处理耗时目标
+     */
+    public AdaptiveBatchSizer(int initialSize, int minSize, int maxSize, long targetLatencyNanos) {
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("batch size bounds must satisfy 0 < min <= max");
+        }
+        if (targetLatencyNanos <= 0) {
+            throw new IllegalArgumentException("targetLatency must be greater than 0");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.currentSize = Math.max(minSize, Math.min(maxSize, initialSize));
+    }
+
+    public int currentSize() {
+        return currentSize;
+    }
+
+    /**
+     * 根据一轮处理的结果调整批次大小。
+     *
+     * @param latencyNanos 以纳秒计的本轮处理耗时
+     * @param backlog      本轮处理后队列中剩余的元素数
+     * @return 批次大小是否发生变化
+     */
+    public boolean adjust(long latencyNanos, long backlog) {
+        int size = currentSize;
+        int next = size;
+        if (latencyNanos > targetLatencyNanos) {
+            next = Math.max(minSize, size / 2);
+        } else if (backlog > size && latencyNanos * 2 <= targetLatencyNanos) {
+            next = (int) Math.min(maxSize, size * 2L);
+        } else if (backlog < size / 4) {
+            next = Math.max(minSize, size - Math.max(1, size / 4));
+        }
+        if (next == size) {
+            return false;
+        }
+        currentSize = next;
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 预分配的有界无锁环形队列。
+ * <p>
+ * 基于序号槽位（Vyukov 有界队列）实现，支持多生产者与多消费者并发存取；
+ * 容量向上取整为 2 的幂，槽位在构造时一次性分配，存取过程中不再产生节点对象。
+ *
+ * @param <E> 元素类型
+ * @since 5.0.3
+ */
+@NullMarked
+public final class BoundedRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<@Nullable E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong(0);
+    private final AtomicLong dequeuePosition = new AtomicLong(0);
+
+    /**
+     * @param requestedCapacity 期望容量，将向上取整为 2 的幂
+     */
+    public BoundedRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in (0, 2^30]");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity);
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return 实际容量
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 尝试入队。
+     *
+     * @param element 元素
+     * @return 队列已满时返回 false
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = enqueuePosition.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 尝试出队。
+     *
+     * @return 队首元素；队列为空时返回 null
+     */
+    public @Nullable E poll() {
+        while (true) {
+            long position = dequeuePosition.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E element = slots.get(index);
+                    slots.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return 近似的元素数量
+     */
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import io.github.sinri.keel.base.logger.codec.SpillCodec;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 队列消费循环的磁盘溢出层。
+ * <p>
+ * 每条记录以 topic 与 {@link SpillCodec} 编码结果组成的负载写入 {@link SpillSegmentQueue}。
+ * 文件操作以有序阻塞任务的形式在工作线程上执行，因此在同一上下文中先提交的写入总在后提交的读取之前完成。
+ * 本类的方法应在所属消费者的上下文中调用。
+ *
+ * @param <T> 记录类型
+ * @since 5.0.3
+ */
+@NullMarked
+public final class OverflowTier<T> {
+    private final SpillSegmentQueue store;
+    private final SpillCodec<T> codec;
+    /**
+     * 已从内存队列取出、尚未写入磁盘的记录数。
+     */
+    private final AtomicLong inTransitCount = new AtomicLong(0);
+    private final LongAdder lostCount = new LongAdder();
+    private volatile long storedCount;
+
+    private OverflowTier(SpillSegmentQueue store, SpillCodec<T> codec) {
+        this.store = store;
+        this.codec = codec;
+        this.storedCount = store.pendingCount();
+    }
+
+    /**
+     * 打开溢出目录，恢复上次未处理完的记录。
+     *
+     * @param directory   溢出目录，由调用方独占
+     * @param segmentSize 以字节计的分段大小
+     * @param codec       记录的编解码器
+     */
+    public static <T> Future<OverflowTier<T>> open(Vertx vertx, Path directory, long segmentSize, SpillCodec<T> codec) {
+        return vertx.executeBlocking(
+                () -> new OverflowTier<>(SpillSegmentQueue.open(directory, segmentSize), codec),
+                true
+        );
+    }
+
+    /**
+     * @return 溢出层中是否有尚未处理的记录，包括正在写入磁盘的记录
+     */
+    public boolean hasRecords() {
+        return inTransitCount.get() > 0 || storedCount > 0;
+    }
+
+    /**
+     * @return 溢出层中尚未处理的记录数，包括正在写入磁盘的记录
+     */
+    public long storedCount() {
+        return storedCount + inTransitCount.get();
+    }
+
+    /**
+     * @return 因编解码或写入失败而丢失的记录数，以及磁盘上被跳过的残缺帧数
+     */
+    public long lostCount() {
+        return lostCount.sum() + store.corruptedCount();
+    }
+
+    /**
+     * 将记录按给定顺序追加到磁盘。
+     *
+     * @param records topic 与记录，按出队顺序排列
+     * @return 写入结果；失败时这些记录计入丢失数
+     */
+    public Future<Void> append(Vertx vertx, List<Map.Entry<String, T>> records) {
+        int count = records.size();
+        inTransitCount.addAndGet(count);
+        return vertx.<Void>executeBlocking(() -> {
+                        List<byte[]> payloads = new ArrayList<>(count);
+                        for (Map.Entry<String, T> record : records) {
+                            try {
+                                payloads.add(encode(record.getKey(), codec.encode(record.getValue())));
+                            } catch (RuntimeException e) {
+                                lostCount.increment();
+                            }
+                        }
+                        try {
+                            store.append(payloads);
+                        } finally {
+                            storedCount = store.pendingCount();
+                            inTransitCount.addAndGet(-count);
+                        }
+                        return null;
+                    }, true)
+                    .onFailure(throwable -> lostCount.add(count));
+    }
+
+    /**
+     * 读出至多给定条数的记录并按 topic 分组，各 topic 内保持写入顺序；全部处理成功后须调用 {@link #commit(Vertx)}，
+     * 否则调用 {@link #rewind(Vertx)}。
+     *
+     * @return 按 topic 分组的批次
+     */
+    public Future<List<Map.Entry<String, List<T>>>> read(Vertx vertx, int maxRecords) {
+        return vertx.executeBlocking(() -> {
+            Map<String, List<T>> grouped = new LinkedHashMap<>();
+            for (byte[] payload : store.read(maxRecords)) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(payload);
+                    byte[] topicBytes = new byte[buffer.getInt()];
+                    buffer.get(topicBytes);
+                    byte[] body = new byte[buffer.remaining()];
+                    buffer.get(body);
+                    grouped.computeIfAbsent(new String(topicBytes, StandardCharsets.UTF_8), k -> new ArrayList<>())
+                           .add(codec.decode(body));
+                } catch (RuntimeException e) {
+                    lostCount.increment();
+                }
+            }
+            return new ArrayList<>(grouped.entrySet());
+        }, true);
+    }
+
+    /**
+     * 持久化读取进度；崩溃时最近一次提交之后读出的记录将被再次读出。
+     */
+    public Future<Void> commit(Vertx vertx) {
+        return vertx.executeBlocking(() -> {
+            store.commit();
+            storedCount = store.pendingCount();
+            return null;
+        }, true);
+    }
+
+    /**
+     * 放弃自最近一次提交以来的读取，使其间读出的记录被再次读出；用于处理失败时。
+     */
+    public Future<Void> rewind(Vertx vertx) {
+        return vertx.executeBlocking(() -> {
+            store.rewind();
+            return null;
+        }, true);
+    }
+
+    public Future<Void> close(Vertx vertx) {
+        return vertx.executeBlocking(() -> {
+            store.close();
+            return null;
+        }, true);
+    }
+
+    private static byte[] encode(String topic, byte[] body) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + topicBytes.length + body.length)
+                         .putInt(topicBytes.length)
+                         .put(topicBytes)
+                         .put(body)
+                         .array();
+    }
+}
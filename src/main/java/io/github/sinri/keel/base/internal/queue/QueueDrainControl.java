@@ -0,0 +1,392 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.base.async.RepeatedlyCallTask;
+import io.github.sinri.keel.base.logger.codec.SpillCodec;
+import io.github.sinri.keel.base.logger.factory.StdoutLoggerFactory;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 队列消费循环的停止时限与磁盘溢出层控制。
+ * <p>
+ * 停止时消费者调用 {@link #stop(Keel, long, Path)}：处理循环在时限内结束则直接完成；超时后终止处理循环，
+ * 剩余记录写入磁盘溢出层，未启用溢出层时以每行一个 JSON 对象的格式追加写入转存文件，或在未指定转存文件时丢弃并计数。
+ * <p>
+ * 启用磁盘溢出层后，内存积压超过阈值的记录被定期写入溢出层；溢出层非空时，处理循环经
+ * {@link #replayOverflowTier(Keel, int, long, RepeatedlyCallTask, BiFunction)} 先行回放。
+ * <p>
+ * 计数可在任意线程读取，其余方法应在所属消费者的上下文中调用。
+ *
+ * @param <T> 记录类型
+ * @since 5.0.3
+ */
+@NullMarked
+public final class QueueDrainControl<T> {
+    private final String recordKind;
+    private final String loggerTopic;
+    private final DrainSignal drainSignal;
+    private final Supplier<List<Map.Entry<String, T>>> queuedRecords;
+    private final Supplier<List<Map.Entry<String, T>>> remainingRecords;
+    private final SpillLineRender<T> spillLineRender;
+    private final AtomicBoolean closing = new AtomicBoolean(false);
+    /**
+     * 停止超时后置位，处理循环不再处理任何记录。
+     */
+    private final AtomicBoolean abandoned = new AtomicBoolean(false);
+    private final AtomicLong shutdownSpilledCount = new AtomicLong(0);
+    private final AtomicLong shutdownDroppedCount = new AtomicLong(0);
+    private final Promise<Void> endedPromise = Promise.promise();
+    private volatile @Nullable OverflowTier<T> overflowTier;
+    private long overflowTimerID = -1;
+    /**
+     * 是否有向溢出层的写入尚未完成。
+     */
+    private boolean overflowSpilling = false;
+    /**
+     * 溢出层回放连续失败的次数，仅在处理循环中访问。
+     */
+    private int overflowReplayFailures = 0;
+    /**
+     * 回放失败后退避等待的中断器，停止时完成以免等待完整的退避时间。
+     */
+    private @Nullable Promise<Void> overflowReplayBackoff;
+
+    /**
+     * @param recordKind       日志消息中记录的称谓，如 {@code log records}
+     * @param loggerTopic      输出转存与丢失消息的日志记录器名称
+     * @param drainSignal      处理循环的唤醒信号，停止时被触发
+     * @param queuedRecords    取出内存队列中全部记录，按出队顺序排列
+     * @param remainingRecords 停止超时后取出全部剩余记录，可包含尚未入队的汇总记录
+     * @param spillLineRender  转存文件中每行的渲染方式
+     */
+    public QueueDrainControl(
+            String recordKind,
+            String loggerTopic,
+            DrainSignal drainSignal,
+            Supplier<List<Map.Entry<String, T>>> queuedRecords,
+            Supplier<List<Map.Entry<String, T>>> remainingRecords,
+            SpillLineRender<T> spillLineRender
+    ) {
+        this.recordKind = recordKind;
+        this.loggerTopic = loggerTopic;
+        this.drainSignal = drainSignal;
+        this.queuedRecords = queuedRecords;
+        this.remainingRecords = remainingRecords;
+        this.spillLineRender = spillLineRender;
+    }
+
+    /**
+     * @return 是否已开始停止
+     */
+    public boolean isClosing() {
+        return closing.get();
+    }
+
+    /**
+     * @return 是否已因停止超时而放弃剩余记录
+     */
+    public boolean isAbandoned() {
+        return abandoned.get();
+    }
+
+    /**
+     * 处理循环结束时调用。
+     */
+    public void loopEnded(AsyncResult<Void> ar) {
+        endedPromise.handle(ar);
+    }
+
+    /**
+     * 打开磁盘溢出层；目录或编解码器为 null 时不启用。
+     */
+    public Future<Void> openOverflowTier(Keel keel, @Nullable Path directory, long segmentSize, @Nullable SpillCodec<T> codec) {
+        if (directory == null || codec == null) {
+            return Future.succeededFuture();
+        }
+        return OverflowTier.open(keel, directory, segmentSize, codec)
+                           .onSuccess(tier -> overflowTier = tier)
+                           .mapEmpty();
+    }
+
+    /**
+     * @return 是否启用了磁盘溢出层
+     */
+    public boolean isOverflowEnabled() {
+        return overflowTier != null;
+    }
+
+    /**
+     * @return 磁盘溢出层中是否有尚未处理的记录；未启用时为 false
+     */
+    public boolean hasOverflowRecords() {
+        OverflowTier<T> tier = overflowTier;
+        return tier != null && tier.hasRecords();
+    }
+
+    /**
+     * @return 磁盘溢出层中尚未处理的记录数；未启用时为 0
+     */
+    public long overflowRecordCount() {
+        OverflowTier<T> tier = overflowTier;
+        return tier == null ? 0 : tier.storedCount();
+    }
+
+    /**
+     * @return 磁盘溢出层中因编解码或写入失败而丢失的记录数；未启用时为 0
+     */
+    public long overflowLostCount() {
+        OverflowTier<T> tier = overflowTier;
+        return tier == null ? 0 : tier.lostCount();
+    }
+
+    /**
+     * @return 停止超时后被转存到文件的记录数
+     */
+    public long shutdownSpilledCount() {
+        return shutdownSpilledCount.get();
+    }
+
+    /**
+     * @return 停止超时后被丢弃的记录数
+     */
+    public long shutdownDroppedCount() {
+        return shutdownDroppedCount.get();
+    }
+
+    /**
+     * 启用磁盘溢出层时，开始定期检查内存积压。
+     *
+     * @param interval  以毫秒计的检查间隔
+     * @param backlog   内存队列中的记录数
+     * @param threshold 触发溢出的内存积压阈值
+     */
+    public void startOverflowCheck(Keel keel, long interval, LongSupplier backlog, long threshold) {
+        if (overflowTier == null) {
+            return;
+        }
+        overflowTimerID = keel.setPeriodic(
+                Math.max(1, interval),
+                timerID -> spillToOverflowTier(keel, backlog, threshold)
+        );
+    }
+
+    /**
+     * 内存积压超过阈值时，将队列中的记录全部取出并写入溢出层。
+     * <p>
+     * 溢出层非空时处理循环只从溢出层读取，写入溢出层的记录总是早于仍在内存队列中的记录，因此各 topic 的顺序不变。
+     */
+    private void spillToOverflowTier(Keel keel, LongSupplier backlog, long threshold) {
+        OverflowTier<T> tier = overflowTier;
+        if (tier == null || overflowSpilling || abandoned.get()) {
+            return;
+        }
+        if (backlog.getAsLong() <= threshold) {
+            return;
+        }
+        List<Map.Entry<String, T>> records = queuedRecords.get();
+        if (records.isEmpty()) {
+            return;
+        }
+        overflowSpilling = true;
+        tier.append(keel, records)
+            .onComplete(ar -> overflowSpilling = false)
+            .onFailure(throwable -> StdoutLoggerFactory.getInstance()
+                                                       .createLogger(loggerTopic)
+                                                       .error(log -> log.message(records.size() + " " + recordKind + " were lost while spilling to overflow directory")
+                                                                        .exception(throwable)));
+    }
+
+    /**
+     * 从溢出层读取一批记录并处理；全部批次成功后才确认读取进度，否则回退进度并退避后重试。
+     * <p>
+     * 重试时同一次读取中已成功的批次会被再次处理，即至少一次。应仅在 {@link #hasOverflowRecords()} 为 true 时调用。
+     *
+     * @param maxRecords 一次读取的最大记录数
+     * @param retryDelay 以毫秒计的首次退避时间，连续失败时逐次翻倍，至多为本值的 32 倍
+     * @param task       处理循环，停止时下游仍不可用则被终止
+     * @param handler    按 topic 处理一批记录
+     */
+    public Future<Void> replayOverflowTier(
+            Keel keel,
+            int maxRecords,
+            long retryDelay,
+            RepeatedlyCallTask task,
+            BiFunction<String, List<T>, Future<Void>> handler
+    ) {
+        OverflowTier<T> tier = overflowTier;
+        if (tier == null) {
+            return Future.succeededFuture();
+        }
+        return tier.read(keel, maxRecords)
+                   .compose(batches -> {
+                       List<Future<Void>> results = new ArrayList<>(batches.size());
+                       Future<Void> future = Future.succeededFuture();
+                       for (Map.Entry<String, List<T>> batch : batches) {
+                           future = future.transform(ar -> handler.apply(batch.getKey(), batch.getValue()));
+                           results.add(future);
+                       }
+                       return Future.join(results);
+                   })
+                   .transform(ar -> {
+                       if (ar.succeeded()) {
+                           overflowReplayFailures = 0;
+                           return tier.commit(keel);
+                       }
+                       return tier.rewind(keel)
+                                  .compose(v -> backOffOverflowReplay(keel, tier, retryDelay, task));
+                   });
+    }
+
+    private Future<Void> backOffOverflowReplay(Keel keel, OverflowTier<T> tier, long retryDelay, RepeatedlyCallTask task) {
+        if (closing.get()) {
+            // 停止时下游仍不可用：溢出层中的记录留待下次启动时回放，内存队列中的记录也一并写入溢出层
+            task.stop();
+            List<Map.Entry<String, T>> records = queuedRecords.get();
+            if (records.isEmpty()) {
+                return Future.succeededFuture();
+            }
+            return tier.append(keel, records).otherwiseEmpty();
+        }
+        overflowReplayFailures++;
+        long delay = Math.max(1, retryDelay) << Math.min(overflowReplayFailures - 1, 5);
+        Promise<Void> interrupter = Promise.promise();
+        overflowReplayBackoff = interrupter;
+        return keel.asyncSleep(delay, interrupter)
+                   .onComplete(ar -> overflowReplayBackoff = null);
+    }
+
+    /**
+     * 开始停止：唤醒处理循环并等待其结束，随后关闭溢出层。
+     *
+     * @param timeout   以毫秒计的停止时限；小于等于 0 表示一直等待到处理循环结束
+     * @param spillPath 停止超时且未启用溢出层时剩余记录的转存文件；为 null 时丢弃
+     */
+    public Future<Void> stop(Keel keel, long timeout, @Nullable Path spillPath) {
+        closing.set(true);
+        drainSignal.signal();
+        Promise<Void> replayBackoff = overflowReplayBackoff;
+        if (replayBackoff != null) {
+            replayBackoff.tryComplete();
+        }
+        Future<Void> ended = endedPromise.future();
+        if (timeout > 0) {
+            // 处理循环在时限内结束则直接完成，否则放弃剩余记录，不再等待处理循环
+            Promise<Void> bounded = Promise.promise();
+            long timerID = keel.setTimer(timeout, id -> {
+                if (!endedPromise.future().isComplete()) {
+                    abandonRemainingRecords(keel, spillPath).onComplete(ar -> bounded.tryComplete());
+                }
+            });
+            ended.onComplete(ar -> {
+                keel.cancelTimer(timerID);
+                bounded.tryComplete();
+            });
+            ended = bounded.future();
+        }
+        if (overflowTimerID >= 0) {
+            keel.cancelTimer(overflowTimerID);
+        }
+        return ended.eventually(() -> {
+            OverflowTier<T> tier = overflowTier;
+            return tier == null ? Future.<Void>succeededFuture() : tier.close(keel).otherwiseEmpty();
+        });
+    }
+
+    /**
+     * 停止超时：终止处理循环，取出全部剩余记录并写入溢出层、转存或丢弃。
+     */
+    private Future<Void> abandonRemainingRecords(Keel keel, @Nullable Path spillPath) {
+        abandoned.set(true);
+        List<Map.Entry<String, T>> remaining = remainingRecords.get();
+        if (remaining.isEmpty()) {
+            return Future.succeededFuture();
+        }
+        OverflowTier<T> tier = overflowTier;
+        if (tier != null) {
+            // 启用磁盘溢出层时，剩余记录写入溢出层，下次启动时回放
+            return tier.append(keel, remaining)
+                       .otherwise(throwable -> {
+                           shutdownDroppedCount.addAndGet(remaining.size());
+                           return null;
+                       });
+        }
+        Future<Void> future;
+        if (spillPath == null) {
+            future = Future.failedFuture(new IllegalStateException("No spill file configured"));
+        } else {
+            future = keel.executeBlocking(() -> {
+                spill(spillPath, remaining);
+                return null;
+            }, false);
+        }
+        return future.transform(ar -> {
+            String message;
+            if (ar.succeeded()) {
+                shutdownSpilledCount.addAndGet(remaining.size());
+                message = remaining.size() + " " + recordKind + " were spilled to " + spillPath + " after shutdown timeout";
+            } else {
+                shutdownDroppedCount.addAndGet(remaining.size());
+                message = remaining.size() + " " + recordKind + " were dropped after shutdown timeout";
+            }
+            StdoutLoggerFactory.getInstance()
+                               .createLogger(loggerTopic)
+                               .warning(log -> {
+                                   log.message(message);
+                                   if (ar.failed() && spillPath != null) {
+                                       log.exception(ar.cause());
+                                   }
+                               });
+            return Future.succeededFuture();
+        });
+    }
+
+    private void spill(Path spillPath, List<Map.Entry<String, T>> records) throws IOException {
+        Path parent = spillPath.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        StringBuilder line = new StringBuilder(256);
+        try (BufferedWriter writer = Files.newBufferedWriter(
+                spillPath,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        )) {
+            for (Map.Entry<String, T> record : records) {
+                line.setLength(0);
+                spillLineRender.renderLine(record.getKey(), record.getValue(), line);
+                writer.append(line).append('\n');
+            }
+        }
+    }
+
+    /**
+     * 转存文件中一行的渲染方式，不含换行符。
+     *
+     * @param <T> 记录类型
+     */
+    @FunctionalInterface
+    public interface SpillLineRender<T> {
+        void renderLine(String topic, T record, StringBuilder line);
+    }
+}
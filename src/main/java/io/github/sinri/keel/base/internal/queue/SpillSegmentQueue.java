@@ -0,0 +1,448 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 基于本地仅追加分段文件的持久化先进先出队列，用作内存队列的溢出层。
+ * <p>
+ * 每条记录以帧的形式追加写入当前分段：4 字节的负载长度、4 字节的负载 CRC32 校验值与负载本身；
+ * 分段写满后滚动到下一个分段，分段文件以递增的序号命名。每次追加后落盘。
+ * <p>
+ * 读取进度以“分段序号 + 偏移量”的形式记录在带校验值的检查点文件中，调用 {@link #commit()} 时原子地替换，
+ * 完全读取过的分段随之删除。重新打开时从检查点继续，并在最后一个分段中截断首个不完整或校验失败的帧（崩溃时的残缺写入）；
+ * 其他分段中校验失败的帧及其后的内容被跳过并计数。读取后尚未提交的记录在崩溃重启后会被再次读出，即至少一次；
+ * 处理失败时也可调用 {@link #rewind()} 回到检查点，在本进程内重新读出。
+ * <p>
+ * 所有方法都会执行阻塞的文件操作，应在工作线程上调用；方法之间互斥。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class SpillSegmentQueue implements Closeable {
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String CHECKPOINT_TEMP_FILE = "checkpoint.tmp";
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int CHECKPOINT_SIZE = 20;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+
+    private @Nullable FileChannel writeChannel;
+    private long writeSeq;
+    private long writePosition;
+
+    private @Nullable FileChannel readChannel;
+    private long readChannelSeq = -1;
+    private long readSeq;
+    private long readPosition;
+    private long uncommittedCount = 0;
+    /**
+     * 最近一次提交（或恢复）时的读取进度，即检查点的内容。
+     */
+    private long committedSeq;
+    private long committedPosition;
+    /**
+     * 自最近一次提交以来读取时跳过残缺帧的次数，回退时撤销，避免重新读取时重复计数。
+     */
+    private long uncommittedCorruptedCount = 0;
+
+    private long pendingCount = 0;
+    private long corruptedCount = 0;
+    private boolean closed = false;
+
+    private SpillSegmentQueue(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 打开指定目录下的队列，目录不存在时创建；目录中已有的未读记录将被恢复。
+     *
+     * @param directory   队列目录，应由一个队列独占
+     * @param segmentSize 以字节计的分段大小；超过该大小的单条记录独占一个分段
+     * @return 队列
+     * @throws IOException 文件操作失败
+     */
+    public static SpillSegmentQueue open(Path directory, long segmentSize) throws IOException {
+        if (segmentSize <= FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small");
+        }
+        SpillSegmentQueue queue = new SpillSegmentQueue(directory, segmentSize);
+        queue.recover();
+        return queue;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), path);
+                    } catch (NumberFormatException ignored) {
+                        // 非本队列的文件
+                    }
+                }
+            });
+        }
+
+        long[] checkpoint = readCheckpoint();
+        if (checkpoint != null) {
+            readSeq = checkpoint[0];
+            readPosition = checkpoint[1];
+        } else {
+            readSeq = segments.isEmpty() ? 0 : segments.firstKey();
+            readPosition = 0;
+        }
+        for (Long seq : new ArrayList<>(segments.headMap(readSeq).keySet())) {
+            Files.deleteIfExists(segments.remove(seq));
+        }
+        if (segments.isEmpty()) {
+            readPosition = 0;
+        } else if (segments.firstKey() > readSeq) {
+            // 检查点所指的分段已不存在
+            readSeq = segments.firstKey();
+            readPosition = 0;
+        }
+
+        committedSeq = readSeq;
+        committedPosition = readPosition;
+
+        long validEnd = 0;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            long seq = entry.getKey();
+            long start = seq == readSeq ? readPosition : 0;
+            try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ)) {
+                long position = start;
+                while (true) {
+                    long next = validFrameEnd(channel, position);
+                    if (next < 0) break;
+                    pendingCount++;
+                    position = next;
+                }
+                // 非最后分段中的残缺帧在读取越过时才计数，避免重新打开后重复计数
+                validEnd = position;
+            }
+        }
+
+        if (segments.isEmpty()) {
+            writeSeq = readSeq;
+            openWriteChannel(0);
+        } else {
+            writeSeq = segments.lastKey();
+            openWriteChannel(validEnd);
+        }
+    }
+
+    private void openWriteChannel(long position) throws IOException {
+        Path path = segmentPath(writeSeq);
+        segments.put(writeSeq, path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > position) {
+            // 截断崩溃时残缺的尾部
+            channel.truncate(position);
+        }
+        channel.position(position);
+        writeChannel = channel;
+        writePosition = position;
+    }
+
+    /**
+     * 追加一批记录并落盘；落盘成功后这些记录才计入待处理的记录数。
+     *
+     * @param payloads 记录的负载
+     * @throws IOException 文件操作失败
+     */
+    public synchronized void append(List<byte[]> payloads) throws IOException {
+        ensureOpen();
+        if (payloads.isEmpty()) return;
+        CRC32 crc32 = new CRC32();
+        int written = 0;
+        for (byte[] payload : payloads) {
+            long frameSize = FRAME_HEADER_SIZE + (long) payload.length;
+            if (writePosition > 0 && writePosition + frameSize > segmentSize) {
+                rollWriteSegment();
+            }
+            crc32.reset();
+            crc32.update(payload);
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+            frame.putInt(payload.length).putInt((int) crc32.getValue()).put(payload).flip();
+            FileChannel channel = requireWriteChannel();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            writePosition += frameSize;
+            written++;
+        }
+        requireWriteChannel().force(false);
+        pendingCount += written;
+    }
+
+    private void rollWriteSegment() throws IOException {
+        FileChannel channel = requireWriteChannel();
+        channel.force(false);
+        channel.close();
+        writeSeq++;
+        openWriteChannel(0);
+        forceDirectory();
+    }
+
+    /**
+     * 从读取进度处读出至多给定条数的记录并推进读取进度；进度在 {@link #commit()} 后才持久化。
+     *
+     * @param maxRecords 至多读出的记录数
+     * @return 记录的负载，按写入顺序排列
+     * @throws IOException 文件操作失败
+     */
+    public synchronized List<byte[]> read(int maxRecords) throws IOException {
+        ensureOpen();
+        List<byte[]> payloads = new ArrayList<>();
+        while (payloads.size() < maxRecords) {
+            FileChannel channel = readChannelFor(readSeq);
+            if (channel == null) break;
+            byte[] payload = readFrame(channel, readPosition);
+            if (payload != null) {
+                payloads.add(payload);
+                readPosition += FRAME_HEADER_SIZE + payload.length;
+                continue;
+            }
+            if (readSeq >= writeSeq) {
+                // 已读到写入位置
+                break;
+            }
+            if (readPosition < channel.size()) {
+                // 非最后分段中的残缺帧，跳过该分段的剩余内容
+                corruptedCount++;
+                uncommittedCorruptedCount++;
+            }
+            Long nextSeq = segments.higherKey(readSeq);
+            readSeq = nextSeq == null ? writeSeq : nextSeq;
+            readPosition = 0;
+        }
+        uncommittedCount += payloads.size();
+        return payloads;
+    }
+
+    /**
+     * 持久化读取进度，并删除已完全读取的分段。
+     *
+     * @throws IOException 文件操作失败
+     */
+    public synchronized void commit() throws IOException {
+        ensureOpen();
+        writeCheckpoint(readSeq, readPosition);
+        committedSeq = readSeq;
+        committedPosition = readPosition;
+        uncommittedCorruptedCount = 0;
+        pendingCount = Math.max(0, pendingCount - uncommittedCount);
+        if (readSeq == writeSeq && readPosition >= writePosition) {
+            // 已读到写入位置；跳过残缺帧可能使计数偏大，在此校正
+            pendingCount = 0;
+        }
+        uncommittedCount = 0;
+        for (Long seq : new ArrayList<>(segments.headMap(readSeq).keySet())) {
+            if (readChannel != null && readChannelSeq == seq) {
+                readChannel.close();
+                readChannel = null;
+                readChannelSeq = -1;
+            }
+            Files.deleteIfExists(segments.remove(seq));
+        }
+    }
+
+    /**
+     * 放弃自最近一次提交以来的读取，将读取进度回退到检查点；其间读出的记录将被再次读出。
+     */
+    public synchronized void rewind() {
+        ensureOpen();
+        readSeq = committedSeq;
+        readPosition = committedPosition;
+        uncommittedCount = 0;
+        corruptedCount -= uncommittedCorruptedCount;
+        uncommittedCorruptedCount = 0;
+    }
+
+    /**
+     * @return 已写入且读取进度尚未提交越过的记录数
+     */
+    public synchronized long pendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return 因校验失败或残缺而被跳过的帧的次数
+     */
+    public synchronized long corruptedCount() {
+        return corruptedCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (writeChannel != null) {
+                writeChannel.force(false);
+                writeChannel.close();
+            }
+        } finally {
+            if (readChannel != null) {
+                readChannel.close();
+            }
+        }
+    }
+
+    private @Nullable FileChannel readChannelFor(long seq) throws IOException {
+        if (readChannel != null && readChannelSeq == seq) {
+            return readChannel;
+        }
+        if (readChannel != null) {
+            readChannel.close();
+            readChannel = null;
+            readChannelSeq = -1;
+        }
+        Path path = segments.get(seq);
+        if (path == null) {
+            return null;
+        }
+        readChannel = FileChannel.open(path, StandardOpenOption.READ);
+        readChannelSeq = seq;
+        return readChannel;
+    }
+
+    /**
+     * 读取给定位置的帧并校验。
+     *
+     * @return 帧的负载；帧不完整或校验失败时返回 null
+     */
+    private byte @Nullable [] readFrame(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        if (position + FRAME_HEADER_SIZE > size) {
+            return null;
+        }
+        headerBuffer.clear();
+        readFully(channel, headerBuffer, position);
+        headerBuffer.flip();
+        int length = headerBuffer.getInt();
+        int checksum = headerBuffer.getInt();
+        if (length < 0 || position + FRAME_HEADER_SIZE + length > size) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + FRAME_HEADER_SIZE);
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload.array(), 0, length);
+        if ((int) crc32.getValue() != checksum) {
+            return null;
+        }
+        return payload.array();
+    }
+
+    /**
+     * @return 给定位置的帧有效时，返回帧的结束位置；否则返回 -1
+     */
+    private long validFrameEnd(FileChannel channel, long position) throws IOException {
+        byte[] payload = readFrame(channel, position);
+        return payload == null ? -1 : position + FRAME_HEADER_SIZE + payload.length;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of spill segment");
+            }
+            offset += read;
+        }
+    }
+
+    private long @Nullable [] readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length != CHECKPOINT_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long seq = buffer.getLong();
+        long position = buffer.getLong();
+        int checksum = buffer.getInt();
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, 16);
+        if ((int) crc32.getValue() != checksum) {
+            return null;
+        }
+        return new long[]{seq, position};
+    }
+
+    private void writeCheckpoint(long seq, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        buffer.putLong(seq).putLong(position);
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), 0, 16);
+        buffer.putInt((int) crc32.getValue()).flip();
+        Path temp = directory.resolve(CHECKPOINT_TEMP_FILE);
+        try (FileChannel channel = FileChannel.open(
+                temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory();
+    }
+
+    /**
+     * 落盘目录项，使检查点的替换与新建的分段在崩溃后仍然可见。
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // 部分平台（如 Windows）不能以通道打开目录
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("%020d%s", seq, SEGMENT_SUFFIX));
+    }
+
+    private FileChannel requireWriteChannel() {
+        FileChannel channel = writeChannel;
+        if (channel == null) {
+            throw new IllegalStateException("Spill segment queue is not open");
+        }
+        return channel;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spill segment queue is closed");
+        }
+    }
+}
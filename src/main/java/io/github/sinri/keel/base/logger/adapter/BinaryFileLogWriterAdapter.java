@@ -0,0 +1,59 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.logger.codec.BinaryLogDecoder;
+import io.github.sinri.keel.base.logger.codec.BinaryLogEncoder;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 以紧凑二进制格式写入日志文件的适配器。
+ * <p>
+ * 每批日志由 {@link BinaryLogEncoder} 编码为一个自包含的二进制块，经 {@link ChannelFileLogWriterAdapter} 的机制在事件循环之外写入，
+ * 跳过逐行的文本渲染；写出的文件可使用 {@link BinaryLogDecoder} 还原为 JSON 行。
+ * <p>
+ * {@link #render(String, SpecificLog)} 给出与解码结果一致的 JSON 文本，仅供需要文本形式时使用，不参与写入。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public abstract class BinaryFileLogWriterAdapter extends ChannelFileLogWriterAdapter {
+    private final BinaryLogEncoder encoder = new BinaryLogEncoder();
+
+    public BinaryFileLogWriterAdapter() {
+        super();
+    }
+
+    @Override
+    protected ByteBuffer encodeBatch(String topic, List<SpecificLog<?>> batch) {
+        return encoder.encodeBlock(topic, batch);
+    }
+
+    @Override
+    public String render(String topic, SpecificLog<?> log) {
+        JsonObject context = new JsonObject();
+        for (Map.Entry<String, @Nullable Object> entry : log.context().entrySet()) {
+            context.put(entry.getKey(), entry.getValue());
+        }
+        JsonObject record = new JsonObject()
+                .put("timestamp", log.timestamp())
+                .put("topic", topic)
+                .put("level", String.valueOf(log.level()))
+                .put("classification", new JsonArray(List.copyOf(log.classification())))
+                .put("message", log.message())
+                .put("context", context);
+        Throwable exception = log.exception();
+        if (exception != null) {
+            record.put("exception", new JsonObject()
+                    .put("class", exception.getClass().getName())
+                    .put("message", exception.getMessage()));
+        }
+        return record.encode();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶的直方图，线程安全。
+ * <p>
+ * 每次记录只做一次二分查找与两次原子累加，可长期开启。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class BucketHistogram {
+    private final double[] upperBounds;
+    /**
+     * 各桶的计数，最后一个桶承接超出全部上界的值。
+     */
+    private final AtomicLongArray bucketCounts;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * @param upperBounds 升序排列的各桶上界（含）
+     */
+    BucketHistogram(double[] upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.bucketCounts = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    void record(double value) {
+        int index = Arrays.binarySearch(upperBounds, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        bucketCounts.incrementAndGet(index);
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * @return 各桶上界的副本
+     */
+    double[] upperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * @return 各桶的累积计数，即不大于对应上界的记录数；最后一项为全部记录数
+     */
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[bucketCounts.length()];
+        long running = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            running += bucketCounts.get(i);
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double sum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,414 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.adapter.LogTextRender;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 {@link FileChannel} 在事件循环之外将日志写入文件的基础定义。
+ * <p>
+ * 与 {@link FileLogWriterAdapter} 在处理循环所在线程上同步写入不同，本类将一批日志记录渲染并编码为一个
+ * {@link ByteBuffer}，再以阻塞任务的形式在工作线程上一次性写入文件，磁盘缓慢时不会阻塞事件循环。
+ * <p>
+ * 批次对应的 {@link Future} 在写入完成后才完成；同一文件的写入严格串行，任一时刻至多只有一个写入在进行。
+ * 文件通道在首次写入时以追加方式打开，闲置超过 {@link #channelIdleTimeout()} 后关闭，并在 Verticle 停止时全部关闭；
+ * 因此按日期等方式不断产生新路径时，已不再写入的文件不会一直占用文件句柄。
+ * <p>
+ * 每个 topic 可通过 {@link #fsyncPolicyForTopic(String)} 指定落盘策略，例如审计日志每批落盘、调试日志交由操作系统；
+ * 写入与落盘的次数和耗时可通过对应的方法查询。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public abstract class ChannelFileLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextBufferRender {
+    private final Map<Path, FileChannel> channelMap = new ConcurrentHashMap<>();
+    private final RenderBuffer renderBuffer = new RenderBuffer();
+    /**
+     * 各文件最近一次写入的 Future，后续写入串联其后以保证同一文件至多一个写入在进行；该 Future 完成后即被移除。
+     */
+    private final Map<Path, Future<Void>> writeTailMap = new ConcurrentHashMap<>();
+    private final Map<Path, SyncState> syncStateMap = new ConcurrentHashMap<>();
+    private final LatencyRecorder writeLatency = new LatencyRecorder();
+    private final LatencyRecorder fsyncLatency = new LatencyRecorder();
+    private long fsyncTimerID = -1;
+    private long idleSweepTimerID = -1;
+
+    public ChannelFileLogWriterAdapter() {
+        super();
+    }
+
+    /**
+     * 按需重载以指定直接渲染到缓冲区的文本渲染器，例如 {@link TextLogRender#getInstance()}，以消除逐行的中间字符串。
+     * <p>
+     * 指定后日志格式由该渲染器决定，{@link #render(String, SpecificLog)} 与 {@link LogTextRender} 的格式化钩子不再生效。
+     *
+     * @return 文本渲染器；返回 null 时沿用 {@link #render(String, SpecificLog)} 的格式（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable LogTextBufferRender textRender() {
+        return null;
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        LogTextBufferRender textRender = textRender();
+        if (textRender != null) {
+            textRender.renderInto(topic, log, buffer);
+        } else {
+            buffer.append(render(topic, log));
+        }
+    }
+
+    /**
+     * 根据给定的 topic 获取日志文件路径，返回 null 视为丢弃日志。
+     * <p>
+     * 通过实现这个方法，可以实现多个 topic 写入一个日志文件。
+     *
+     * @param topic 日志 topic
+     * @return 日志文件路径
+     */
+    abstract protected @Nullable Path getFilePathForTopic(String topic);
+
+    /**
+     * 按需重载以为各 topic 指定落盘策略。
+     *
+     * @param topic 日志 topic
+     * @return 落盘策略，默认交由操作系统
+     * @since 5.0.3
+     */
+    protected FsyncPolicy fsyncPolicyForTopic(String topic) {
+        return FsyncPolicy.NEVER;
+    }
+
+    /**
+     * 按需重载以改写 {@link FsyncPolicy#INTERVAL} 策略下的落盘间隔。
+     *
+     * @return 以毫秒计的落盘间隔，默认 1000 毫秒
+     */
+    protected long fsyncInterval() {
+        return 1000L;
+    }
+
+    /**
+     * 按需重载以改写 {@link FsyncPolicy#BYTES} 策略下的落盘阈值。
+     *
+     * @return 以字节计的未落盘数据阈值，默认 1MB
+     */
+    protected long fsyncBytes() {
+        return 1024L * 1024;
+    }
+
+    /**
+     * 按需重载以改写文件通道的闲置时长，超过该时长未写入的文件通道被关闭，下一次写入时重新打开。
+     *
+     * @return 以毫秒计的闲置时长，默认 60 秒
+     * @since 5.0.3
+     */
+    protected long channelIdleTimeout() {
+        return 60_000L;
+    }
+
+    /**
+     * @return 当前打开的文件通道数
+     * @since 5.0.3
+     */
+    public int getOpenChannelCount() {
+        return channelMap.size();
+    }
+
+    @Override
+    protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+        Path path = getFilePathForTopic(topic);
+        if (path == null) {
+            return Future.succeededFuture();
+        }
+        ByteBuffer byteBuffer;
+        try {
+            byteBuffer = encodeBatch(topic, batch);
+        } catch (Throwable throwable) {
+            return Future.failedFuture(throwable);
+        }
+        if (!byteBuffer.hasRemaining()) {
+            return Future.succeededFuture();
+        }
+        FsyncPolicy fsyncPolicy = fsyncPolicyForTopic(topic);
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && fsyncTimerID < 0) {
+            fsyncTimerID = getKeel().setPeriodic(Math.max(1, fsyncInterval()), timerID -> syncDirtyFiles());
+        }
+        if (idleSweepTimerID < 0) {
+            long idleTimeout = Math.max(1, channelIdleTimeout());
+            idleSweepTimerID = getKeel().setPeriodic(Math.max(1, idleTimeout / 2), timerID -> closeIdleChannels(idleTimeout));
+        }
+        return writeToFile(path, byteBuffer, fsyncPolicy);
+    }
+
+    /**
+     * 将一批日志记录渲染并编码为一个待写入的 {@link ByteBuffer}，每条记录占一行。
+     * <p>
+     * 渲染与编码复用本适配器持有的缓冲区，返回的字节缓冲区在本批写入完成前有效；
+     * 处理循环在上一批写入完成后才处理下一批，因此无需额外复制。
+     *
+     * @param topic 日志 topic
+     * @param batch 日志记录
+     * @return 已翻转、可直接读取的字节缓冲区
+     */
+    protected ByteBuffer encodeBatch(String topic, List<SpecificLog<?>> batch) {
+        StringBuilder buffer = renderBuffer.reset();
+        for (SpecificLog<?> log : batch) {
+            renderInto(topic, log, buffer);
+            buffer.append('\n');
+        }
+        return renderBuffer.encode();
+    }
+
+    private Future<Void> writeToFile(Path path, ByteBuffer byteBuffer, FsyncPolicy fsyncPolicy) {
+        return enqueueFileOperation(path, () -> {
+            int byteCount = byteBuffer.remaining();
+            beforeWrite(path, byteCount);
+            FileChannel channel = getOrOpenChannel(path);
+            long start = System.nanoTime();
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            writeLatency.record(System.nanoTime() - start);
+
+            SyncState state = syncStateMap.computeIfAbsent(path, p -> new SyncState());
+            state.lastWrittenAt = System.currentTimeMillis();
+            state.policy = fsyncPolicy;
+            state.unsyncedBytes += byteCount;
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH
+                    || (fsyncPolicy == FsyncPolicy.BYTES && state.unsyncedBytes >= fsyncBytes())) {
+                force(channel, state);
+            }
+        });
+    }
+
+    /**
+     * 将对指定文件的操作串联在该文件此前的操作之后，在工作线程上执行。
+     */
+    private Future<Void> enqueueFileOperation(Path path, FileOperation operation) {
+        Future<Void> tail = writeTailMap.getOrDefault(path, Future.succeededFuture());
+        Future<Void> done = tail.transform(previous -> getKeel().<Void>executeBlocking(() -> {
+            operation.run();
+            return null;
+        }, false));
+        writeTailMap.put(path, done);
+        // 完成后若其后没有新的操作串联进来，移除该文件的记录，避免不再写入的路径一直占用
+        done.onComplete(ar -> writeTailMap.remove(path, done));
+        return done;
+    }
+
+    /**
+     * 关闭闲置超时的文件通道，并移除其落盘状态；关闭串联在该文件此前的操作之后执行。
+     */
+    private void closeIdleChannels(long idleTimeout) {
+        long now = System.currentTimeMillis();
+        syncStateMap.forEach((path, state) -> {
+            if (now - state.lastWrittenAt >= idleTimeout) {
+                enqueueFileOperation(path, () -> {
+                    if (System.currentTimeMillis() - state.lastWrittenAt >= idleTimeout) {
+                        try {
+                            closeChannel(path);
+                        } finally {
+                            syncStateMap.remove(path, state);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 组提交：将采用 {@link FsyncPolicy#INTERVAL} 策略且有未落盘数据的文件落盘。
+     */
+    private void syncDirtyFiles() {
+        syncStateMap.forEach((path, state) -> {
+            if (state.policy == FsyncPolicy.INTERVAL && state.unsyncedBytes > 0) {
+                enqueueFileOperation(path, () -> {
+                    FileChannel channel = channelMap.get(path);
+                    if (channel != null && state.unsyncedBytes > 0) {
+                        force(channel, state);
+                    }
+                });
+            }
+        });
+    }
+
+    private void force(FileChannel channel, SyncState state) throws IOException {
+        long start = System.nanoTime();
+        channel.force(false);
+        fsyncLatency.record(System.nanoTime() - start);
+        state.unsyncedBytes = 0;
+    }
+
+    /**
+     * @return 已完成的写入次数
+     * @since 5.0.3
+     */
+    public long getWriteCount() {
+        return writeLatency.count();
+    }
+
+    /**
+     * @return 以毫秒计的平均写入耗时
+     * @since 5.0.3
+     */
+    public double getAverageWriteLatency() {
+        return writeLatency.averageMillis();
+    }
+
+    /**
+     * @return 以毫秒计的最大写入耗时
+     * @since 5.0.3
+     */
+    public double getMaxWriteLatency() {
+        return writeLatency.maxMillis();
+    }
+
+    /**
+     * @return 已完成的落盘次数
+     * @since 5.0.3
+     */
+    public long getFsyncCount() {
+        return fsyncLatency.count();
+    }
+
+    /**
+     * @return 以毫秒计的平均落盘耗时
+     * @since 5.0.3
+     */
+    public double getAverageFsyncLatency() {
+        return fsyncLatency.averageMillis();
+    }
+
+    /**
+     * @return 以毫秒计的最大落盘耗时
+     * @since 5.0.3
+     */
+    public double getMaxFsyncLatency() {
+        return fsyncLatency.maxMillis();
+    }
+
+    /**
+     * 在工作线程上、向文件写入一批字节之前调用，此时该文件没有其他写入在进行，可安全地切换文件（例如滚动）。
+     *
+     * @param path      日志文件路径
+     * @param byteCount 即将写入的字节数
+     * @throws IOException 文件操作失败
+     */
+    protected void beforeWrite(Path path, int byteCount) throws IOException {
+    }
+
+    /**
+     * 关闭指定文件的通道；下一次写入时会重新打开。仅应在 {@link #beforeWrite(Path, int)} 中调用。
+     *
+     * @param path 日志文件路径
+     * @throws IOException 关闭失败
+     */
+    protected final void closeChannel(Path path) throws IOException {
+        FileChannel channel = channelMap.remove(path);
+        if (channel != null) {
+            try {
+                syncBeforeClose(path, channel);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void syncBeforeClose(Path path, FileChannel channel) throws IOException {
+        SyncState state = syncStateMap.get(path);
+        if (state != null && state.policy != FsyncPolicy.NEVER && state.unsyncedBytes > 0) {
+            force(channel, state);
+        }
+    }
+
+    private FileChannel getOrOpenChannel(Path path) throws IOException {
+        FileChannel channel = channelMap.get(path);
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+        channelMap.put(path, channel);
+        return channel;
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        return super.stopVerticle()
+                    .eventually(() -> {
+                        // 定时器在处理批次时按需创建，停止阶段的最后一轮处理之后再取消
+                        if (fsyncTimerID >= 0) {
+                            getKeel().cancelTimer(fsyncTimerID);
+                            fsyncTimerID = -1;
+                        }
+                        if (idleSweepTimerID >= 0) {
+                            getKeel().cancelTimer(idleSweepTimerID);
+                            idleSweepTimerID = -1;
+                        }
+                        return awaitPendingWrites();
+                    })
+                    .eventually(() -> getKeel().executeBlocking(() -> {
+                        for (Path path : new ArrayList<>(channelMap.keySet())) {
+                            try {
+                                closeChannel(path);
+                            } catch (IOException e) {
+                                // 停止阶段关闭失败不影响其他文件通道的关闭
+                            }
+                        }
+                        channelMap.clear();
+                        writeTailMap.clear();
+                        syncStateMap.clear();
+                        return null;
+                    }, false));
+    }
+
+    /**
+     * 等待已提交的写入完成；设有停止时限时，至多再等待一个时限，超时的写入不再等待。
+     */
+    private Future<Void> awaitPendingWrites() {
+        Future<Void> joined = Future.join(new ArrayList<>(writeTailMap.values())).mapEmpty();
+        long timeout = shutdownTimeout();
+        if (timeout > 0) {
+            joined = joined.timeout(timeout, TimeUnit.MILLISECONDS);
+        }
+        return joined.otherwiseEmpty();
+    }
+
+    @FunctionalInterface
+    private interface FileOperation {
+        void run() throws IOException;
+    }
+
+    /**
+     * 单个文件的落盘状态与最近写入时间；在该文件的串行操作中修改，在组提交与闲置检查的定时器中读取。
+     */
+    private static final class SyncState {
+        private volatile FsyncPolicy policy = FsyncPolicy.NEVER;
+        private volatile long unsyncedBytes = 0;
+        private volatile long lastWrittenAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 以最近最少使用（LRU）顺序管理的文件句柄池。
+ * <p>
+ * 打开的句柄数不超过上限；超出时关闭最久未使用的句柄，之后再次访问该文件时按需重新打开。
+ * 配合 {@link #closeIdle(long)} 定期关闭长时间未使用的句柄，使大量 topic 场景下的文件描述符占用保持有界，
+ * 又不会因逐批重新打开文件而产生大量系统调用。
+ *
+ * @param <H> 句柄类型，关闭时应落盘其缓冲的内容
+ * @since 5.0.3
+ */
+@NullMarked
+public final class FileHandlePool<H extends Closeable> {
+    private final int maxOpenHandles;
+    private final Opener<H> opener;
+    private final LinkedHashMap<Path, PooledHandle<H>> handles = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxOpenHandles 同时打开的句柄数上限
+     * @param opener         打开句柄的逻辑，应以追加方式打开
+     */
+    public FileHandlePool(int maxOpenHandles, Opener<H> opener) {
+        if (maxOpenHandles <= 0) {
+            throw new IllegalArgumentException("maxOpenHandles must be greater than 0");
+        }
+        this.maxOpenHandles = maxOpenHandles;
+        this.opener = opener;
+    }
+
+    /**
+     * 获取指定文件的句柄，必要时打开并关闭最久未使用的句柄。
+     * <p>
+     * 返回的句柄在下一次调用本方法前不会被关闭。
+     *
+     * @param path 文件路径
+     * @return 文件句柄
+     * @throws IOException 打开文件失败
+     */
+    public synchronized H acquire(Path path) throws IOException {
+        PooledHandle<H> pooled = handles.get(path);
+        if (pooled != null) {
+            hitCount.increment();
+            pooled.lastUsedAt = System.currentTimeMillis();
+            return pooled.handle;
+        }
+        missCount.increment();
+        while (handles.size() >= maxOpenHandles) {
+            Iterator<PooledHandle<H>> eldest = handles.values().iterator();
+            PooledHandle<H> evicted = eldest.next();
+            eldest.remove();
+            evictionCount.increment();
+            closeQuietly(evicted.handle);
+        }
+        H handle = opener.open(path);
+        handles.put(path, new PooledHandle<>(handle, System.currentTimeMillis()));
+        return handle;
+    }
+
+    /**
+     * 关闭超过指定时长未使用的句柄。
+     *
+     * @param idleTime 以毫秒计的空闲时长
+     * @return 关闭的句柄数
+     */
+    public synchronized int closeIdle(long idleTime) {
+        long threshold = System.currentTimeMillis() - idleTime;
+        int closed = 0;
+        Iterator<PooledHandle<H>> iterator = handles.values().iterator();
+        while (iterator.hasNext()) {
+            PooledHandle<H> pooled = iterator.next();
+            // 按访问顺序排列，遇到第一个未过期的句柄即可停止
+            if (pooled.lastUsedAt > threshold) {
+                break;
+            }
+            iterator.remove();
+            closeQuietly(pooled.handle);
+            closed++;
+        }
+        evictionCount.add(closed);
+        return closed;
+    }
+
+    /**
+     * 关闭所有句柄。
+     */
+    public synchronized void closeAll() {
+        List<PooledHandle<H>> all = new ArrayList<>(handles.values());
+        handles.clear();
+        for (PooledHandle<H> pooled : all) {
+            closeQuietly(pooled.handle);
+        }
+    }
+
+    public synchronized int openCount() {
+        return handles.size();
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // 关闭失败的句柄已从池中移除，不影响后续重新打开
+        }
+    }
+
+    /**
+     * 打开文件句柄的逻辑。
+     *
+     * @param <H> 句柄类型
+     */
+    @FunctionalInterface
+    public interface Opener<H> {
+        H open(Path path) throws IOException;
+    }
+
+    private static final class PooledHandle<H> {
+        private final H handle;
+        private long lastUsedAt;
+
+        PooledHandle(H handle, long lastUsedAt) {
+            this.handle = handle;
+            this.lastUsedAt = lastUsedAt;
+        }
+    }
+}
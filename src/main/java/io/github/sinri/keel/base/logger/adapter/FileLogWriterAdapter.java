@@ -12,15 +12,41 @@ import java.util.List;
 
 /**
  * 将日志写入文件的一个基础定义。
+ * <p>
+ * 本类在处理循环所在线程上同步写入文件；如需避免磁盘缓慢时阻塞事件循环，可使用 {@link ChannelFileLogWriterAdapter}。
  *
  * @since 5.0.0
  */
 @NullMarked
-public abstract class FileLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextRender {
+public abstract class FileLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextBufferRender {
+    private final RenderBuffer renderBuffer = new RenderBuffer();
+
     public FileLogWriterAdapter() {
         super();
     }
 
+    /**
+     * 按需重载以指定直接渲染到缓冲区的文本渲染器，例如 {@link TextLogRender#getInstance()}，以消除逐行的中间字符串。
+     * <p>
+     * 指定后日志格式由该渲染器决定，{@link #render(String, SpecificLog)} 与 {@link LogTextRender} 的格式化钩子不再生效。
+     *
+     * @return 文本渲染器；返回 null 时沿用 {@link #render(String, SpecificLog)} 的格式（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable LogTextBufferRender textRender() {
+        return null;
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        LogTextBufferRender textRender = textRender();
+        if (textRender != null) {
+            textRender.renderInto(topic, log, buffer);
+        } else {
+            buffer.append(render(topic, log));
+        }
+    }
+
     /**
      * 根据给定的 topic 获取对应的 FileWriter，返回 null 视为丢弃日志。
      * <p>
@@ -39,10 +65,12 @@ public abstract class FileLogWriterAdapter extends QueuedLogWriterAdapter implem
             return Future.succeededFuture();
         }
         try {
+            StringBuilder buffer = renderBuffer.reset();
             for (SpecificLog<?> log : batch) {
-                String text = render(topic, log);
-                fileWriterForTopic.append(text).append("\n");
+                renderInto(topic, log, buffer);
+                buffer.append('\n');
             }
+            renderBuffer.writeTo(fileWriterForTopic);
             fileWriterForTopic.flush();
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -0,0 +1,26 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+/**
+ * 文件日志写入后调用 {@link java.nio.channels.FileChannel#force(boolean)} 落盘的策略，用于在延迟与持久性之间取舍。
+ *
+ * @see ChannelFileLogWriterAdapter#fsyncPolicyForTopic(String)
+ * @since 5.0.3
+ */
+public enum FsyncPolicy {
+    /**
+     * 从不主动落盘，交由操作系统决定；开销最低。
+     */
+    NEVER,
+    /**
+     * 每批写入后立即落盘，批次的 Future 在落盘后完成；持久性最高。
+     */
+    EVERY_BATCH,
+    /**
+     * 按固定时间间隔合并落盘（组提交），见 {@link ChannelFileLogWriterAdapter#fsyncInterval()}。
+     */
+    INTERVAL,
+    /**
+     * 未落盘的字节数达到阈值时落盘，见 {@link ChannelFileLogWriterAdapter#fsyncBytes()}。
+     */
+    BYTES
+}
@@ -0,0 +1,295 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.sinri.keel.logger.api.LoggingStackSpecification;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 将每条日志渲染为单行 JSON 的渲染器，适用于 JSON Lines 格式的日志采集。
+ * <p>
+ * 与 {@link StdoutLogWriter} 先构建 {@link JsonObject}、{@link JsonArray} 再编码（上下文还会被格式化为多行）不同，
+ * 本渲染器将时间戳、topic、级别、分类、消息、上下文与异常依次直接写入 Jackson 的 {@link JsonGenerator}，
+ * 不生成中间的 JSON 对象。每个线程持有一个可复用的生成器，其输出被直接追加到调用方提供的缓冲区中。
+ * <p>
+ * 输出形如：
+ * <pre>{@code
+ * {"timestamp":1700000000000,"topic":"t","level":"INFO","classification":["a"],"message":"m","context":{"k":1}}
+ * }</pre>
+ * 上下文中的值按其类型写出：字符串、数字、布尔值、{@link Map}、{@link Iterable}、数组、
+ * {@link JsonObject}、{@link JsonArray} 与 {@link Throwable} 均被展开，其余类型以其字符串形式写出。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class JsonLinesLogRender implements LogTextBufferRender {
+    private static final JsonLinesLogRender instance = new JsonLinesLogRender();
+    /**
+     * 异常链的最大展开深度。
+     */
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private final JsonFactory jsonFactory = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .build();
+    private final ThreadLocal<GeneratorHolder> holderThreadLocal = new ThreadLocal<>();
+
+    private JsonLinesLogRender() {
+    }
+
+    public static JsonLinesLogRender getInstance() {
+        return instance;
+    }
+
+    @Override
+    public String render(String topic, SpecificLog<?> log) {
+        StringBuilder buffer = new StringBuilder(256);
+        renderInto(topic, log, buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        GeneratorHolder holder = bindHolder(buffer);
+        int mark = buffer.length();
+        try {
+            writeLog(holder.generator, topic, log);
+            holder.generator.flush();
+        } catch (IOException | RuntimeException e) {
+            throw discardHolder(e, buffer, mark);
+        } finally {
+            holder.target.buffer = null;
+        }
+    }
+
+    /**
+     * 将单个值以单行 JSON 追加到给定的缓冲区，值的展开规则与日志上下文相同。
+     *
+     * @param value  值
+     * @param buffer 目标缓冲区
+     */
+    void renderValueInto(@Nullable Object value, StringBuilder buffer) {
+        GeneratorHolder holder = bindHolder(buffer);
+        int mark = buffer.length();
+        try {
+            writeValue(holder.generator, value);
+            holder.generator.flush();
+        } catch (IOException | RuntimeException e) {
+            throw discardHolder(e, buffer, mark);
+        } finally {
+            holder.target.buffer = null;
+        }
+    }
+
+    private GeneratorHolder bindHolder(StringBuilder buffer) {
+        GeneratorHolder holder = holderThreadLocal.get();
+        if (holder == null) {
+            holder = new GeneratorHolder(jsonFactory);
+            holderThreadLocal.set(holder);
+        }
+        holder.target.buffer = buffer;
+        return holder;
+    }
+
+    /**
+     * 生成器的状态已不可信，丢弃后由下一次渲染重建，并撤销本次已追加的部分。
+     */
+    private RuntimeException discardHolder(Exception e, StringBuilder buffer, int mark) {
+        holderThreadLocal.remove();
+        buffer.setLength(mark);
+        if (e instanceof IOException ioException) {
+            return new UncheckedIOException(ioException);
+        }
+        return (RuntimeException) e;
+    }
+
+    private static void writeLog(JsonGenerator generator, String topic, SpecificLog<?> log) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("timestamp", log.timestamp());
+        generator.writeStringField("topic", topic);
+        generator.writeStringField("level", String.valueOf(log.level()));
+
+        List<String> classification = log.classification();
+        if (classification != null && !classification.isEmpty()) {
+            generator.writeArrayFieldStart("classification");
+            for (String item : classification) {
+                generator.writeString(item);
+            }
+            generator.writeEndArray();
+        }
+
+        String message = log.message();
+        if (message != null) {
+            generator.writeStringField("message", message);
+        }
+
+        Map<String, @Nullable Object> context = log.context();
+        if (context != null && !context.isEmpty()) {
+            generator.writeFieldName("context");
+            writeMap(generator, context);
+        }
+
+        Throwable exception = log.exception();
+        if (exception != null) {
+            generator.writeFieldName("exception");
+            writeThrowable(generator, exception);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeValue(JsonGenerator generator, @Nullable Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String string) {
+            generator.writeString(string);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal bigDecimal) {
+            generator.writeNumber(bigDecimal);
+        } else if (value instanceof BigInteger bigInteger) {
+            generator.writeNumber(bigInteger);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof JsonObject jsonObject) {
+            writeMap(generator, jsonObject.getMap());
+        } else if (value instanceof JsonArray jsonArray) {
+            writeIterable(generator, jsonArray.getList());
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(generator, map);
+        } else if (value instanceof Iterable<?> iterable) {
+            writeIterable(generator, iterable);
+        } else if (value instanceof Object[] array) {
+            writeIterable(generator, Arrays.asList(array));
+        } else if (value instanceof byte[] bytes) {
+            generator.writeBinary(bytes);
+        } else if (value instanceof Throwable throwable) {
+            writeThrowable(generator, throwable);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private static void writeMap(JsonGenerator generator, Map<?, ?> map) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            generator.writeFieldName(String.valueOf(entry.getKey()));
+            writeValue(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeIterable(JsonGenerator generator, Iterable<?> iterable) throws IOException {
+        generator.writeStartArray();
+        for (Object item : iterable) {
+            writeValue(generator, item);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * 写出异常，原因以 {@code cause} 字段逐层嵌套，并过滤可忽略包中的堆栈项。
+     */
+    private static void writeThrowable(JsonGenerator generator, Throwable throwable) throws IOException {
+        Set<String> ignorablePackages = LoggingStackSpecification.IgnorableCallStackPackageSet;
+        Throwable current = throwable;
+        int depth = 0;
+        while (true) {
+            generator.writeStartObject();
+            generator.writeStringField("class", current.getClass().getName());
+            String message = current.getMessage();
+            if (message != null) {
+                generator.writeStringField("message", message);
+            }
+            generator.writeArrayFieldStart("stack");
+            for (StackTraceElement element : current.getStackTrace()) {
+                if (!isIgnorable(element.getClassName(), ignorablePackages)) {
+                    generator.writeString(element.toString());
+                }
+            }
+            generator.writeEndArray();
+            Throwable cause = current.getCause();
+            depth++;
+            if (cause == null || cause == current || depth >= MAX_CAUSE_DEPTH) {
+                break;
+            }
+            generator.writeFieldName("cause");
+            current = cause;
+        }
+        for (int i = 0; i < depth; i++) {
+            generator.writeEndObject();
+        }
+    }
+
+    static boolean isIgnorable(String className, Set<String> ignorablePackages) {
+        for (String ignorablePackage : ignorablePackages) {
+            if (className.startsWith(ignorablePackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 单个线程复用的生成器及其输出目标。
+     */
+    private static final class GeneratorHolder {
+        private final BufferTargetWriter target = new BufferTargetWriter();
+        private final JsonGenerator generator;
+
+        private GeneratorHolder(JsonFactory jsonFactory) {
+            try {
+                this.generator = jsonFactory.createGenerator(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 将生成器的输出追加到当前指定的 {@link StringBuilder} 中。
+     */
+    private static final class BufferTargetWriter extends Writer {
+        private @Nullable StringBuilder buffer;
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            if (buffer == null) {
+                throw new IllegalStateException("No render target bound");
+            }
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            if (buffer == null) {
+                throw new IllegalStateException("No render target bound");
+            }
+            buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 累计某类操作的次数与耗时，线程安全。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class LatencyRecorder {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong(0);
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return 以毫秒计的平均耗时
+     */
+    double averageMillis() {
+        long c = count.sum();
+        return c == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / c;
+    }
+
+    /**
+     * @return 以毫秒计的最大耗时
+     */
+    double maxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
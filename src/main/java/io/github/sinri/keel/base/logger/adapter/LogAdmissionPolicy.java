@@ -0,0 +1,32 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Map;
+
+/**
+ * 日志记录进入 {@link QueuedLogWriterAdapter} 队列前的准入策略。
+ * <p>
+ * {@link #admit(String, SpecificLog)} 在调用日志记录的线程上执行，应当无锁且开销极低；
+ * 被拒绝的记录由策略自行计数，适配器定期通过 {@link #drainSuppressedCounts()} 取出并写入汇总记录。
+ *
+ * @see QueuedLogWriterAdapter#logAdmissionPolicy()
+ * @since 5.0.3
+ */
+@NullMarked
+public interface LogAdmissionPolicy {
+    /**
+     * @param topic 日志 topic
+     * @param log   日志记录
+     * @return 是否准入；返回 false 时记录被丢弃并计入被抑制数
+     */
+    boolean admit(String topic, SpecificLog<?> log);
+
+    /**
+     * 取出自上次调用以来各 topic 被抑制的记录数，并将计数清零。
+     *
+     * @return 各 topic 被抑制的记录数，不含为零的 topic
+     */
+    Map<String, Long> drainSuppressedCounts();
+}
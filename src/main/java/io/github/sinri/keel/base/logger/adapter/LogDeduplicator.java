@@ -0,0 +1,111 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 在短时间窗口内折叠重复日志记录的去重阶段。
+ * <p>
+ * topic、级别、消息与分类均相同的记录视为重复：窗口内首条记录照常写出，其后的重复记录被吸收；
+ * 窗口结束时，若有被吸收的记录，则写出一条汇总记录，给出重复次数与首末时间戳，其级别与分类沿用窗口内的首条记录。
+ * <p>
+ * 非线程安全，仅应在处理循环中使用。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class LogDeduplicator {
+    private final long window;
+    private final int maxTrackedRecords;
+    private final Map<DedupKey, DedupEntry> entries = new HashMap<>();
+
+    /**
+     * @param window            以毫秒计的去重窗口
+     * @param maxTrackedRecords 同时追踪的不同记录数上限，超出后新的记录不再参与去重
+     */
+    LogDeduplicator(long window, int maxTrackedRecords) {
+        this.window = window;
+        this.maxTrackedRecords = maxTrackedRecords;
+    }
+
+    /**
+     * 判断一条记录是否为窗口内的重复记录；调用方应先以同一时间戳调用 {@link #expire(long, boolean)} 结束已到期的窗口。
+     *
+     * @return 记录是否被吸收；被吸收的记录不应再写出
+     */
+    boolean absorb(String topic, SpecificLog<?> log, long now) {
+        DedupKey key = new DedupKey(topic, String.valueOf(log.level()), log.message(), log.classification());
+        DedupEntry entry = entries.get(key);
+        if (entry != null && now - entry.windowStartAt < window) {
+            entry.repeats++;
+            entry.lastTimestamp = log.timestamp();
+            return true;
+        }
+        if (entries.size() >= maxTrackedRecords) {
+            return false;
+        }
+        entries.put(key, new DedupEntry(topic, log, now));
+        return false;
+    }
+
+    /**
+     * 结束已到期的窗口，取出汇总记录。
+     *
+     * @param now   当前时间戳
+     * @param force 是否结束所有窗口，用于停止前
+     * @return 按 topic 分组的汇总记录
+     */
+    Map<String, List<SpecificLog<?>>> expire(long now, boolean force) {
+        Map<String, List<SpecificLog<?>>> summaries = new HashMap<>();
+        Iterator<DedupEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            DedupEntry entry = iterator.next();
+            if (force || now - entry.windowStartAt >= window) {
+                if (entry.repeats > 0) {
+                    summaries.computeIfAbsent(entry.topic, k -> new ArrayList<>()).add(summaryOf(entry));
+                }
+                iterator.remove();
+            }
+        }
+        return summaries;
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private static SpecificLog<?> summaryOf(DedupEntry entry) {
+        SpecificLog<?> first = entry.first;
+        Log summary = new Log();
+        summary.level(first.level());
+        summary.classification(first.classification());
+        summary.message("The previous log record was repeated " + entry.repeats + " more times"
+                + " between " + first.timestamp() + " and " + entry.lastTimestamp + ": " + first.message());
+        return summary;
+    }
+
+    private record DedupKey(String topic, String level, @Nullable String message, List<String> classification) {
+    }
+
+    private static final class DedupEntry {
+        private final String topic;
+        /**
+         * 窗口内的首条记录，汇总记录沿用其级别与分类。
+         */
+        private final SpecificLog<?> first;
+        private final long windowStartAt;
+        private long lastTimestamp;
+        private int repeats = 0;
+
+        DedupEntry(String topic, SpecificLog<?> first, long windowStartAt) {
+            this.topic = topic;
+            this.first = first;
+            this.lastTimestamp = first.timestamp();
+            this.windowStartAt = windowStartAt;
+        }
+    }
+}
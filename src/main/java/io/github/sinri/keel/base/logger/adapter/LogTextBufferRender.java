@@ -0,0 +1,29 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.adapter.LogTextRender;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 可将日志直接渲染到调用方提供的缓冲区中的 {@link LogTextRender}。
+ * <p>
+ * 写入适配器在一批日志的处理过程中复用同一个 {@link StringBuilder}，
+ * 实现 {@link #renderInto(String, SpecificLog, StringBuilder)} 并直接向其追加内容，即可避免为每条日志生成中间字符串。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public interface LogTextBufferRender extends LogTextRender {
+    /**
+     * 将一条日志渲染并追加到给定的缓冲区，不含行尾换行符。
+     * <p>
+     * 默认实现追加 {@link #render(String, SpecificLog)} 的结果，按需重载以消除中间字符串。
+     *
+     * @param topic  日志 topic
+     * @param log    日志记录
+     * @param buffer 目标缓冲区
+     */
+    default void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        buffer.append(render(topic, log));
+    }
+}
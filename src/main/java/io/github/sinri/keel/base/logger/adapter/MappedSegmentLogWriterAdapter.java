@@ -0,0 +1,292 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.adapter.LogTextRender;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 以内存映射的固定大小分段文件追加写入日志的基础定义。
+ * <p>
+ * 每个 topic 写入其当前分段文件；分段以 {@link #segmentSize()} 大小整体映射到内存，写入一批日志仅是向映射区域的内存拷贝，
+ * 不产生逐批次的系统调用。分段写满时滚动到新的分段文件，旧分段被截断到实际写入的长度后关闭。
+ * <p>
+ * 映射区域的落盘默认交由操作系统完成；重载 {@link #forceInterval()} 可定期在工作线程上调用 {@link MappedByteBuffer#force()}。
+ * 当前分段容纳得下一批日志时，写入直接在处理循环中完成；需要打开或滚动分段时，本批剩余的日志连同分段的创建、映射、
+ * 落盘与截断一起以有序阻塞任务的形式在工作线程上执行，不会阻塞事件循环。
+ * <p>
+ * 进程异常终止时，当前分段末尾可能留有未截断的零字节，读取时应予以忽略。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public abstract class MappedSegmentLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextBufferRender {
+    private final Map<String, Segment> segmentMap = new ConcurrentHashMap<>();
+    private final RenderBuffer renderBuffer = new RenderBuffer();
+    private long forceTimerID = -1;
+
+    public MappedSegmentLogWriterAdapter() {
+        super();
+    }
+
+    /**
+     * 按需重载以指定直接渲染到缓冲区的文本渲染器，例如 {@link TextLogRender#getInstance()}，以消除逐行的中间字符串。
+     * <p>
+     * 指定后日志格式由该渲染器决定，{@link #render(String, SpecificLog)} 与 {@link LogTextRender} 的格式化钩子不再生效。
+     *
+     * @return 文本渲染器；返回 null 时沿用 {@link #render(String, SpecificLog)} 的格式（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable LogTextBufferRender textRender() {
+        return null;
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        LogTextBufferRender textRender = textRender();
+        if (textRender != null) {
+            textRender.renderInto(topic, log, buffer);
+        } else {
+            buffer.append(render(topic, log));
+        }
+    }
+
+    /**
+     * 根据给定的 topic 获取分段文件所在的目录，返回 null 视为丢弃日志。
+     *
+     * @param topic 日志 topic
+     * @return 分段文件所在的目录
+     */
+    abstract protected @Nullable Path getSegmentDirectoryForTopic(String topic);
+
+    /**
+     * 按需重载以改写分段文件的大小。
+     *
+     * @return 以字节计的分段大小，默认 64MB。
+     */
+    protected int segmentSize() {
+        return 64 * 1024 * 1024;
+    }
+
+    /**
+     * 按需重载以定期将映射区域强制落盘。
+     *
+     * @return 以毫秒计的落盘间隔；小于等于 0 表示完全交由操作系统（默认）。
+     */
+    protected long forceInterval() {
+        return 0L;
+    }
+
+    /**
+     * 按需重载以改写分段文件的命名。
+     *
+     * @param topic     日志 topic
+     * @param createdAt 分段创建时间戳
+     * @return 分段文件名
+     */
+    protected String segmentFileName(String topic, long createdAt) {
+        return topic + "." + createdAt + ".log";
+    }
+
+    @Override
+    protected Future<Void> prepareForLoop() {
+        long interval = forceInterval();
+        if (interval > 0) {
+            forceTimerID = getKeel().setPeriodic(interval, timerID -> getKeel().executeBlocking(() -> {
+                for (Segment segment : segmentMap.values()) {
+                    segment.force();
+                }
+                return null;
+            }, false));
+        }
+        return Future.succeededFuture();
+    }
+
+    @Override
+    protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+        Path directory = getSegmentDirectoryForTopic(topic);
+        if (directory == null) {
+            return Future.succeededFuture();
+        }
+        List<SpecificLog<?>> remaining = batch;
+        Segment segment = segmentMap.get(topic);
+        if (segment != null) {
+            int index = 0;
+            try {
+                for (; index < batch.size(); index++) {
+                    renderLine(topic, batch.get(index));
+                    if (!tryAppendLine(segment)) {
+                        break;
+                    }
+                }
+            } catch (Throwable throwable) {
+                return Future.failedFuture(throwable);
+            }
+            if (index == batch.size()) {
+                return Future.succeededFuture();
+            }
+            remaining = batch.subList(index, batch.size());
+        }
+        // 需要打开或滚动分段，剩余日志在工作线程上写入；处理循环在本批完成后才处理下一批，因此复用的缓冲区不会被并发访问
+        List<SpecificLog<?>> rest = remaining;
+        return getKeel().executeBlocking(() -> {
+            Segment current = segmentMap.get(topic);
+            if (current == null) {
+                current = openSegment(topic, directory);
+            }
+            for (SpecificLog<?> log : rest) {
+                StringBuilder line = renderLine(topic, log);
+                current = appendLine(topic, directory, current, line);
+            }
+            return null;
+        }, true);
+    }
+
+    private StringBuilder renderLine(String topic, SpecificLog<?> log) {
+        StringBuilder line = renderBuffer.reset();
+        renderInto(topic, log, line);
+        line.append('\n');
+        return line;
+    }
+
+    /**
+     * 将已渲染的一行写入分段；剩余空间不足时回退并返回 false。
+     */
+    private boolean tryAppendLine(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int mark = buffer.position();
+        CoderResult result = renderBuffer.encodeLineInto(buffer);
+        if (!result.isOverflow()) {
+            return true;
+        }
+        buffer.position(mark);
+        return false;
+    }
+
+    private Segment appendLine(String topic, Path directory, Segment segment, StringBuilder line) throws IOException {
+        if (tryAppendLine(segment)) {
+            return segment;
+        }
+        if (segment.buffer.position() == 0) {
+            // 单行超过整个分段大小时，从当前的空分段起拆分写入多个分段
+            return appendOversizedLine(topic, directory, segment, line);
+        }
+        // 当前分段剩余空间不足，滚动到新的分段
+        Segment next = rollSegment(topic, directory, segment);
+        return appendLine(topic, directory, next, line);
+    }
+
+    private Segment appendOversizedLine(String topic, Path directory, Segment segment, StringBuilder line) throws IOException {
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        Segment current = segment;
+        while (offset < bytes.length) {
+            int length = Math.min(current.buffer.remaining(), bytes.length - offset);
+            current.buffer.put(bytes, offset, length);
+            offset += length;
+            if (offset < bytes.length) {
+                current = rollSegment(topic, directory, current);
+            }
+        }
+        return current;
+    }
+
+    private Segment rollSegment(String topic, Path directory, Segment segment) throws IOException {
+        segmentMap.remove(topic, segment);
+        segment.close();
+        return openSegment(topic, directory);
+    }
+
+    private Segment openSegment(String topic, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long createdAt = System.currentTimeMillis();
+        Path path = directory.resolve(segmentFileName(topic, createdAt));
+        while (Files.exists(path)) {
+            createdAt++;
+            path = directory.resolve(segmentFileName(topic, createdAt));
+        }
+        FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        Segment segment = new Segment(channel, buffer);
+        segmentMap.put(topic, segment);
+        return segment;
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        if (forceTimerID >= 0) {
+            getKeel().cancelTimer(forceTimerID);
+        }
+        return super.stopVerticle()
+                    .eventually(() -> getKeel().executeBlocking(() -> {
+                        for (Segment segment : new ArrayList<>(segmentMap.values())) {
+                            try {
+                                segment.close();
+                            } catch (IOException e) {
+                                // 停止阶段关闭失败不影响其他分段的关闭
+                            }
+                        }
+                        segmentMap.clear();
+                        return null;
+                    }, false));
+    }
+
+    /**
+     * 一个已映射的分段文件。
+     */
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private boolean closed = false;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        synchronized void force() {
+            if (!closed) {
+                buffer.force();
+            }
+        }
+
+        /**
+         * 落盘并截断到实际写入的长度后关闭；映射区域随对象回收而释放。
+         */
+        synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                buffer.force();
+                channel.truncate(buffer.position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+/**
+ * {@link NetworkLogWriterAdapter} 发送日志所用的传输方式与分帧格式。
+ *
+ * @since 5.0.3
+ */
+public enum NetworkLogFraming {
+    /**
+     * 经 TCP 发送，每条日志以换行符结尾；渲染结果不得包含换行符，{@link JsonLinesLogRender} 满足这一要求。
+     */
+    NEWLINE,
+    /**
+     * 经 TCP 发送，每条日志前缀 4 字节大端序的 UTF-8 字节长度；渲染结果可包含换行符。
+     */
+    LENGTH_PREFIXED,
+    /**
+     * 经 UDP 发送，多条日志以换行符分隔合并为一个数据报，数据报大小不超过
+     * {@link NetworkLogWriterAdapter#maxDatagramSize()}；不保证送达。
+     */
+    DATAGRAM
+}
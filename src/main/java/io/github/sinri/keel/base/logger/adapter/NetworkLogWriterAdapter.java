@@ -0,0 +1,397 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.logger.factory.StdoutLoggerFactory;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.NetSocket;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 将日志经 TCP 或 UDP 发送到本地或远端日志采集端的队列化写入适配器。
+ * <p>
+ * 每批日志渲染后编码为一个 {@link Buffer}，按 {@link NetworkLogFraming} 分帧：TCP 连接上以换行符或长度前缀分帧，
+ * UDP 下以换行符分隔合并为若干数据报。写出不逐批等待完成，多个批次在连接上流水线式发送；
+ * 仅当连接的写队列超过 {@link #writeQueueMaxSize()} 时，本批的 Future 等到写队列排空才完成，处理循环随之暂停，
+ * 积压留在内存队列中，可配合溢出策略或磁盘溢出层使用。
+ * <p>
+ * TCP 连接在部署时建立，断开后按 {@link #reconnectInitialDelay()} 起指数退避重连，最长间隔为 {@link #reconnectMaxDelay()}；
+ * 连接恢复前处理循环暂停。连接断开时已写出但尚未送达的日志计入 {@link #getLostRecordCount()}，不重发。
+ * 停止时若连接不可用，至多等待 {@link #stopConnectionWaitTime()} 让连接恢复，此后不再重连，剩余批次以失败结束，
+ * 停止不会因采集端不可用而一直等待。
+ * <p>
+ * 默认以 {@link JsonLinesLogRender} 将每条日志渲染为一行 JSON。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class NetworkLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextBufferRender {
+    private final String host;
+    private final int port;
+    private final NetworkLogFraming framing;
+    private final LogTextBufferRender render;
+    private final RenderBuffer renderBuffer = new RenderBuffer();
+    private final LongAdder lostRecordCount = new LongAdder();
+    private final LongAdder reconnectCount = new LongAdder();
+    private final LongAdder backpressurePauseCount = new LongAdder();
+
+    /*
+     * 以下字段仅在本 Verticle 的上下文中访问。
+     */
+    private @Nullable NetClient netClient;
+    private @Nullable DatagramSocket datagramSocket;
+    private volatile @Nullable NetSocket socket;
+    private Promise<NetSocket> connectionPromise = Promise.promise();
+    private @Nullable Promise<Void> drainPromise;
+    private long reconnectDelay = 0;
+    private long reconnectTimerID = -1;
+    private long stopConnectionWaitTimerID = -1;
+    private boolean stopping = false;
+
+    /**
+     * @param host    采集端地址
+     * @param port    采集端端口
+     * @param framing 传输方式与分帧格式
+     */
+    public NetworkLogWriterAdapter(String host, int port, NetworkLogFraming framing) {
+        this(host, port, framing, null);
+    }
+
+    /**
+     * @param host    采集端地址
+     * @param port    采集端端口
+     * @param framing 传输方式与分帧格式
+     * @param render  日志渲染器，为 null 时采用 {@link JsonLinesLogRender}
+     */
+    public NetworkLogWriterAdapter(String host, int port, NetworkLogFraming framing, @Nullable LogTextBufferRender render) {
+        super();
+        this.host = host;
+        this.port = port;
+        this.framing = framing;
+        this.render = render == null ? JsonLinesLogRender.getInstance() : render;
+    }
+
+    /**
+     * 按需重载以改写 TCP 连接超时。
+     *
+     * @return 以毫秒计的连接超时，默认 5000 毫秒
+     */
+    protected int connectTimeout() {
+        return 5000;
+    }
+
+    /**
+     * 按需重载以改写首次重连的等待时间，此后每次失败加倍。
+     *
+     * @return 以毫秒计的首次重连等待时间，默认 100 毫秒
+     */
+    protected long reconnectInitialDelay() {
+        return 100L;
+    }
+
+    /**
+     * 按需重载以改写重连等待时间的上限。
+     *
+     * @return 以毫秒计的重连等待时间上限，默认 30000 毫秒
+     */
+    protected long reconnectMaxDelay() {
+        return 30_000L;
+    }
+
+    /**
+     * 按需重载以改写停止时等待连接恢复的时长；超时后不再重连，等待连接的批次以失败结束。
+     *
+     * @return 以毫秒计的等待时长，默认 5000 毫秒
+     */
+    protected long stopConnectionWaitTime() {
+        return 5000L;
+    }
+
+    /**
+     * 按需重载以改写 TCP 连接写队列的上限；写队列超过该值时暂停处理循环。
+     *
+     * @return 以字节计的写队列上限，默认 1MB
+     */
+    protected int writeQueueMaxSize() {
+        return 1024 * 1024;
+    }
+
+    /**
+     * 按需重载以改写 {@link NetworkLogFraming#DATAGRAM} 下单个数据报的大小上限；超过该上限的单条日志独占一个数据报。
+     *
+     * @return 以字节计的数据报大小上限，默认 8192
+     */
+    protected int maxDatagramSize() {
+        return 8192;
+    }
+
+    @Override
+    public String render(String topic, SpecificLog<?> log) {
+        return render.render(topic, log);
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        render.renderInto(topic, log, buffer);
+    }
+
+    /**
+     * @return TCP 连接当前是否可用；{@link NetworkLogFraming#DATAGRAM} 下总是 false
+     */
+    public boolean isConnected() {
+        return socket != null;
+    }
+
+    /**
+     * @return 因连接断开或发送失败而丢失的日志记录数
+     */
+    public long getLostRecordCount() {
+        return lostRecordCount.sum();
+    }
+
+    /**
+     * @return 连接断开后成功重连的次数
+     */
+    public long getReconnectCount() {
+        return reconnectCount.sum();
+    }
+
+    /**
+     * @return 因写队列已满而暂停处理循环的次数
+     */
+    public long getBackpressurePauseCount() {
+        return backpressurePauseCount.sum();
+    }
+
+    @Override
+    protected Future<Void> prepareForLoop() {
+        if (framing == NetworkLogFraming.DATAGRAM) {
+            datagramSocket = getKeel().createDatagramSocket(new DatagramSocketOptions());
+        } else {
+            netClient = getKeel().createNetClient(new NetClientOptions().setConnectTimeout(connectTimeout()));
+            // 采集端暂不可用时不阻止部署，日志先在队列中积压
+            connect();
+        }
+        return Future.succeededFuture();
+    }
+
+    @Override
+    protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+        if (framing == NetworkLogFraming.DATAGRAM) {
+            return sendDatagrams(topic, batch);
+        }
+        NetSocket current = socket;
+        if (current != null) {
+            return writeToSocket(current, topic, batch);
+        }
+        // 停止时放弃重连，等待连接的批次随之失败，计入丢失数
+        return connectionPromise.future()
+                                .onFailure(throwable -> lostRecordCount.add(batch.size()))
+                                .compose(connected -> writeToSocket(connected, topic, batch));
+    }
+
+    private Future<Void> writeToSocket(NetSocket current, String topic, List<SpecificLog<?>> batch) {
+        Buffer buffer;
+        try {
+            buffer = encodeStream(topic, batch);
+        } catch (Throwable throwable) {
+            return Future.failedFuture(throwable);
+        }
+        int count = batch.size();
+        current.write(buffer).onFailure(throwable -> lostRecordCount.add(count));
+        if (!current.writeQueueFull() || socket != current) {
+            return Future.succeededFuture();
+        }
+        // 写队列已满：本批在写队列排空或连接断开时完成，处理循环在此期间暂停
+        backpressurePauseCount.increment();
+        Promise<Void> promise = Promise.promise();
+        drainPromise = promise;
+        current.drainHandler(v -> {
+            drainPromise = null;
+            promise.tryComplete();
+        });
+        return promise.future();
+    }
+
+    /**
+     * 将一批日志按流式分帧格式编码。
+     */
+    private Buffer encodeStream(String topic, List<SpecificLog<?>> batch) {
+        if (framing == NetworkLogFraming.NEWLINE) {
+            StringBuilder builder = renderBuffer.reset();
+            for (SpecificLog<?> log : batch) {
+                renderInto(topic, log, builder);
+                builder.append('\n');
+            }
+            ByteBuffer bytes = renderBuffer.encode();
+            return Buffer.buffer(bytes.remaining())
+                         .appendBytes(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+        Buffer buffer = Buffer.buffer();
+        for (SpecificLog<?> log : batch) {
+            renderInto(topic, log, renderBuffer.reset());
+            ByteBuffer bytes = renderBuffer.encode();
+            buffer.appendInt(bytes.remaining())
+                  .appendBytes(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        }
+        return buffer;
+    }
+
+    private Future<Void> sendDatagrams(String topic, List<SpecificLog<?>> batch) {
+        DatagramSocket current = datagramSocket;
+        if (current == null) {
+            return Future.failedFuture(new IllegalStateException("Datagram socket is not ready"));
+        }
+        int maxSize = Math.max(1, maxDatagramSize());
+        List<Future<Void>> sends = new ArrayList<>();
+        Buffer datagram = Buffer.buffer(maxSize);
+        int count = 0;
+        try {
+            for (SpecificLog<?> log : batch) {
+                renderInto(topic, log, renderBuffer.reset());
+                ByteBuffer bytes = renderBuffer.encode();
+                int length = bytes.remaining() + 1;
+                if (count > 0 && datagram.length() + length > maxSize) {
+                    sends.add(sendDatagram(current, datagram, count));
+                    datagram = Buffer.buffer(maxSize);
+                    count = 0;
+                }
+                datagram.appendBytes(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining())
+                        .appendByte((byte) '\n');
+                count++;
+            }
+        } catch (Throwable throwable) {
+            return Future.failedFuture(throwable);
+        }
+        if (count > 0) {
+            sends.add(sendDatagram(current, datagram, count));
+        }
+        // 数据报全部发出后再处理下一批；发送失败已计入丢失数，不再使本批失败
+        return Future.join(sends).<Void>mapEmpty().otherwiseEmpty();
+    }
+
+    private Future<Void> sendDatagram(DatagramSocket current, Buffer datagram, int count) {
+        return current.send(datagram, port, host)
+                      .onFailure(throwable -> lostRecordCount.add(count));
+    }
+
+    private void connect() {
+        NetClient client = netClient;
+        if (client == null || stopping) {
+            return;
+        }
+        client.connect(port, host)
+              .onComplete(ar -> {
+                  if (ar.failed()) {
+                      scheduleReconnect();
+                      return;
+                  }
+                  NetSocket connected = ar.result();
+                  if (stopping) {
+                      connected.close();
+                      return;
+                  }
+                  connected.setWriteQueueMaxSize(writeQueueMaxSize());
+                  connected.exceptionHandler(throwable -> StdoutLoggerFactory.getInstance()
+                                                                             .createLogger(getClass().getName())
+                                                                             .warning(log -> log.message("Connection to log collector " + host + ":" + port + " failed")
+                                                                                                .exception(throwable)));
+                  connected.closeHandler(v -> onDisconnected(connected));
+                  if (reconnectDelay > 0) {
+                      reconnectCount.increment();
+                  }
+                  reconnectDelay = 0;
+                  socket = connected;
+                  connectionPromise.tryComplete(connected);
+              });
+    }
+
+    private void onDisconnected(NetSocket disconnected) {
+        if (socket != disconnected) {
+            return;
+        }
+        socket = null;
+        connectionPromise = Promise.promise();
+        if (stopping) {
+            // 已放弃重连，等待连接的批次不再等待
+            connectionPromise.fail(new IllegalStateException("Adapter is stopping"));
+        }
+        Promise<Void> promise = drainPromise;
+        if (promise != null) {
+            // 写队列中未送出的数据随连接丢失，不再等待排空
+            drainPromise = null;
+            promise.tryComplete();
+        }
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (stopping) {
+            return;
+        }
+        long initialDelay = Math.max(1, reconnectInitialDelay());
+        reconnectDelay = reconnectDelay <= 0
+                ? initialDelay
+                : Math.min(Math.max(initialDelay, reconnectMaxDelay()), reconnectDelay * 2);
+        reconnectTimerID = getKeel().setTimer(reconnectDelay, timerID -> {
+            reconnectTimerID = -1;
+            connect();
+        });
+    }
+
+    /**
+     * 不再重连，并使等待连接的批次以失败结束。
+     */
+    private void stopReconnecting() {
+        stopping = true;
+        if (reconnectTimerID >= 0) {
+            getKeel().cancelTimer(reconnectTimerID);
+            reconnectTimerID = -1;
+        }
+        connectionPromise.tryFail(new IllegalStateException("Adapter is stopping"));
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        if (framing != NetworkLogFraming.DATAGRAM) {
+            // 处理循环可能正停在等待连接处；连接在时限内未恢复则放弃，以免停止一直等待
+            stopConnectionWaitTimerID = getKeel().setTimer(Math.max(1, stopConnectionWaitTime()), timerID -> {
+                stopConnectionWaitTimerID = -1;
+                stopReconnecting();
+            });
+        }
+        return super.stopVerticle()
+                    .eventually(() -> {
+                        if (stopConnectionWaitTimerID >= 0) {
+                            getKeel().cancelTimer(stopConnectionWaitTimerID);
+                            stopConnectionWaitTimerID = -1;
+                        }
+                        stopReconnecting();
+                        NetSocket current = socket;
+                        socket = null;
+                        // end 在写队列中的数据写出后关闭连接
+                        return current == null ? Future.<Void>succeededFuture() : current.end().otherwiseEmpty();
+                    })
+                    .eventually(() -> {
+                        List<Future<Void>> closings = new ArrayList<>(2);
+                        if (netClient != null) {
+                            closings.add(netClient.close());
+                        }
+                        if (datagramSocket != null) {
+                            closings.add(datagramSocket.close());
+                        }
+                        return Future.join(closings).otherwiseEmpty();
+                    });
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 由 {@link FileHandlePool} 管理文件句柄的 {@link FileLogWriterAdapter}。
+ * <p>
+ * 子类只需给出 topic 对应的文件路径；同时打开的文件数不超过 {@link #maxOpenFiles()}，
+ * 超出时关闭最久未使用的文件，长时间未写入的文件也会被关闭，再次写入时以追加方式重新打开。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public abstract class PooledFileLogWriterAdapter extends FileLogWriterAdapter {
+    private @Nullable FileHandlePool<FileWriter> fileHandlePool;
+    private long idleSweepTimerID = -1;
+
+    public PooledFileLogWriterAdapter() {
+        super();
+    }
+
+    /**
+     * 根据给定的 topic 获取日志文件路径，返回 null 视为丢弃日志。
+     *
+     * @param topic 日志 topic
+     * @return 日志文件路径
+     */
+    abstract protected @Nullable Path getFilePathForTopic(String topic);
+
+    /**
+     * 按需重载以改写同时打开的文件数上限。
+     *
+     * @return 同时打开的文件数上限，默认 256
+     */
+    protected int maxOpenFiles() {
+        return 256;
+    }
+
+    /**
+     * 按需重载以改写空闲文件的关闭时长。
+     *
+     * @return 以毫秒计的空闲时长，超过后关闭文件，默认 60 秒；小于等于 0 表示不按空闲关闭
+     */
+    protected long idleFileTimeout() {
+        return 60_000L;
+    }
+
+    @Override
+    protected final @Nullable FileWriter getFileWriterForTopic(String topic) {
+        Path path = getFilePathForTopic(topic);
+        if (path == null) {
+            return null;
+        }
+        try {
+            return getFileHandlePool().acquire(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileHandlePool<FileWriter> getFileHandlePool() {
+        FileHandlePool<FileWriter> pool = fileHandlePool;
+        if (pool == null) {
+            pool = new FileHandlePool<>(maxOpenFiles(), path -> {
+                Path parent = path.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                return new FileWriter(path.toFile(), StandardCharsets.UTF_8, true);
+            });
+            fileHandlePool = pool;
+            long idleFileTimeout = idleFileTimeout();
+            if (idleFileTimeout > 0) {
+                FileHandlePool<FileWriter> sweptPool = pool;
+                idleSweepTimerID = getKeel().setPeriodic(
+                        Math.max(1000L, idleFileTimeout / 2),
+                        timerID -> sweptPool.closeIdle(idleFileTimeout)
+                );
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * @return 获取文件句柄时命中已打开句柄的次数
+     */
+    public long getFileHandleHitCount() {
+        FileHandlePool<FileWriter> pool = fileHandlePool;
+        return pool == null ? 0 : pool.hitCount();
+    }
+
+    /**
+     * @return 获取文件句柄时需要打开文件的次数
+     */
+    public long getFileHandleMissCount() {
+        FileHandlePool<FileWriter> pool = fileHandlePool;
+        return pool == null ? 0 : pool.missCount();
+    }
+
+    /**
+     * @return 因超出上限或空闲而关闭文件句柄的次数
+     */
+    public long getFileHandleEvictionCount() {
+        FileHandlePool<FileWriter> pool = fileHandlePool;
+        return pool == null ? 0 : pool.evictionCount();
+    }
+
+    /**
+     * @return 当前打开的文件数
+     */
+    public int getOpenFileCount() {
+        FileHandlePool<FileWriter> pool = fileHandlePool;
+        return pool == null ? 0 : pool.openCount();
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        return super.stopVerticle()
+                    .eventually(() -> {
+                        // 句柄池与空闲清理定时器可能在停止时的最后一轮处理中才被创建，因此在处理结束后取消
+                        if (idleSweepTimerID >= 0) {
+                            getKeel().cancelTimer(idleSweepTimerID);
+                        }
+                        FileHandlePool<FileWriter> pool = fileHandlePool;
+                        if (pool != null) {
+                            pool.closeAll();
+                        }
+                        return Future.succeededFuture();
+                    });
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+/**
+ * 有界日志队列已满时的溢出策略。
+ *
+ * @see QueuedLogWriterAdapter#queueCapacity()
+ * @since 5.0.3
+ */
+public enum QueueOverflowPolicy {
+    /**
+     * 丢弃新到达的记录。
+     */
+    DROP_NEWEST,
+    /**
+     * 丢弃队列中最早的记录，为新到达的记录腾出空间。
+     */
+    DROP_OLDEST,
+    /**
+     * 短暂等待队列腾出空间，超时仍未腾出则丢弃新到达的记录。
+     */
+    BLOCK_BRIEFLY,
+    /**
+     * 溢出期间按固定比例采样：每若干条新记录中保留一条（替换最早的记录），其余丢弃。
+     */
+    SAMPLE,
+}
@@ -1,28 +1,82 @@
 package io.github.sinri.keel.base.logger.adapter;
 
+import io.github.sinri.keel.base.internal.queue.AdaptiveBatchSizer;
+import io.github.sinri.keel.base.internal.queue.DrainSignal;
+import io.github.sinri.keel.base.internal.queue.QueueDrainControl;
+import io.github.sinri.keel.base.logger.codec.SpillCodec;
+import io.github.sinri.keel.base.logger.metric.AbstractMetricRecorder;
+import io.github.sinri.keel.base.logger.metric.BasicMetricRecord;
 import io.github.sinri.keel.base.verticles.KeelVerticleBase;
 import io.github.sinri.keel.logger.api.adapter.LogWriterAdapter;
+import io.github.sinri.keel.logger.api.log.Log;
 import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
 import io.vertx.core.Future;
-import io.vertx.core.Promise;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 一个基于队列处理的持久性日志写入适配器实现。
+ * <p>
+ * 每个 topic 拥有独立的队列。默认为无界队列；重载 {@link #queueCapacity()} 可改用预分配的有界环形队列，
+ * 队列已满时按照 {@link #queueOverflowPolicy()} 处理并计入丢弃数，从而保证日志不会拖垮服务。
+ * <p>
+ * 队列排空后处理循环即停驻，由 {@link #accept(String, SpecificLog)} 唤醒；
+ * {@link #idleWaitTime()} 仅作为兜底的轮询间隔。
+ * <p>
+ * 重载 {@link #logAdmissionPolicy()} 可在入队前对日志记录限流或采样，被抑制的记录数定期以汇总记录写入对应 topic。
+ * <p>
+ * 处理管道的运行状况（各 topic 的队列深度、入队与处理速率、丢弃数、批次大小与处理耗时分布、失败次数）
+ * 始终被统计，可通过 {@link #getPipelineMetrics()} 查询；重载 {@link #pipelineMetricRecorder()} 可将其定期发布。
+ * <p>
+ * 重载 {@link #adaptiveBatchSize()} 可启用自适应批次大小：积压增长时增大批次，队列接近排空或处理耗时超过
+ * {@link #targetDrainLatency()} 时缩小批次，批次大小位于 {@link #minBatchSize()} 与 {@link #maxBatchSize()} 之间。
+ * <p>
+ * 停止时处理循环以 {@link #maxBatchSize()} 为批次全速处理剩余记录；重载 {@link #shutdownTimeout()} 可为停止设定时限，
+ * 超时后剩余记录被转存到 {@link #shutdownSpillPath()} 指定的文件或被丢弃并计数，使下游阻塞时停止仍能在有限时间内完成。
+ * <p>
+ * 重载 {@link #overflowDirectory()} 与 {@link #overflowCodec()} 可启用磁盘溢出层：内存中积压的记录超过
+ * {@link #overflowThreshold()} 时被写入本地仅追加的分段文件，下游恢复后按序回放，使下游长时间不可用时堆内存保持平稳。
  *
  * @since 5.0.0
  */
 @NullMarked
 public abstract class QueuedLogWriterAdapter extends KeelVerticleBase implements LogWriterAdapter {
-    private final Map<String, Queue<SpecificLog<?>>> queueMap = new ConcurrentHashMap<>();
-    private final AtomicBoolean closeFlag = new AtomicBoolean(false);
-    private final Promise<Void> endedPromise = Promise.promise();
+    private final Map<String, TopicLogQueue> queueMap = new ConcurrentHashMap<>();
+    private final Map<String, TopicPipelineMetrics> pipelineMetricsMap = new ConcurrentHashMap<>();
+    private final DrainSignal drainSignal = new DrainSignal();
+    /**
+     * 停止时限与磁盘溢出层。
+     */
+    private final QueueDrainControl<SpecificLog<?>> drainControl = new QueueDrainControl<>(
+            "log records",
+            getClass().getName(),
+            drainSignal,
+            this::pollAllQueuedLogRecords,
+            this::pollRemainingLogRecords,
+            JsonLinesLogRender.getInstance()::renderInto
+    );
+    /**
+     * 多 topic 轮转的起点，仅在处理循环中访问。
+     */
+    private int drainRoundRobinOffset = 0;
+    private @Nullable LogAdmissionPolicy admissionPolicy;
+    private volatile boolean admissionPolicyResolved = false;
+    private long suppressionSummaryTimerID = -1;
+    private long pipelineMetricTimerID = -1;
+    /**
+     * 去重阶段，仅在处理循环中访问；未启用时为 null。
+     */
+    private @Nullable LogDeduplicator deduplicator;
+    /**
+     * 自适应批次大小，未启用时为 null。
+     */
+    private @Nullable AdaptiveBatchSizer batchSizer;
 
     public QueuedLogWriterAdapter() {
         super();
@@ -37,11 +91,279 @@ public abstract class QueuedLogWriterAdapter extends KeelVerticleBase implements
         return 128;
     }
 
+    /**
+     * 按需重载以改写每轮处理的总预算。
+     *
+     * @return 每轮处理循环中，全部 topic 合计至多取出的日志记录数，默认为 {@link #bufferSize()} 的 16 倍；
+     *         启用自适应批次大小时，预算不小于当前的批次大小。
+     * @since 5.0.3
+     */
+    protected int drainBudget() {
+        return bufferSize() * 16;
+    }
+
+    /**
+     * 按需重载以启用自适应批次大小，此时 {@link #bufferSize()} 仅作为初始批次大小。
+     *
+     * @return 是否启用自适应批次大小，默认不启用。
+     * @since 5.0.3
+     */
+    protected boolean adaptiveBatchSize() {
+        return false;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的下界。
+     *
+     * @return 批次大小下界，默认 16。
+     * @since 5.0.3
+     */
+    protected int minBatchSize() {
+        return 16;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的上界。
+     *
+     * @return 批次大小上界，默认 4096。
+     * @since 5.0.3
+     */
+    protected int maxBatchSize() {
+        return 4096;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的目标处理耗时；一轮处理超过该耗时时批次将缩小。
+     *
+     * @return 以毫秒计的单轮处理耗时目标，默认 100 毫秒。
+     * @since 5.0.3
+     */
+    protected long targetDrainLatency() {
+        return 100L;
+    }
+
+    /**
+     * 按需重载以改写队列空闲时的兜底轮询间隔；新的日志记录到达时处理循环会被立即唤醒，无需等待该间隔。
+     *
+     * @return 以毫秒计的兜底轮询间隔，默认 1000 毫秒。
+     * @since 5.0.3
+     */
+    protected long idleWaitTime() {
+        return 1000L;
+    }
+
+    /**
+     * 按需重载以启用有界队列。
+     *
+     * @return 每个 topic 的队列容量，将向上取整为 2 的幂；小于等于 0 表示使用无界队列（默认）。
+     * @since 5.0.3
+     */
+    protected int queueCapacity() {
+        return 0;
+    }
+
+    /**
+     * 按需重载以改写有界队列已满时的溢出策略；仅在 {@link #queueCapacity()} 大于 0 时有效。
+     *
+     * @return 溢出策略，默认丢弃新到达的记录。
+     * @since 5.0.3
+     */
+    protected QueueOverflowPolicy queueOverflowPolicy() {
+        return QueueOverflowPolicy.DROP_NEWEST;
+    }
+
+    /**
+     * 按需重载以改写 {@link QueueOverflowPolicy#BLOCK_BRIEFLY} 策略下的最长等待时间。
+     *
+     * @return 以毫秒计的最长等待时间，默认 5 毫秒。
+     * @since 5.0.3
+     */
+    protected long queueOverflowBlockTime() {
+        return 5L;
+    }
+
+    /**
+     * 按需重载以改写 {@link QueueOverflowPolicy#SAMPLE} 策略下的采样比例。
+     *
+     * @return 溢出期间每多少条新记录保留一条，默认 100。
+     * @since 5.0.3
+     */
+    protected int queueOverflowSampleRate() {
+        return 100;
+    }
+
+    /**
+     * 按需重载以在日志记录入队前执行准入判断，例如按 topic 限流或按级别采样，见 {@link RateLimitingLogAdmission}。
+     * <p>
+     * 本方法仅在首次接收日志记录时调用一次。
+     *
+     * @return 准入策略；返回 null 表示全部准入（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable LogAdmissionPolicy logAdmissionPolicy() {
+        return null;
+    }
+
+    /**
+     * 按需重载以改写被准入策略抑制的记录的汇总间隔。
+     *
+     * @return 以毫秒计的汇总间隔，默认 10 秒。
+     * @since 5.0.3
+     */
+    protected long suppressionSummaryInterval() {
+        return 10_000L;
+    }
+
+    /**
+     * 按需重载以启用重复记录的去重：窗口内 topic、级别、消息与分类均相同的记录仅写出首条，
+     * 窗口结束时再写出一条给出重复次数与首末时间戳的汇总记录。
+     *
+     * @return 以毫秒计的去重窗口；小于等于 0 表示不去重（默认）。
+     * @since 5.0.3
+     */
+    protected long deduplicationWindow() {
+        return 0L;
+    }
+
+    /**
+     * 按需重载以改写去重时同时追踪的不同记录数上限，超出后新出现的记录不再参与去重，直到已有窗口结束。
+     *
+     * @return 同时追踪的不同记录数上限，默认 10000。
+     * @since 5.0.3
+     */
+    protected int deduplicationCapacity() {
+        return 10_000;
+    }
+
+    /**
+     * 按需重载以定期发布处理管道的统计指标。
+     * <p>
+     * 记录器不应将指标以日志形式写回本适配器。
+     *
+     * @return 用于发布的指标记录器；返回 null 表示不发布（默认），统计仍可通过 {@link #getPipelineMetrics()} 查询。
+     * @since 5.0.3
+     */
+    protected @Nullable AbstractMetricRecorder pipelineMetricRecorder() {
+        return null;
+    }
+
+    /**
+     * 按需重载以改写处理管道统计指标的发布间隔。
+     *
+     * @return 以毫秒计的发布间隔，默认 60 秒。
+     * @since 5.0.3
+     */
+    protected long pipelineMetricInterval() {
+        return 60_000L;
+    }
+
+    /**
+     * 按需重载以改写处理管道统计指标名称的前缀。
+     *
+     * @return 指标名称的前缀
+     * @since 5.0.3
+     */
+    protected String pipelineMetricNamePrefix() {
+        return "log_pipeline";
+    }
+
+    /**
+     * 按需重载以为停止设定时限。
+     * <p>
+     * 时限内处理循环全速处理剩余记录；超时后剩余记录不再交给 {@link #processLogRecords(String, List)}，
+     * 而是转存到 {@link #shutdownSpillPath()}，或在未指定转存文件时丢弃并计数。超时时正在处理的批次不再等待。
+     *
+     * @return 以毫秒计的停止时限；小于等于 0 表示一直等待到全部记录处理完毕（默认）。
+     * @since 5.0.3
+     */
+    protected long shutdownTimeout() {
+        return 0L;
+    }
+
+    /**
+     * 按需重载以指定停止超时后剩余记录的转存文件。
+     * <p>
+     * 记录以 {@link JsonLinesLogRender} 的格式逐行追加写入，每行含有所属 topic。
+     *
+     * @return 转存文件路径；返回 null 表示丢弃剩余记录（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable Path shutdownSpillPath() {
+        return null;
+    }
+
+    /**
+     * 按需重载以启用磁盘溢出层，须与 {@link #overflowCodec()} 同时重载。
+     * <p>
+     * 目录由本适配器独占；其中未回放完的记录在下次启动时继续回放，崩溃前已读出但未确认的记录可能被再次处理。
+     * 回放的记录已经过准入判断，但不再参与去重。
+     *
+     * @return 溢出分段文件所在目录；返回 null 表示不启用（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable Path overflowDirectory() {
+        return null;
+    }
+
+    /**
+     * 按需重载以提供溢出到磁盘的日志记录的编解码器。
+     *
+     * @return 编解码器；返回 null 表示不启用磁盘溢出层（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable SpillCodec<SpecificLog<?>> overflowCodec() {
+        return null;
+    }
+
+    /**
+     * 按需重载以改写触发溢出的内存积压阈值。
+     *
+     * @return 全部 topic 合计的内存积压记录数，超过时积压记录全部写入磁盘，默认 10000。
+     * @since 5.0.3
+     */
+    protected long overflowThreshold() {
+        return 10_000L;
+    }
+
+    /**
+     * 按需重载以改写溢出分段文件的大小。
+     *
+     * @return 以字节计的分段大小，默认 64MB。
+     * @since 5.0.3
+     */
+    protected long overflowSegmentSize() {
+        return 64L * 1024 * 1024;
+    }
+
+    /**
+     * 按需重载以改写内存积压的检查间隔。
+     *
+     * @return 以毫秒计的检查间隔，默认 100 毫秒。
+     * @since 5.0.3
+     */
+    protected long overflowCheckInterval() {
+        return 100L;
+    }
+
+    /**
+     * 按需重载以改写溢出层回放失败后的退避时间。
+     * <p>
+     * 回放的一次读取中任一批次处理失败时，读取进度回退到上次确认处，等待后重新回放；
+     * 连续失败时等待时间逐次翻倍，至多为本值的 32 倍。
+     *
+     * @return 以毫秒计的首次退避时间，默认 1 秒。
+     * @since 5.0.3
+     */
+    protected long overflowReplayRetryDelay() {
+        return 1000L;
+    }
+
     abstract protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch);
 
     @Override
     protected final Future<Void> startVerticle() {
         return prepareForLoop()
+                .compose(v -> drainControl.openOverflowTier(getKeel(), overflowDirectory(), overflowSegmentSize(), overflowCodec()))
                 .compose(v -> {
                     runLoop();
                     return Future.succeededFuture();
@@ -51,53 +373,438 @@ public abstract class QueuedLogWriterAdapter extends KeelVerticleBase implements
     protected abstract Future<Void> prepareForLoop();
 
     private void runLoop() {
-        getKeel().asyncCallRepeatedly(repeatedlyCallTask -> {
-                     Set<String> topics = this.queueMap.keySet();
-                     AtomicInteger counter = new AtomicInteger(0);
-                     return getKeel().asyncCallIteratively(topics, topic -> {
-                                         Queue<SpecificLog<?>> queue = this.queueMap.get(topic);
-                                         List<SpecificLog<?>> bufferOfTopic = new ArrayList<>();
-                                         while (true) {
-                                             SpecificLog<?> r = queue.poll();
-                                             if (r == null) break;
-                                             bufferOfTopic.add(r);
-                                             counter.incrementAndGet();
-                                             if (bufferOfTopic.size() >= this.bufferSize()) {
-                                                 break;
-                                             }
-                                         }
-
-                                         if (bufferOfTopic.isEmpty()) return Future.succeededFuture();
-
-                                         return processLogRecords(topic, bufferOfTopic);
-                                     })
-                                     .eventually(() -> {
-                                         if (counter.get() == 0) {
-                                             if (closeFlag.get()) {
-                                                 repeatedlyCallTask.stop();
-                                                 return Future.succeededFuture();
-                                             }
-                                             return getKeel().asyncSleep(100L);
-                                         } else {
-                                             return Future.succeededFuture();
-                                         }
-                                     });
+        long window = deduplicationWindow();
+        if (window > 0) {
+            deduplicator = new LogDeduplicator(window, deduplicationCapacity());
+        }
+        if (adaptiveBatchSize()) {
+            batchSizer = new AdaptiveBatchSizer(
+                    bufferSize(),
+                    minBatchSize(),
+                    maxBatchSize(),
+                    TimeUnit.MILLISECONDS.toNanos(targetDrainLatency())
+            );
+        }
+        if (resolveAdmissionPolicy() != null) {
+            suppressionSummaryTimerID = getKeel().setPeriodic(
+                    Math.max(1, suppressionSummaryInterval()),
+                    timerID -> enqueueSuppressionSummaries()
+            );
+        }
+        AbstractMetricRecorder metricRecorder = pipelineMetricRecorder();
+        if (metricRecorder != null) {
+            pipelineMetricTimerID = getKeel().setPeriodic(
+                    Math.max(1, pipelineMetricInterval()),
+                    timerID -> publishPipelineMetrics(metricRecorder)
+            );
+        }
+        drainControl.startOverflowCheck(getKeel(), overflowCheckInterval(), this::getQueuedLogRecordCount, overflowThreshold());
+        getKeel().asyncCallRepeatedly(getVerticleInstanceIdentity(), repeatedlyCallTask -> {
+                     if (drainControl.isAbandoned()) {
+                         repeatedlyCallTask.stop();
+                         return Future.succeededFuture();
+                     }
+                     if (drainControl.hasOverflowRecords()) {
+                         // 溢出层中的记录早于内存队列中的记录，先行回放
+                         return drainControl.replayOverflowTier(
+                                 getKeel(),
+                                 Math.max(currentBatchSize(), drainBudget()),
+                                 overflowReplayRetryDelay(),
+                                 repeatedlyCallTask,
+                                 this::processMeasured
+                         );
+                     }
+                     List<Map.Entry<String, List<SpecificLog<?>>>> batches = drainOnePass();
+                     // 同一轮次内的各批次直接串联处理，不再为每个 topic 经过一次循环调度；
+                     // 各批次已出队，某一批次失败只计入失败次数，既不影响其后批次，也不终止处理循环
+                     long passStartedAt = System.nanoTime();
+                     Future<Void> future = Future.succeededFuture();
+                     for (Map.Entry<String, List<SpecificLog<?>>> batch : batches) {
+                         future = future.transform(ar -> processMeasured(batch.getKey(), batch.getValue()));
+                     }
+                     return future.otherwiseEmpty().eventually(() -> {
+                         AdaptiveBatchSizer sizer = batchSizer;
+                         if (sizer != null && !batches.isEmpty()) {
+                             sizer.adjust(System.nanoTime() - passStartedAt, getQueuedLogRecordCount());
+                         }
+                         if (batches.isEmpty()) {
+                             if (drainControl.isClosing()) {
+                                 if (!hasQueuedLogRecords()) {
+                                     repeatedlyCallTask.stop();
+                                 }
+                                 return Future.succeededFuture();
+                             }
+                             long waitTime = idleWaitTime();
+                             LogDeduplicator dedup = deduplicator;
+                             if (dedup != null && !dedup.isEmpty()) {
+                                 // 尚有未结束的去重窗口时按窗口长度醒来，以便及时写出汇总记录
+                                 waitTime = Math.min(waitTime, Math.max(1, window));
+                             }
+                             return getKeel().asyncSleep(waitTime, drainSignal.park(this::hasPendingLogRecords));
+                         } else {
+                             return Future.succeededFuture();
+                         }
+                     });
                  })
-                 .onComplete(endedPromise::handle);
+                 .onComplete(drainControl::loopEnded);
+    }
+
+    private List<Map.Entry<String, SpecificLog<?>>> pollAllQueuedLogRecords() {
+        List<Map.Entry<String, SpecificLog<?>>> records = new ArrayList<>();
+        queueMap.forEach((topic, queue) -> {
+            while (true) {
+                SpecificLog<?> log = queue.poll();
+                if (log == null) break;
+                records.add(Map.entry(topic, log));
+            }
+        });
+        return records;
+    }
+
+    /**
+     * 处理一批日志记录，并记录批次大小、耗时与结果。
+     */
+    private Future<Void> processMeasured(String topic, List<SpecificLog<?>> batch) {
+        TopicPipelineMetrics metrics = pipelineMetricsMap.computeIfAbsent(topic, k -> new TopicPipelineMetrics());
+        long start = System.nanoTime();
+        Future<Void> future;
+        try {
+            future = processLogRecords(topic, batch);
+        } catch (Throwable throwable) {
+            future = Future.failedFuture(throwable);
+        }
+        return future.andThen(ar -> metrics.recordBatch(batch.size(), System.nanoTime() - start, ar.succeeded()));
+    }
+
+    /**
+     * 单次遍历所有 topic 的队列，取出本轮次待处理的日志记录。
+     * <p>
+     * 每个 topic 至多取出 {@link #currentBatchSize()} 条，全部 topic 合计至多取出 {@link #drainBudget()} 条；
+     * 下一轮从本轮最后访问的 topic 之后开始遍历，使预算不足时各 topic 轮流优先，繁忙的 topic 不会饿死其他 topic。
+     *
+     * @return 按 topic 分组的批次，不含空批次
+     */
+    private List<Map.Entry<String, List<SpecificLog<?>>>> drainOnePass() {
+        List<Map.Entry<String, List<SpecificLog<?>>>> batches = new ArrayList<>();
+        LogDeduplicator dedup = deduplicator;
+        long now = System.currentTimeMillis();
+        Map<String, List<SpecificLog<?>>> summaries = dedup == null ? Map.of() : dedup.expire(now, false);
+        collectBatches(batches, dedup, now);
+        if (dedup != null) {
+            if (batches.isEmpty() && drainControl.isClosing() && !hasQueuedLogRecords()) {
+                // 停止前结束所有去重窗口
+                Map<String, List<SpecificLog<?>>> allSummaries = new HashMap<>(summaries);
+                dedup.expire(now, true).forEach((topic, rest) -> allSummaries.merge(topic, rest, (a, b) -> {
+                    List<SpecificLog<?>> merged = new ArrayList<>(a);
+                    merged.addAll(b);
+                    return merged;
+                }));
+                summaries = allSummaries;
+            }
+            mergeSummaries(batches, summaries);
+        }
+        return batches;
+    }
+
+    private void collectBatches(
+            List<Map.Entry<String, List<SpecificLog<?>>>> batches,
+            @Nullable LogDeduplicator dedup,
+            long now
+    ) {
+        List<String> topics = new ArrayList<>(this.queueMap.keySet());
+        int topicCount = topics.size();
+        if (topicCount == 0) {
+            return;
+        }
+        int quantum = currentBatchSize();
+        if (drainControl.isClosing()) {
+            // 停止阶段以最大批次全速处理剩余记录
+            quantum = Math.max(quantum, maxBatchSize());
+        }
+        int budget = Math.max(quantum, drainBudget());
+        int offset = Math.floorMod(drainRoundRobinOffset, topicCount);
+        int visited = 0;
+        for (; visited < topicCount && budget > 0; visited++) {
+            String topic = topics.get((offset + visited) % topicCount);
+            TopicLogQueue queue = this.queueMap.get(topic);
+            if (queue == null) continue;
+            int limit = Math.min(quantum, budget);
+            List<SpecificLog<?>> bufferOfTopic = new ArrayList<>(Math.min(limit, 16));
+            while (bufferOfTopic.size() < limit) {
+                SpecificLog<?> r = queue.poll();
+                if (r == null) break;
+                bufferOfTopic.add(r);
+            }
+            budget -= bufferOfTopic.size();
+            if (dedup != null) {
+                bufferOfTopic.removeIf(log -> dedup.absorb(topic, log, now));
+            }
+            if (!bufferOfTopic.isEmpty()) {
+                batches.add(Map.entry(topic, bufferOfTopic));
+            }
+        }
+        drainRoundRobinOffset = (offset + visited) % topicCount;
+    }
+
+    /**
+     * 将去重汇总记录置于对应 topic 批次的最前，汇总的是此前窗口中的记录。
+     */
+    private static void mergeSummaries(
+            List<Map.Entry<String, List<SpecificLog<?>>>> batches,
+            Map<String, List<SpecificLog<?>>> summaries
+    ) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<String, List<SpecificLog<?>>> remaining = new HashMap<>(summaries);
+        for (Map.Entry<String, List<SpecificLog<?>>> batch : batches) {
+            List<SpecificLog<?>> summariesOfTopic = remaining.remove(batch.getKey());
+            if (summariesOfTopic != null) {
+                batch.getValue().addAll(0, summariesOfTopic);
+            }
+        }
+        remaining.forEach((topic, summariesOfTopic) -> batches.add(Map.entry(topic, summariesOfTopic)));
     }
 
     @Override
     public void accept(String topic, SpecificLog<?> log) {
-        if (closeFlag.get()) return;
-        this.queueMap.computeIfAbsent(topic, k -> new ConcurrentLinkedQueue<>())
-                     .add(log);
+        if (drainControl.isClosing()) return;
+        LogAdmissionPolicy policy = resolveAdmissionPolicy();
+        if (policy != null && !policy.admit(topic, log)) return;
+        enqueue(topic, log);
+    }
+
+    private void enqueue(String topic, SpecificLog<?> log) {
+        if (this.queueMap.computeIfAbsent(topic, k -> createTopicLogQueue())
+                         .offer(log)) {
+            drainSignal.signal();
+        }
+    }
+
+    private @Nullable LogAdmissionPolicy resolveAdmissionPolicy() {
+        if (!admissionPolicyResolved) {
+            synchronized (this) {
+                if (!admissionPolicyResolved) {
+                    admissionPolicy = logAdmissionPolicy();
+                    admissionPolicyResolved = true;
+                }
+            }
+        }
+        return admissionPolicy;
+    }
+
+    /**
+     * 为各被抑制过记录的 topic 写入一条汇总记录，汇总记录不经过准入判断。
+     */
+    private void enqueueSuppressionSummaries() {
+        LogAdmissionPolicy policy = resolveAdmissionPolicy();
+        if (policy == null) return;
+        policy.drainSuppressedCounts().forEach((topic, count) -> enqueue(
+                topic,
+                new Log().message(count + " log records of topic " + topic + " were suppressed by admission policy")
+        ));
+    }
+
+    private boolean hasPendingLogRecords() {
+        return hasQueuedLogRecords() || drainControl.isClosing();
+    }
+
+    private long getQueuedLogRecordCount() {
+        long sum = 0;
+        for (TopicLogQueue queue : queueMap.values()) {
+            sum += queue.depth();
+        }
+        return sum;
+    }
+
+    /**
+     * @return 当前每个 topic 每批至多处理的日志记录数；启用自适应批次大小时为当前选定的批次大小
+     * @since 5.0.3
+     */
+    public int currentBatchSize() {
+        AdaptiveBatchSizer sizer = batchSizer;
+        return sizer == null ? Math.max(1, bufferSize()) : sizer.currentSize();
+    }
+
+    private boolean hasQueuedLogRecords() {
+        if (drainControl.hasOverflowRecords()) {
+            return true;
+        }
+        for (TopicLogQueue queue : queueMap.values()) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TopicLogQueue createTopicLogQueue() {
+        int capacity = queueCapacity();
+        if (capacity <= 0) {
+            return TopicLogQueue.unbounded();
+        }
+        return TopicLogQueue.bounded(
+                capacity,
+                queueOverflowPolicy(),
+                TimeUnit.MILLISECONDS.toNanos(queueOverflowBlockTime()),
+                queueOverflowSampleRate()
+        );
+    }
+
+    /**
+     * @return 所有 topic 因队列溢出而丢弃的日志记录总数
+     * @since 5.0.3
+     */
+    public long getDroppedCount() {
+        long sum = 0;
+        for (TopicLogQueue queue : queueMap.values()) {
+            sum += queue.droppedCount();
+        }
+        return sum;
+    }
+
+    /**
+     * @param topic 日志 topic
+     * @return 指定 topic 因队列溢出而丢弃的日志记录数
+     * @since 5.0.3
+     */
+    public long getDroppedCount(String topic) {
+        TopicLogQueue queue = queueMap.get(topic);
+        return queue == null ? 0 : queue.droppedCount();
+    }
+
+    /**
+     * 查询处理管道的统计指标快照。
+     * <p>
+     * 对每个 topic 给出队列深度、累计入队数、累计处理数、累计丢弃数、处理失败的批次数、
+     * 自上次发布以来的入队与处理速率（条/秒），以及批次大小与批次处理耗时（毫秒）的累积分桶直方图，
+     * 指标以 topic 标签区分，直方图的分桶上界以 le 标签给出；另有不带标签的当前批次大小。
+     *
+     * @return 指标记录
+     * @since 5.0.3
+     */
+    public List<MetricRecord> getPipelineMetrics() {
+        return collectPipelineMetrics(false);
+    }
+
+    private void publishPipelineMetrics(AbstractMetricRecorder metricRecorder) {
+        for (MetricRecord metricRecord : collectPipelineMetrics(true)) {
+            metricRecorder.recordMetric(metricRecord);
+        }
+    }
+
+    private List<MetricRecord> collectPipelineMetrics(boolean resetBaseline) {
+        List<MetricRecord> records = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        String prefix = pipelineMetricNamePrefix();
+        records.add(new BasicMetricRecord(prefix + "_batch_size_current", now, currentBatchSize(), Map.of()));
+        if (drainControl.isOverflowEnabled()) {
+            records.add(new BasicMetricRecord(prefix + "_overflow_stored", now, drainControl.overflowRecordCount(), Map.of()));
+            records.add(new BasicMetricRecord(prefix + "_overflow_lost_total", now, drainControl.overflowLostCount(), Map.of()));
+        }
+        for (Map.Entry<String, TopicLogQueue> entry : queueMap.entrySet()) {
+            String topic = entry.getKey();
+            TopicLogQueue queue = entry.getValue();
+            TopicPipelineMetrics metrics = pipelineMetricsMap.computeIfAbsent(topic, k -> new TopicPipelineMetrics());
+            Map<String, String> labels = Map.of("topic", topic);
+            long enqueued = queue.enqueuedCount();
+            long drained = metrics.drainedCount();
+            double seconds = Math.max(1, now - metrics.baselineTime()) / 1000.0;
+
+            records.add(new BasicMetricRecord(prefix + "_queue_depth", now, queue.depth(), labels));
+            records.add(new BasicMetricRecord(prefix + "_enqueued_total", now, enqueued, labels));
+            records.add(new BasicMetricRecord(prefix + "_drained_total", now, drained, labels));
+            records.add(new BasicMetricRecord(prefix + "_dropped_total", now, queue.droppedCount(), labels));
+            records.add(new BasicMetricRecord(prefix + "_failures_total", now, metrics.failureCount(), labels));
+            records.add(new BasicMetricRecord(prefix + "_enqueue_rate", now, (enqueued - metrics.baselineEnqueued()) / seconds, labels));
+            records.add(new BasicMetricRecord(prefix + "_drain_rate", now, (drained - metrics.baselineDrained()) / seconds, labels));
+            addHistogram(records, prefix + "_batch_size", now, topic, metrics.batchSizes());
+            addHistogram(records, prefix + "_process_latency_ms", now, topic, metrics.latencies());
+            records.add(new BasicMetricRecord(prefix + "_process_latency_ms_max", now, metrics.maxLatencyMillis(), labels));
+
+            if (resetBaseline) {
+                metrics.resetBaseline(now, enqueued, drained);
+            }
+        }
+        return records;
+    }
+
+    private static void addHistogram(
+            List<MetricRecord> records,
+            String name,
+            long timestamp,
+            String topic,
+            BucketHistogram histogram
+    ) {
+        double[] upperBounds = histogram.upperBounds();
+        long[] cumulativeCounts = histogram.cumulativeCounts();
+        for (int i = 0; i < cumulativeCounts.length; i++) {
+            String le = i < upperBounds.length ? formatBound(upperBounds[i]) : "+Inf";
+            records.add(new BasicMetricRecord(name + "_bucket", timestamp, cumulativeCounts[i], Map.of("topic", topic, "le", le)));
+        }
+        Map<String, String> labels = Map.of("topic", topic);
+        records.add(new BasicMetricRecord(name + "_count", timestamp, histogram.count(), labels));
+        records.add(new BasicMetricRecord(name + "_sum", timestamp, histogram.sum(), labels));
+    }
+
+    private static String formatBound(double bound) {
+        return bound == Math.rint(bound) ? Long.toString((long) bound) : Double.toString(bound);
+    }
+
+    /**
+     * @return 磁盘溢出层中尚未处理的日志记录数；未启用时为 0
+     * @since 5.0.3
+     */
+    public long getOverflowRecordCount() {
+        return drainControl.overflowRecordCount();
+    }
+
+    /**
+     * @return 停止超时后被转存到文件的日志记录数
+     * @since 5.0.3
+     */
+    public long getShutdownSpilledCount() {
+        return drainControl.shutdownSpilledCount();
+    }
+
+    /**
+     * @return 停止超时后被丢弃的日志记录数
+     * @since 5.0.3
+     */
+    public long getShutdownDroppedCount() {
+        return drainControl.shutdownDroppedCount();
+    }
+
+    /**
+     * 停止超时后取出全部剩余记录，包括尚未结束的去重窗口的汇总记录。
+     */
+    private List<Map.Entry<String, SpecificLog<?>>> pollRemainingLogRecords() {
+        List<Map.Entry<String, SpecificLog<?>>> remaining = new ArrayList<>();
+        LogDeduplicator dedup = deduplicator;
+        if (dedup != null) {
+            dedup.expire(System.currentTimeMillis(), true)
+                 .forEach((topic, summaries) -> summaries.forEach(log -> remaining.add(Map.entry(topic, log))));
+        }
+        remaining.addAll(pollAllQueuedLogRecords());
+        return remaining;
     }
 
     @Override
     protected Future<?> stopVerticle() {
-        closeFlag.set(true);
-        // there is no TIMEOUT, if this queue should be stopped, the ending should be reached.
-        return endedPromise.future()
-                           .eventually(Future::succeededFuture);
+        if (suppressionSummaryTimerID >= 0) {
+            getKeel().cancelTimer(suppressionSummaryTimerID);
+            enqueueSuppressionSummaries();
+        }
+        // without a shutdown timeout, the ending should be reached before this queue stops.
+        return drainControl.stop(getKeel(), shutdownTimeout(), shutdownSpillPath()).eventually(() -> {
+            if (pipelineMetricTimerID >= 0) {
+                getKeel().cancelTimer(pipelineMetricTimerID);
+                AbstractMetricRecorder metricRecorder = pipelineMetricRecorder();
+                if (metricRecorder != null) {
+                    publishPipelineMetrics(metricRecorder);
+                }
+            }
+            return Future.succeededFuture();
+        });
     }
 }
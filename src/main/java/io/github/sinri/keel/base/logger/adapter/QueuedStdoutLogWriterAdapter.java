@@ -0,0 +1,96 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 面向标准输出的队列化日志写入适配器。
+ * <p>
+ * 与即时写出的 {@link StdoutLogWriter} 不同，调用方线程只将日志记录入队；处理循环将一批记录渲染为一块字节，
+ * 由唯一的写入者在工作线程上通过文件描述符 1 的 {@link FileChannel} 一次写出，
+ * 既不在事件循环上等待标准输出，也不争用 {@link System#out} 的内部锁。
+ * <p>
+ * 默认的渲染格式与 {@link StdoutLogWriter} 一致；供日志采集程序按行读取时，
+ * 可在构造时指定 {@link JsonLinesLogRender} 以每条日志输出一行 JSON。需部署本 Verticle 后日志才会被写出；
+ * 仍需同步写出时，继续使用 {@link StdoutLogWriter} 即可。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class QueuedStdoutLogWriterAdapter extends QueuedLogWriterAdapter implements LogTextBufferRender {
+    private final RenderBuffer renderBuffer = new RenderBuffer();
+    private final WritableByteChannel stdoutChannel;
+    private final @Nullable LogTextBufferRender render;
+
+    public QueuedStdoutLogWriterAdapter() {
+        this(null);
+    }
+
+    /**
+     * @param render 日志渲染器，为 null 时采用与 {@link StdoutLogWriter} 一致的格式
+     * @since 5.0.3
+     */
+    public QueuedStdoutLogWriterAdapter(@Nullable LogTextBufferRender render) {
+        this(render, new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+
+    /**
+     * 以给定的通道代替文件描述符 1，供测试核对写出的字节。
+     *
+     * @param render        日志渲染器，为 null 时采用与 {@link StdoutLogWriter} 一致的格式
+     * @param outputChannel 写出目标
+     */
+    QueuedStdoutLogWriterAdapter(@Nullable LogTextBufferRender render, WritableByteChannel outputChannel) {
+        super();
+        this.stdoutChannel = outputChannel;
+        this.render = render;
+    }
+
+    @Override
+    public String render(String topic, SpecificLog<?> log) {
+        if (render != null) {
+            return render.render(topic, log);
+        }
+        return StdoutLogWriter.getInstance().render(topic, log);
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        if (render != null) {
+            render.renderInto(topic, log, buffer);
+        } else {
+            buffer.append(StdoutLogWriter.getInstance().render(topic, log));
+        }
+    }
+
+    @Override
+    protected Future<Void> prepareForLoop() {
+        return Future.succeededFuture();
+    }
+
+    @Override
+    protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+        StringBuilder buffer = renderBuffer.reset();
+        for (SpecificLog<?> log : batch) {
+            renderInto(topic, log, buffer);
+            buffer.append('\n');
+        }
+        ByteBuffer byteBuffer = renderBuffer.encode();
+        // 处理循环在本批写出后才处理下一批，因此复用的字节缓冲区无需复制
+        return getKeel().executeBlocking(() -> {
+            while (byteBuffer.hasRemaining()) {
+                stdoutChannel.write(byteBuffer);
+            }
+            return null;
+        }, false);
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于按 topic 令牌桶限流与按级别概率采样的日志准入策略。
+ * <p>
+ * 令牌桶以 GCRA（通用信元速率算法）实现，每个 topic 仅维护一个理论到达时间，准入判断只需一次 CAS；
+ * 采样按日志级别的名称配置保留比例，先于限流执行，被采样丢弃的记录不消耗令牌。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class RateLimitingLogAdmission implements LogAdmissionPolicy {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Map<String, Double> samplingRates = new ConcurrentHashMap<>();
+    private final Map<String, Limit> topicLimits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> theoreticalArrivalTimes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> suppressedCounts = new ConcurrentHashMap<>();
+
+    /**
+     * @param permitsPerSecond 每个 topic 每秒准入的记录数
+     * @param burst            每个 topic 允许的突发记录数
+     */
+    public RateLimitingLogAdmission(double permitsPerSecond, int burst) {
+        Limit limit = new Limit(permitsPerSecond, burst);
+        this.emissionIntervalNanos = limit.emissionIntervalNanos;
+        this.burstToleranceNanos = limit.burstToleranceNanos;
+    }
+
+    /**
+     * 为指定 topic 单独设置限流，须在开始记录日志前设置。
+     *
+     * @param topic            日志 topic
+     * @param permitsPerSecond 每秒准入的记录数
+     * @param burst            允许的突发记录数
+     * @return 本策略
+     */
+    public RateLimitingLogAdmission setTopicLimit(String topic, double permitsPerSecond, int burst) {
+        topicLimits.put(topic, new Limit(permitsPerSecond, burst));
+        return this;
+    }
+
+    /**
+     * 设置指定级别的采样比例。
+     *
+     * @param levelName 日志级别的名称，即级别对象的字符串形式
+     * @param rate      保留比例，取值 0 到 1；1 表示全部保留
+     * @return 本策略
+     */
+    public RateLimitingLogAdmission setSamplingRate(String levelName, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("sampling rate must be in [0, 1]");
+        }
+        samplingRates.put(levelName, rate);
+        return this;
+    }
+
+    @Override
+    public boolean admit(String topic, SpecificLog<?> log) {
+        if (!samplingRates.isEmpty()) {
+            Double rate = samplingRates.get(String.valueOf(log.level()));
+            if (rate != null && rate < 1 && (rate <= 0 || ThreadLocalRandom.current().nextDouble() >= rate)) {
+                return suppress(topic);
+            }
+        }
+
+        long interval = emissionIntervalNanos;
+        long tolerance = burstToleranceNanos;
+        if (!topicLimits.isEmpty()) {
+            Limit limit = topicLimits.get(topic);
+            if (limit != null) {
+                interval = limit.emissionIntervalNanos;
+                tolerance = limit.burstToleranceNanos;
+            }
+        }
+        AtomicLong tat = theoreticalArrivalTimes.get(topic);
+        if (tat == null) {
+            tat = theoreticalArrivalTimes.computeIfAbsent(topic, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long current = tat.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + interval;
+            if (next - now > tolerance) {
+                return suppress(topic);
+            }
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean suppress(String topic) {
+        LongAdder counter = suppressedCounts.get(topic);
+        if (counter == null) {
+            counter = suppressedCounts.computeIfAbsent(topic, k -> new LongAdder());
+        }
+        counter.increment();
+        return false;
+    }
+
+    @Override
+    public Map<String, Long> drainSuppressedCounts() {
+        Map<String, Long> result = new HashMap<>();
+        suppressedCounts.forEach((topic, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                result.put(topic, count);
+            }
+        });
+        return result;
+    }
+
+    private static final class Limit {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+
+        Limit(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond and burst must be greater than 0");
+            }
+            this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+            this.burstToleranceNanos = emissionIntervalNanos * burst;
+        }
+    }
+}
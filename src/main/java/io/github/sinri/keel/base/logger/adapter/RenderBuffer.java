@@ -0,0 +1,108 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 写入适配器复用的渲染与 UTF-8 编码缓冲区。
+ * <p>
+ * 字符与字节缓冲区只在容量不足时扩容，稳定状态下渲染与编码一批日志不再产生逐行的对象分配。
+ * 非线程安全，仅应在处理循环中使用。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class RenderBuffer {
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+    private StringBuilder builder = new StringBuilder(8192);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private char[] chars = new char[8192];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private ByteBuffer byteBuffer = ByteBuffer.allocate(16384);
+
+    /**
+     * @return 已清空的字符缓冲区；超大批次之后会换为新的实例，调用方不应跨批次持有
+     */
+    StringBuilder reset() {
+        builder.setLength(0);
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            // 偶发的超大批次之后换回初始大小的缓冲区，避免长期占用内存
+            builder = new StringBuilder(8192);
+            chars = new char[8192];
+            charBuffer = CharBuffer.wrap(chars);
+            byteBuffer = ByteBuffer.allocate(16384);
+        }
+        return builder;
+    }
+
+    /**
+     * 将字符缓冲区的内容写入 {@link Writer}，不产生中间字符串。
+     */
+    void writeTo(Writer writer) throws IOException {
+        int length = prepareChars();
+        writer.write(chars, 0, length);
+    }
+
+    /**
+     * 将字符缓冲区的内容编码为 UTF-8。
+     *
+     * @return 可直接读取的字节缓冲区，在下一次调用本方法前有效
+     */
+    ByteBuffer encode() {
+        prepareChars();
+        byteBuffer.clear();
+        while (true) {
+            CoderResult result = encodeInto(byteBuffer);
+            if (!result.isOverflow()) {
+                break;
+            }
+            byteBuffer = ByteBuffer.allocate(byteBuffer.capacity() * 2);
+            charBuffer.rewind();
+        }
+        byteBuffer.flip();
+        return byteBuffer;
+    }
+
+    /**
+     * 将字符缓冲区的内容编码写入目标字节缓冲区。
+     * <p>
+     * 目标空间不足时返回溢出结果，此时目标中已写入部分内容，调用方应自行回退其位置。
+     *
+     * @param target 目标字节缓冲区
+     * @return 编码结果
+     */
+    CoderResult encodeLineInto(ByteBuffer target) {
+        prepareChars();
+        return encodeInto(target);
+    }
+
+    private CoderResult encodeInto(ByteBuffer target) {
+        encoder.reset();
+        CoderResult result = encoder.encode(charBuffer, target, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(target);
+        }
+        return result;
+    }
+
+    private int prepareChars() {
+        int length = builder.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        builder.getChars(0, length, chars, 0);
+        charBuffer.clear().limit(length);
+        return length;
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.logger.factory.StdoutLoggerFactory;
+import io.vertx.core.Future;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 内置按大小与时间窗口滚动的文件日志写入适配器。
+ * <p>
+ * 日志始终写入 {@link #getFilePathForTopic(String)} 给出的当前文件；当写入一批后文件将超过 {@link #maxFileSize()}，
+ * 或进入新的 {@link #rotationInterval()} 时间窗口时，在两批写入之间将当前文件重命名为
+ * {@code <文件名>.<yyyyMMdd-HHmmss-SSS>} 并重新打开当前文件，切换过程中该文件没有写入在进行。
+ * <p>
+ * 滚动出的文件在工作线程上压缩为 {@code .gz}，不阻塞日志写入；
+ * 每个日志文件至多保留 {@link #retentionCount()} 个滚动文件，更早的被删除。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public abstract class RotatingFileLogWriterAdapter extends ChannelFileLogWriterAdapter {
+    private static final DateTimeFormatter ROLLED_SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private final Map<Path, RotationState> rotationStateMap = new ConcurrentHashMap<>();
+
+    public RotatingFileLogWriterAdapter() {
+        super();
+    }
+
+    /**
+     * 按需重载以改写按大小滚动的阈值。
+     *
+     * @return 以字节计的单个文件大小上限，默认 100MB；小于等于 0 表示不按大小滚动。
+     */
+    protected long maxFileSize() {
+        return 100L * 1024 * 1024;
+    }
+
+    /**
+     * 按需重载以按时间窗口滚动。
+     *
+     * @return 以毫秒计的时间窗口长度，按本地时区对齐，例如 3600000 表示整点滚动；小于等于 0 表示不按时间滚动（默认）。
+     */
+    protected long rotationInterval() {
+        return 0L;
+    }
+
+    /**
+     * 按需重载以改写滚动文件的保留数量。
+     *
+     * @return 每个日志文件保留的滚动文件数，默认 30；小于等于 0 表示不清理。
+     */
+    protected int retentionCount() {
+        return 30;
+    }
+
+    /**
+     * 按需重载以关闭滚动文件的压缩。
+     *
+     * @return 是否将滚动文件压缩为 gzip，默认压缩。
+     */
+    protected boolean compressRolledFiles() {
+        return true;
+    }
+
+    @Override
+    protected void beforeWrite(Path path, int byteCount) throws IOException {
+        RotationState state = rotationStateMap.get(path);
+        long now = System.currentTimeMillis();
+        if (state == null) {
+            state = new RotationState(Files.exists(path) ? Files.size(path) : 0L, windowOf(now));
+            rotationStateMap.put(path, state);
+        }
+        long maxFileSize = maxFileSize();
+        long window = windowOf(now);
+        boolean exceedsSize = maxFileSize > 0 && state.size > 0 && state.size + byteCount > maxFileSize;
+        boolean entersNewWindow = window != state.window;
+        if ((exceedsSize || entersNewWindow) && state.size > 0) {
+            closeChannel(path);
+            Path rolled = rollFile(path, now);
+            state.size = 0;
+            afterRolled(path, rolled);
+        }
+        state.window = window;
+        state.size += byteCount;
+    }
+
+    private long windowOf(long timestamp) {
+        long interval = rotationInterval();
+        if (interval <= 0) {
+            return 0;
+        }
+        long offset = ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochMilli(timestamp)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(timestamp + offset, interval);
+    }
+
+    private Path rollFile(Path path, long timestamp) throws IOException {
+        Path rolled = rolledPathOf(path, timestamp);
+        while (Files.exists(rolled) || Files.exists(rolled.resolveSibling(rolled.getFileName() + ".gz"))) {
+            // 同一毫秒内多次滚动时顺延，保证按文件名排序即按滚动顺序
+            timestamp++;
+            rolled = rolledPathOf(path, timestamp);
+        }
+        try {
+            Files.move(path, rolled, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(path, rolled);
+        }
+        return rolled;
+    }
+
+    private static Path rolledPathOf(Path path, long timestamp) {
+        String suffix = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                                     .format(ROLLED_SUFFIX_FORMATTER);
+        return path.resolveSibling(path.getFileName().toString() + "." + suffix);
+    }
+
+    /**
+     * 在工作线程上压缩滚动文件并清理超出保留数量的文件，与后续的日志写入并行进行；各次滚动的后续处理按序执行。
+     */
+    private void afterRolled(Path path, Path rolled) {
+        getKeel().executeBlocking(() -> {
+                     if (compressRolledFiles()) {
+                         compress(rolled);
+                     }
+                     cleanUp(path);
+                     return null;
+                 }, true)
+                 .onFailure(throwable -> StdoutLoggerFactory.getInstance()
+                                                            .createLogger(getClass().getName())
+                                                            .error(log -> log.message("Failed to compress or clean up rolled log file " + rolled)
+                                                                             .exception(throwable)));
+    }
+
+    private static void compress(Path rolled) throws IOException {
+        Path temp = rolled.resolveSibling(rolled.getFileName() + ".gz.tmp");
+        try (InputStream in = Files.newInputStream(rolled);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        Files.move(temp, rolled.resolveSibling(rolled.getFileName() + ".gz"), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(rolled);
+    }
+
+    private void cleanUp(Path path) throws IOException {
+        int retentionCount = retentionCount();
+        Path directory = path.toAbsolutePath().getParent();
+        if (retentionCount <= 0 || directory == null) {
+            return;
+        }
+        String prefix = path.getFileName().toString() + ".";
+        List<Path> rolledFiles;
+        try (Stream<Path> stream = Files.list(directory)) {
+            rolledFiles = new ArrayList<>(stream.filter(p -> {
+                                                    String name = p.getFileName().toString();
+                                                    return name.startsWith(prefix) && !name.endsWith(".tmp");
+                                                })
+                                                .sorted()
+                                                .toList());
+        }
+        for (int i = 0; i < rolledFiles.size() - retentionCount; i++) {
+            Files.deleteIfExists(rolledFiles.get(i));
+        }
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        return super.stopVerticle()
+                    .eventually(() -> {
+                        rotationStateMap.clear();
+                        return Future.succeededFuture();
+                    });
+    }
+
+    /**
+     * 单个日志文件的滚动状态，仅在该文件的串行写入中访问。
+     */
+    private static final class RotationState {
+        private long size;
+        private long window;
+
+        RotationState(long size, long window) {
+            this.size = size;
+            this.window = window;
+        }
+    }
+}
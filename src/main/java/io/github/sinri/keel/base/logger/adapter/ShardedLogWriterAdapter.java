@@ -0,0 +1,149 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.adapter.LogWriterAdapter;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 将日志按 topic 分片到多个 {@link QueuedLogWriterAdapter} 的日志写入适配器。
+ * <p>
+ * 单个 {@link QueuedLogWriterAdapter} 在一个上下文中处理全部 topic，吞吐受限于一个线程。
+ * 本类持有多个分片，每个分片是一个独立部署的写入 Verticle，拥有各自的队列与处理循环；
+ * 每个分片单独部署时各自获得一个新的上下文，事件循环模式下由 Vert.x 轮流分配到不同的事件循环线程上，
+ * 从而使日志处理随核数扩展。
+ * <p>
+ * topic 按其哈希值固定映射到一个分片，同一 topic 的日志始终由同一分片按序处理；不同 topic 之间不保证顺序。
+ * 各分片应写入互不相同的目标（例如按 topic 区分的文件），多个分片写入同一文件时需由分片实现自行协调。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class ShardedLogWriterAdapter implements LogWriterAdapter {
+    private final List<QueuedLogWriterAdapter> shards;
+
+    /**
+     * @param shardCount    分片数，通常取事件循环线程数
+     * @param shardSupplier 分片的构造逻辑，每次调用须返回新的实例
+     */
+    public ShardedLogWriterAdapter(int shardCount, Supplier<? extends QueuedLogWriterAdapter> shardSupplier) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be greater than 0");
+        }
+        List<QueuedLogWriterAdapter> list = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            QueuedLogWriterAdapter shard = shardSupplier.get();
+            if (list.contains(shard)) {
+                throw new IllegalArgumentException("shardSupplier must return a new instance on each call");
+            }
+            list.add(shard);
+        }
+        this.shards = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 逐个部署各分片，使每个分片运行于各自的上下文中。
+     * <p>
+     * 任一分片部署失败时，已部署的分片将被撤销。
+     *
+     * @param vertx             Vert.x 实例
+     * @param deploymentOptions 各分片的部署选项，实例数应为 1
+     * @return 全部分片部署完成的结果
+     */
+    public Future<Void> deploy(Vertx vertx, DeploymentOptions deploymentOptions) {
+        List<Future<String>> futures = new ArrayList<>(shards.size());
+        for (QueuedLogWriterAdapter shard : shards) {
+            futures.add(shard.deployMe(vertx, new DeploymentOptions(deploymentOptions)));
+        }
+        return Future.join(futures)
+                     .<Void>transform(ar -> {
+                         if (ar.succeeded()) {
+                             return Future.succeededFuture();
+                         }
+                         List<Future<Void>> rollbacks = new ArrayList<>();
+                         for (int i = 0; i < shards.size(); i++) {
+                             if (futures.get(i).succeeded()) {
+                                 rollbacks.add(shards.get(i).undeployMe());
+                             }
+                         }
+                         return Future.join(rollbacks)
+                                      .transform(v -> Future.failedFuture(ar.cause()));
+                     });
+    }
+
+    /**
+     * 撤销各分片；各分片在停止前处理完各自队列中的日志。
+     *
+     * @return 全部分片撤销完成的结果
+     */
+    public Future<Void> undeploy() {
+        List<Future<Void>> futures = new ArrayList<>(shards.size());
+        for (QueuedLogWriterAdapter shard : shards) {
+            futures.add(shard.undeployMe());
+        }
+        return Future.join(futures).mapEmpty();
+    }
+
+    @Override
+    public void accept(String topic, SpecificLog<?> log) {
+        shards.get(shardIndexOf(topic)).accept(topic, log);
+    }
+
+    /**
+     * @param topic 日志 topic
+     * @return 处理该 topic 的分片序号
+     */
+    public int shardIndexOf(String topic) {
+        int hash = topic.hashCode();
+        // 混合高位，避免哈希值低位相近的 topic 集中到少数分片
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards.size());
+    }
+
+    /**
+     * @return 分片数
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @return 全部分片，按序号排列
+     */
+    public List<QueuedLogWriterAdapter> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return 所有分片因队列溢出而丢弃的日志记录总数
+     */
+    public long getDroppedCount() {
+        long sum = 0;
+        for (QueuedLogWriterAdapter shard : shards) {
+            sum += shard.getDroppedCount();
+        }
+        return sum;
+    }
+
+    /**
+     * 汇总各分片的处理管道统计指标；各 topic 只属于一个分片，指标之间不会重复。
+     *
+     * @return 指标记录
+     * @see QueuedLogWriterAdapter#getPipelineMetrics()
+     */
+    public List<MetricRecord> getPipelineMetrics() {
+        List<MetricRecord> records = new ArrayList<>();
+        for (QueuedLogWriterAdapter shard : shards) {
+            records.addAll(shard.getPipelineMetrics());
+        }
+        return records;
+    }
+}
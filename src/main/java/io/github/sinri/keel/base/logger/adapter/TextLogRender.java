@@ -0,0 +1,182 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.logger.api.LoggingStackSpecification;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 可直接渲染到缓冲区的纯文本渲染器，文件写入适配器可通过其 {@code textRender()} 选用。
+ * <p>
+ * 每条日志的首行形如：
+ * <pre>{@code
+ * 2024-01-01 12:00:00.123 [INFO] topic [a, b] message {"k":1}
+ * }</pre>
+ * 依次为本地时区的时间、级别、topic、分类、消息与单行 JSON 形式的上下文，缺失的部分被省略；
+ * 异常以 {@code at} 与 {@code Caused by:} 开头的行接在首行之后。
+ * <p>
+ * 各部分被逐段追加到调用方提供的缓冲区中：时间的秒级前缀按线程缓存，每秒只格式化一次；
+ * 上下文经 {@link JsonLinesLogRender} 的生成器直接写出；堆栈项逐字段追加。稳定状态下渲染一条日志不产生中间字符串。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class TextLogRender implements LogTextBufferRender {
+    private static final TextLogRender instance = new TextLogRender();
+    /**
+     * 异常链的最大展开深度。
+     */
+    private static final int MAX_CAUSE_DEPTH = 8;
+
+    private final ThreadLocal<SecondPrefixCache> prefixCacheThreadLocal = ThreadLocal.withInitial(SecondPrefixCache::new);
+
+    private TextLogRender() {
+    }
+
+    public static TextLogRender getInstance() {
+        return instance;
+    }
+
+    @Override
+    public String render(String topic, SpecificLog<?> log) {
+        StringBuilder buffer = new StringBuilder(256);
+        renderInto(topic, log, buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void renderInto(String topic, SpecificLog<?> log, StringBuilder buffer) {
+        prefixCacheThreadLocal.get().appendTimestamp(log.timestamp(), buffer);
+        buffer.append(" [").append(log.level()).append("] ").append(topic);
+
+        List<String> classification = log.classification();
+        if (classification != null && !classification.isEmpty()) {
+            buffer.append(" [");
+            for (int i = 0; i < classification.size(); i++) {
+                if (i > 0) {
+                    buffer.append(", ");
+                }
+                buffer.append(classification.get(i));
+            }
+            buffer.append(']');
+        }
+
+        String message = log.message();
+        if (message != null) {
+            buffer.append(' ').append(message);
+        }
+
+        Map<String, @Nullable Object> context = log.context();
+        if (context != null && !context.isEmpty()) {
+            buffer.append(' ');
+            JsonLinesLogRender.getInstance().renderValueInto(context, buffer);
+        }
+
+        Throwable exception = log.exception();
+        if (exception != null) {
+            appendThrowable(exception, buffer);
+        }
+    }
+
+    /**
+     * 追加异常及其原因链，过滤可忽略包中的堆栈项。
+     */
+    private static void appendThrowable(Throwable throwable, StringBuilder buffer) {
+        Set<String> ignorablePackages = LoggingStackSpecification.IgnorableCallStackPackageSet;
+        Throwable current = throwable;
+        int depth = 0;
+        while (true) {
+            buffer.append('\n');
+            if (depth > 0) {
+                buffer.append("Caused by: ");
+            }
+            buffer.append(current.getClass().getName());
+            String message = current.getMessage();
+            if (message != null) {
+                buffer.append(": ").append(message);
+            }
+            for (StackTraceElement element : current.getStackTrace()) {
+                if (!JsonLinesLogRender.isIgnorable(element.getClassName(), ignorablePackages)) {
+                    appendStackTraceElement(element, buffer);
+                }
+            }
+            Throwable cause = current.getCause();
+            depth++;
+            if (cause == null || cause == current || depth >= MAX_CAUSE_DEPTH) {
+                break;
+            }
+            current = cause;
+        }
+    }
+
+    /**
+     * 以 {@link StackTraceElement#toString()} 的常见形式追加堆栈项，省略模块信息。
+     */
+    private static void appendStackTraceElement(StackTraceElement element, StringBuilder buffer) {
+        buffer.append("\n\tat ")
+              .append(element.getClassName())
+              .append('.')
+              .append(element.getMethodName())
+              .append('(');
+        String fileName = element.getFileName();
+        if (element.isNativeMethod()) {
+            buffer.append("Native Method");
+        } else if (fileName == null) {
+            buffer.append("Unknown Source");
+        } else {
+            buffer.append(fileName);
+            int lineNumber = element.getLineNumber();
+            if (lineNumber >= 0) {
+                buffer.append(':').append(lineNumber);
+            }
+        }
+        buffer.append(')');
+    }
+
+    /**
+     * 单个线程缓存的秒级时间前缀 {@code yyyy-MM-dd HH:mm:ss}。
+     */
+    private static final class SecondPrefixCache {
+        private final char[] prefix = new char[19];
+        private long cachedSecond = Long.MIN_VALUE;
+
+        private void appendTimestamp(long timestamp, StringBuilder buffer) {
+            long second = Math.floorDiv(timestamp, 1000L);
+            if (second != cachedSecond) {
+                LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+                writeDigits(dateTime.getYear(), 4, 0);
+                prefix[4] = '-';
+                writeDigits(dateTime.getMonthValue(), 2, 5);
+                prefix[7] = '-';
+                writeDigits(dateTime.getDayOfMonth(), 2, 8);
+                prefix[10] = ' ';
+                writeDigits(dateTime.getHour(), 2, 11);
+                prefix[13] = ':';
+                writeDigits(dateTime.getMinute(), 2, 14);
+                prefix[16] = ':';
+                writeDigits(dateTime.getSecond(), 2, 17);
+                cachedSecond = second;
+            }
+            int millis = (int) Math.floorMod(timestamp, 1000L);
+            buffer.append(prefix)
+                  .append('.')
+                  .append((char) ('0' + millis / 100))
+                  .append((char) ('0' + millis / 10 % 10))
+                  .append((char) ('0' + millis % 10));
+        }
+
+        private void writeDigits(int value, int width, int offset) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                prefix[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
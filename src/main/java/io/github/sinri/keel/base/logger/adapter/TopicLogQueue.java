@@ -0,0 +1,165 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.internal.queue.BoundedRingBuffer;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link QueuedLogWriterAdapter} 中单个 topic 的日志队列。
+ * <p>
+ * 默认为无界的链表队列；指定容量时使用预分配的有界环形队列，并在已满时按照 {@link QueueOverflowPolicy} 处理。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class TopicLogQueue {
+    /**
+     * 丢弃最早记录以腾出空间时的最大尝试次数，避免在激烈竞争下无限自旋。
+     */
+    private static final int MAX_EVICT_ATTEMPTS = 8;
+    private final @Nullable BoundedRingBuffer<SpecificLog<?>> ringBuffer;
+    private final @Nullable Queue<SpecificLog<?>> unboundedQueue;
+    private final QueueOverflowPolicy overflowPolicy;
+    private final long overflowBlockNanos;
+    private final int overflowSampleRate;
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder dequeuedCount = new LongAdder();
+    private final AtomicLong overflowCounter = new AtomicLong(0);
+
+    private TopicLogQueue(
+            @Nullable BoundedRingBuffer<SpecificLog<?>> ringBuffer,
+            QueueOverflowPolicy overflowPolicy,
+            long overflowBlockNanos,
+            int overflowSampleRate
+    ) {
+        this.ringBuffer = ringBuffer;
+        this.unboundedQueue = ringBuffer == null ? new ConcurrentLinkedQueue<>() : null;
+        this.overflowPolicy = overflowPolicy;
+        this.overflowBlockNanos = overflowBlockNanos;
+        this.overflowSampleRate = Math.max(1, overflowSampleRate);
+    }
+
+    static TopicLogQueue unbounded() {
+        return new TopicLogQueue(null, QueueOverflowPolicy.DROP_NEWEST, 0, 1);
+    }
+
+    static TopicLogQueue bounded(
+            int capacity,
+            QueueOverflowPolicy overflowPolicy,
+            long overflowBlockNanos,
+            int overflowSampleRate
+    ) {
+        return new TopicLogQueue(new BoundedRingBuffer<>(capacity), overflowPolicy, overflowBlockNanos, overflowSampleRate);
+    }
+
+    /**
+     * 将日志记录入队。
+     *
+     * @param log 日志记录
+     * @return 记录是否入队；被丢弃时返回 false
+     */
+    boolean offer(SpecificLog<?> log) {
+        boolean accepted = offerOrOverflow(log);
+        if (accepted) {
+            enqueuedCount.increment();
+        }
+        return accepted;
+    }
+
+    private boolean offerOrOverflow(SpecificLog<?> log) {
+        if (unboundedQueue != null) {
+            unboundedQueue.add(log);
+            return true;
+        }
+        BoundedRingBuffer<SpecificLog<?>> ring = ringBuffer;
+        if (ring == null || ring.offer(log)) {
+            return true;
+        }
+        return switch (overflowPolicy) {
+            case DROP_NEWEST -> drop();
+            case DROP_OLDEST -> evictAndOffer(ring, log);
+            case BLOCK_BRIEFLY -> {
+                long until = System.nanoTime() + overflowBlockNanos;
+                while (System.nanoTime() < until) {
+                    LockSupport.parkNanos(10_000L);
+                    if (ring.offer(log)) {
+                        yield true;
+                    }
+                }
+                yield drop();
+            }
+            case SAMPLE -> {
+                if (overflowCounter.incrementAndGet() % overflowSampleRate == 0) {
+                    yield evictAndOffer(ring, log);
+                }
+                yield drop();
+            }
+        };
+    }
+
+    private boolean evictAndOffer(BoundedRingBuffer<SpecificLog<?>> ring, SpecificLog<?> log) {
+        for (int i = 0; i < MAX_EVICT_ATTEMPTS; i++) {
+            if (ring.poll() != null) {
+                droppedCount.increment();
+                dequeuedCount.increment();
+            }
+            if (ring.offer(log)) {
+                return true;
+            }
+        }
+        return drop();
+    }
+
+    private boolean drop() {
+        droppedCount.increment();
+        return false;
+    }
+
+    @Nullable SpecificLog<?> poll() {
+        SpecificLog<?> log;
+        if (unboundedQueue != null) {
+            log = unboundedQueue.poll();
+        } else {
+            log = ringBuffer == null ? null : ringBuffer.poll();
+        }
+        if (log != null) {
+            dequeuedCount.increment();
+        }
+        return log;
+    }
+
+    boolean isEmpty() {
+        if (unboundedQueue != null) {
+            return unboundedQueue.isEmpty();
+        }
+        return ringBuffer == null || ringBuffer.isEmpty();
+    }
+
+    long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return 累计入队的记录数
+     */
+    long enqueuedCount() {
+        return enqueuedCount.sum();
+    }
+
+    /**
+     * 由入队与出队计数得出的队列深度，无需遍历队列；并发修改时为近似值。
+     *
+     * @return 队列中的记录数
+     */
+    long depth() {
+        return Math.max(0, enqueuedCount.sum() - dequeuedCount.sum());
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link QueuedLogWriterAdapter} 中单个 topic 的处理统计：批次大小分布、批次处理耗时分布与失败次数，
+ * 以及上一次发布时的计数基线，用于计算入队与处理速率。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+final class TopicPipelineMetrics {
+    static final double[] BATCH_SIZE_BOUNDS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048};
+    static final double[] LATENCY_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final BucketHistogram batchSizes = new BucketHistogram(BATCH_SIZE_BOUNDS);
+    private final BucketHistogram latencies = new BucketHistogram(LATENCY_BOUNDS_MILLIS);
+    private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+    private final LongAdder drainedCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * 速率基线，仅在发布时更新。
+     */
+    private volatile long baselineTime = System.currentTimeMillis();
+    private volatile long baselineEnqueued = 0;
+    private volatile long baselineDrained = 0;
+
+    void recordBatch(int size, long nanos, boolean succeeded) {
+        batchSizes.record(size);
+        latencies.record(nanos / 1_000_000.0);
+        latencyRecorder.record(nanos);
+        drainedCount.add(size);
+        if (!succeeded) {
+            failureCount.increment();
+        }
+    }
+
+    BucketHistogram batchSizes() {
+        return batchSizes;
+    }
+
+    BucketHistogram latencies() {
+        return latencies;
+    }
+
+    double maxLatencyMillis() {
+        return latencyRecorder.maxMillis();
+    }
+
+    long drainedCount() {
+        return drainedCount.sum();
+    }
+
+    long failureCount() {
+        return failureCount.sum();
+    }
+
+    long baselineTime() {
+        return baselineTime;
+    }
+
+    long baselineEnqueued() {
+        return baselineEnqueued;
+    }
+
+    long baselineDrained() {
+        return baselineDrained;
+    }
+
+    void resetBaseline(long time, long enqueued, long drained) {
+        this.baselineTime = time;
+        this.baselineEnqueued = enqueued;
+        this.baselineDrained = drained;
+    }
+}
@@ -0,0 +1,262 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 将 {@link BinaryLogEncoder} 产生的二进制日志文件解码为 JSON 行，供人工查阅。
+ * <p>
+ * 每条记录解码为一个 JSON 对象，包含 {@code timestamp}、{@code topic}、{@code level}、{@code classification}、
+ * {@code message}、{@code context} 与 {@code exception} 字段。遇到零字节（内存映射分段未截断的末尾）、
+ * 不完整的末尾块或不完整的末尾块头时视为文件结束；块内的长度越界时以 {@link IOException} 报告数据格式错误。
+ * <p>
+ * 亦可作为命令行工具使用：{@code java io.github.sinri.keel.base.logger.codec.BinaryLogDecoder <文件>...}，
+ * 将各文件解码后输出到标准输出。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class BinaryLogDecoder {
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        for (String arg : args) {
+            try (InputStream in = Files.newInputStream(Path.of(arg))) {
+                decodeToJsonLines(in, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * 将二进制日志流解码为 JSON 行写出。
+     *
+     * @param in     二进制日志输入流
+     * @param writer JSON 行输出
+     * @throws IOException 读写失败或数据格式错误
+     */
+    public static void decodeToJsonLines(InputStream in, Writer writer) throws IOException {
+        IOException[] failure = new IOException[1];
+        decode(in, record -> {
+            if (failure[0] != null) return;
+            try {
+                writer.write(record.encode());
+                writer.write('\n');
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    /**
+     * 解码二进制日志流。
+     *
+     * @param in       二进制日志输入流
+     * @param consumer 每条解码出的记录
+     * @throws IOException 读取失败或数据格式错误
+     */
+    public static void decode(InputStream in, Consumer<JsonObject> consumer) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(in, 64 * 1024);
+        while (true) {
+            int magic0 = input.read();
+            if (magic0 <= 0) {
+                return;
+            }
+            int magic1 = input.read();
+            int version = input.read();
+            if (magic1 < 0 || version < 0) {
+                // 不完整的末尾块头
+                return;
+            }
+            if (magic0 != BinaryLogFormat.MAGIC_0 || magic1 != BinaryLogFormat.MAGIC_1) {
+                throw new IOException("Not a binary log block");
+            }
+            if (version != BinaryLogFormat.VERSION) {
+                throw new IOException("Unsupported binary log version: " + version);
+            }
+            long length;
+            try {
+                length = readVarLong(input);
+            } catch (EOFException e) {
+                // 载荷长度不完整的末尾块头
+                return;
+            }
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Binary log block too large: " + length);
+            }
+            byte[] payload = input.readNBytes((int) length);
+            if (payload.length < length) {
+                // 不完整的末尾块，通常由进程异常终止产生
+                return;
+            }
+            decodeBlock(new Source(payload), consumer);
+        }
+    }
+
+    private static void decodeBlock(Source source, Consumer<JsonObject> consumer) throws IOException {
+        long dictionarySize = source.readVarLong();
+        if (dictionarySize < 0 || dictionarySize > source.remaining()) {
+            throw new IOException("Dictionary size out of range: " + dictionarySize);
+        }
+        List<String> dictionary = new ArrayList<>((int) dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary.add(source.readString());
+        }
+        long baseTimestamp = source.readVarLong();
+        long recordCount = source.readVarLong();
+        for (long i = 0; i < recordCount; i++) {
+            long recordLength = source.readVarLong();
+            if (recordLength < 0 || recordLength > source.remaining()) {
+                throw new IOException("Record length out of range: " + recordLength);
+            }
+            int recordEnd = source.position + (int) recordLength;
+            consumer.accept(decodeRecord(source, dictionary, baseTimestamp));
+            // 跳过未来版本可能追加的字段
+            source.position = recordEnd;
+        }
+    }
+
+    private static JsonObject decodeRecord(Source source, List<String> dictionary, long baseTimestamp) throws IOException {
+        JsonObject record = new JsonObject();
+        record.put("timestamp", baseTimestamp + source.readZigZagLong());
+        record.put("topic", source.readDictionaryEntry(dictionary));
+        record.put("level", source.readDictionaryEntry(dictionary));
+
+        int classificationSize = (int) source.readVarLong();
+        JsonArray classification = new JsonArray();
+        for (int i = 0; i < classificationSize; i++) {
+            classification.add(source.readDictionaryEntry(dictionary));
+        }
+        record.put("classification", classification);
+
+        int flags = source.readByte();
+        record.put("message", (flags & BinaryLogFormat.FLAG_HAS_MESSAGE) != 0 ? source.readString() : null);
+
+        int contextSize = (int) source.readVarLong();
+        JsonObject context = new JsonObject();
+        for (int i = 0; i < contextSize; i++) {
+            String key = source.readDictionaryEntry(dictionary);
+            context.put(key, source.readValue());
+        }
+        record.put("context", context);
+
+        if ((flags & BinaryLogFormat.FLAG_HAS_EXCEPTION) != 0) {
+            record.put("exception", new JsonObject()
+                    .put("class", source.readDictionaryEntry(dictionary))
+                    .put("message", source.readValue())
+                    .put("stack", source.readString()));
+        }
+        return record;
+    }
+
+    private static long readVarLong(InputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * 块载荷的读取游标。
+     */
+    private static final class Source {
+        private final byte[] bytes;
+        private int position = 0;
+
+        Source(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int remaining() {
+            return bytes.length - position;
+        }
+
+        int readByte() throws IOException {
+            if (position >= bytes.length) {
+                throw new EOFException();
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        long readZigZagLong() throws IOException {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        double readDouble() throws IOException {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (long) readByte() << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() throws IOException {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > bytes.length) {
+                throw new EOFException();
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String readDictionaryEntry(List<String> dictionary) throws IOException {
+            long id = readVarLong();
+            if (id >= dictionary.size()) {
+                throw new IOException("Dictionary id out of range: " + id);
+            }
+            return dictionary.get((int) id);
+        }
+
+        @Nullable Object readValue() throws IOException {
+            int type = readByte();
+            return switch (type) {
+                case BinaryLogFormat.VALUE_NULL -> null;
+                case BinaryLogFormat.VALUE_FALSE -> false;
+                case BinaryLogFormat.VALUE_TRUE -> true;
+                case BinaryLogFormat.VALUE_LONG -> readZigZagLong();
+                case BinaryLogFormat.VALUE_DOUBLE -> readDouble();
+                case BinaryLogFormat.VALUE_STRING -> readString();
+                case BinaryLogFormat.VALUE_JSON -> Json.decodeValue(readString());
+                default -> throw new IOException("Unknown value type: " + type);
+            };
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.json.Json;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 将一批日志记录编码为一个自包含的二进制块，格式见 {@code BinaryLogFormat}，可由 {@link BinaryLogDecoder} 解码。
+ * <p>
+ * 记录以长度为前缀，时间戳以相对块内基准时间戳的变长整数表示，topic、level、分类、上下文键与异常类名以块内字典编号表示，
+ * 上下文值保留布尔、整数、浮点数与字符串类型，其余类型以 JSON 文本保存。
+ * <p>
+ * 编码器复用内部缓冲区，非线程安全；每个写入适配器应持有独立的实例。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class BinaryLogEncoder {
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryEntries = new ArrayList<>();
+    private final ByteSink recordSink = new ByteSink(256);
+    private final ByteSink recordsSink = new ByteSink(16384);
+    private final ByteSink blockSink = new ByteSink(16384);
+
+    public BinaryLogEncoder() {
+    }
+
+    /**
+     * 编码一批日志记录。
+     *
+     * @param topic 日志 topic
+     * @param batch 日志记录
+     * @return 可直接读取的字节缓冲区，包装编码器内部的数组，在下一次调用本方法前有效
+     */
+    public ByteBuffer encodeBlock(String topic, List<SpecificLog<?>> batch) {
+        dictionary.clear();
+        dictionaryEntries.clear();
+        recordsSink.reset();
+
+        long baseTimestamp = batch.isEmpty() ? 0L : batch.get(0).timestamp();
+        int topicId = idOf(topic);
+        for (SpecificLog<?> log : batch) {
+            encodeRecord(topicId, baseTimestamp, log);
+            recordsSink.writeVarLong(recordSink.size());
+            recordsSink.writeBytes(recordSink.array(), 0, recordSink.size());
+        }
+
+        ByteSink payload = recordSink;
+        payload.reset();
+        payload.writeVarLong(dictionaryEntries.size());
+        for (String entry : dictionaryEntries) {
+            payload.writeString(entry);
+        }
+        payload.writeVarLong(baseTimestamp);
+        payload.writeVarLong(batch.size());
+
+        blockSink.reset();
+        blockSink.writeByte(BinaryLogFormat.MAGIC_0);
+        blockSink.writeByte(BinaryLogFormat.MAGIC_1);
+        blockSink.writeByte(BinaryLogFormat.VERSION);
+        blockSink.writeVarLong((long) payload.size() + recordsSink.size());
+        blockSink.writeBytes(payload.array(), 0, payload.size());
+        blockSink.writeBytes(recordsSink.array(), 0, recordsSink.size());
+        return ByteBuffer.wrap(blockSink.array(), 0, blockSink.size());
+    }
+
+    private void encodeRecord(int topicId, long baseTimestamp, SpecificLog<?> log) {
+        ByteSink sink = recordSink;
+        sink.reset();
+        sink.writeZigZagLong(log.timestamp() - baseTimestamp);
+        sink.writeVarLong(topicId);
+        sink.writeVarLong(idOf(String.valueOf(log.level())));
+
+        List<String> classification = log.classification();
+        sink.writeVarLong(classification.size());
+        for (String item : classification) {
+            sink.writeVarLong(idOf(item));
+        }
+
+        String message = log.message();
+        Throwable exception = log.exception();
+        int flags = 0;
+        if (message != null) flags |= BinaryLogFormat.FLAG_HAS_MESSAGE;
+        if (exception != null) flags |= BinaryLogFormat.FLAG_HAS_EXCEPTION;
+        sink.writeByte(flags);
+        if (message != null) {
+            sink.writeString(message);
+        }
+
+        Map<String, @Nullable Object> context = log.context();
+        sink.writeVarLong(context.size());
+        for (Map.Entry<String, @Nullable Object> entry : context.entrySet()) {
+            sink.writeVarLong(idOf(entry.getKey()));
+            writeValue(sink, entry.getValue());
+        }
+
+        if (exception != null) {
+            sink.writeVarLong(idOf(exception.getClass().getName()));
+            writeValue(sink, exception.getMessage());
+            StringWriter stackTrace = new StringWriter();
+            exception.printStackTrace(new PrintWriter(stackTrace));
+            sink.writeString(stackTrace.toString());
+        }
+    }
+
+    private static void writeValue(ByteSink sink, @Nullable Object value) {
+        if (value == null) {
+            sink.writeByte(BinaryLogFormat.VALUE_NULL);
+        } else if (value instanceof Boolean b) {
+            sink.writeByte(b ? BinaryLogFormat.VALUE_TRUE : BinaryLogFormat.VALUE_FALSE);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            sink.writeByte(BinaryLogFormat.VALUE_LONG);
+            sink.writeZigZagLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            sink.writeByte(BinaryLogFormat.VALUE_DOUBLE);
+            sink.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof CharSequence) {
+            sink.writeByte(BinaryLogFormat.VALUE_STRING);
+            sink.writeString(value.toString());
+        } else {
+            sink.writeByte(BinaryLogFormat.VALUE_JSON);
+            sink.writeString(Json.encode(value));
+        }
+    }
+
+    private int idOf(String entry) {
+        Integer id = dictionary.get(entry);
+        if (id == null) {
+            id = dictionaryEntries.size();
+            dictionary.put(entry, id);
+            dictionaryEntries.add(entry);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.sinri.keel.base.logger.codec;
+
+/**
+ * 二进制日志格式的常量定义。
+ * <p>
+ * 文件由若干自包含的块顺序组成，每个块对应写入适配器处理的一批日志：
+ * <pre>
+ * 块     := MAGIC(2) VERSION(1) varint(载荷长度) 载荷
+ * 载荷   := varint(字典大小) 字符串* varint(基准时间戳) varint(记录数) (varint(记录长度) 记录)*
+ * 记录   := zigzag(时间戳 - 基准时间戳) varint(topic) varint(level)
+ *           varint(分类数) varint(分类)* 标志(1) [字符串(消息)]
+ *           varint(上下文数) (varint(键) 类型化值)* [varint(异常类名) 可空字符串(异常消息) 字符串(调用栈)]
+ * 字符串 := varint(UTF-8 字节数) 字节*
+ * </pre>
+ * topic、level、分类、上下文键与异常类名以块内字典编号表示；各块的字典相互独立，
+ * 因此文件滚动或截断后，任一完整的块都可以单独解码。
+ *
+ * @since 5.0.3
+ */
+final class BinaryLogFormat {
+    static final byte MAGIC_0 = 'K';
+    static final byte MAGIC_1 = 'L';
+    static final byte VERSION = 1;
+
+    static final int FLAG_HAS_MESSAGE = 1;
+    static final int FLAG_HAS_EXCEPTION = 1 << 1;
+
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_FALSE = 1;
+    static final byte VALUE_TRUE = 2;
+    static final byte VALUE_LONG = 3;
+    static final byte VALUE_DOUBLE = 4;
+    static final byte VALUE_STRING = 5;
+    static final byte VALUE_JSON = 6;
+
+    private BinaryLogFormat() {
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import io.github.sinri.keel.base.logger.metric.BasicMetricRecord;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 定量指标记录的溢出编解码器，解码结果为 {@link BasicMetricRecord}。
+ * <p>
+ * 依次写出指标名称、时间戳、数值与各标签的键值对。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public final class MetricRecordSpillCodec implements SpillCodec<MetricRecord> {
+    private static final MetricRecordSpillCodec instance = new MetricRecordSpillCodec();
+
+    private MetricRecordSpillCodec() {
+    }
+
+    public static MetricRecordSpillCodec getInstance() {
+        return instance;
+    }
+
+    @Override
+    public byte[] encode(MetricRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(record.metricName());
+            out.writeLong(record.timestamp());
+            out.writeDouble(record.value());
+            Map<String, String> labels = record.labels();
+            out.writeInt(labels.size());
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                out.writeUTF(label.getKey());
+                out.writeUTF(label.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public MetricRecord decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String metricName = in.readUTF();
+            long timestamp = in.readLong();
+            double value = in.readDouble();
+            int labelCount = in.readInt();
+            Map<String, String> labels = new HashMap<>();
+            for (int i = 0; i < labelCount; i++) {
+                labels.put(in.readUTF(), in.readUTF());
+            }
+            return new BasicMetricRecord(metricName, timestamp, value, labels);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 记录溢出到本地磁盘时所用的编解码器。
+ * <p>
+ * 编码结果须能由 {@link #decode(byte[])} 还原为等价的记录；完整性由溢出层的校验值保证，编解码器无需自行校验。
+ * 编码或解码失败时抛出运行时异常，该条记录将被跳过并计数。
+ *
+ * @param <T> 记录类型
+ * @since 5.0.3
+ */
+@NullMarked
+public interface SpillCodec<T> {
+    /**
+     * @param record 记录
+     * @return 编码后的字节
+     */
+    byte[] encode(T record);
+
+    /**
+     * @param bytes 由 {@link #encode(Object)} 生成的字节
+     * @return 还原的记录
+     */
+    T decode(byte[] bytes);
+}
@@ -0,0 +1,4 @@
+/**
+ * 本包提供日志记录的紧凑二进制编码及其解码工具，以及溢出到磁盘的记录所用的编解码接口。
+ */
+package io.github.sinri.keel.base.logger.codec;
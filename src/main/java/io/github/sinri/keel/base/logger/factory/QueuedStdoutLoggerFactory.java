@@ -0,0 +1,19 @@
+package io.github.sinri.keel.base.logger.factory;
+
+import io.github.sinri.keel.base.logger.adapter.QueuedStdoutLogWriterAdapter;
+import io.github.sinri.keel.logger.api.factory.BaseLoggerFactory;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 面向标准输出、经由队列异步写出的日志记录器工厂。
+ * <p>
+ * 所用的 {@link QueuedStdoutLogWriterAdapter} 需另行部署；需要同步写出时使用 {@link StdoutLoggerFactory}。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class QueuedStdoutLoggerFactory extends BaseLoggerFactory {
+    public QueuedStdoutLoggerFactory(QueuedStdoutLogWriterAdapter adapter) {
+        super(adapter);
+    }
+}
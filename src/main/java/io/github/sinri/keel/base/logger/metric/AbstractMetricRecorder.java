@@ -1,28 +1,67 @@
 package io.github.sinri.keel.base.logger.metric;
 
+import io.github.sinri.keel.base.internal.queue.AdaptiveBatchSizer;
+import io.github.sinri.keel.base.internal.queue.DrainSignal;
+import io.github.sinri.keel.base.internal.queue.QueueDrainControl;
+import io.github.sinri.keel.base.logger.codec.MetricRecordSpillCodec;
+import io.github.sinri.keel.base.logger.codec.SpillCodec;
 import io.github.sinri.keel.base.verticles.KeelVerticleBase;
 import io.github.sinri.keel.logger.api.metric.MetricRecord;
 import io.github.sinri.keel.logger.api.metric.MetricRecorder;
 import io.vertx.core.Future;
-import io.vertx.core.Promise;
+import io.vertx.core.json.JsonObject;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 一个基本的定量指标记录器实现，可供继承重载以完善。
+ * <p>
+ * 队列排空后处理循环即停驻，由 {@link #recordMetric(MetricRecord)} 唤醒；{@link #idleWaitTime()} 仅作为兜底的轮询间隔。
+ * <p>
+ * 重载 {@link #adaptiveBatchSize()} 可启用自适应批次大小，规则与 {@code QueuedLogWriterAdapter} 相同；
+ * 选定的批次大小发生变化时，以指标 {@code metric_recorder_batch_size} 记录；该指标经本记录器自身的队列处理，
+ * 但不计入调整批次大小时参考的积压，仅含该指标的批次也不触发调整，以免自身的报告被当作负载而反馈到批次大小上。
+ * <p>
+ * 重载 {@link #shutdownTimeout()} 可为停止设定时限，超时后剩余记录被转存到 {@link #shutdownSpillPath()} 指定的文件或被丢弃并计数。
+ * <p>
+ * 重载 {@link #overflowDirectory()} 可启用磁盘溢出层：内存中积压的记录超过 {@link #overflowThreshold()} 时被写入本地仅追加的分段文件，
+ * 下游恢复后按序回放。
  *
  * @since 5.0.0
  */
 @NullMarked
 public abstract class AbstractMetricRecorder extends KeelVerticleBase implements MetricRecorder {
-    private final AtomicBoolean endSwitch = new AtomicBoolean(false);
-    private final Promise<Void> endedPromise = Promise.promise();
     private final Queue<MetricRecord> metricRecordQueue = new ConcurrentLinkedQueue<>();
+    private final DrainSignal drainSignal = new DrainSignal();
+    /**
+     * 队列中的记录数，避免遍历链表队列计数。
+     */
+    private final LongAdder queuedCount = new LongAdder();
+    /**
+     * 队列中由本记录器自身报告的批次大小指标数，调整批次大小时从积压中扣除。
+     */
+    private final LongAdder selfReportedCount = new LongAdder();
+    /**
+     * 停止时限与磁盘溢出层。
+     */
+    private final QueueDrainControl<MetricRecord> drainControl = new QueueDrainControl<>(
+            "metric records",
+            getClass().getName(),
+            drainSignal,
+            this::pollAllMetricRecords,
+            this::pollAllMetricRecords,
+            AbstractMetricRecorder::renderSpillLine
+    );
+    private @Nullable AdaptiveBatchSizer batchSizer;
 
     public AbstractMetricRecorder() {
         super();
@@ -30,6 +69,18 @@ public abstract class AbstractMetricRecorder extends KeelVerticleBase implements
 
     public void recordMetric(MetricRecord metricRecord) {
         this.metricRecordQueue.add(metricRecord);
+        queuedCount.increment();
+        drainSignal.signal();
+    }
+
+    /**
+     * 按需重载以改写队列空闲时的兜底轮询间隔；新的指标记录到达时处理循环会被立即唤醒，无需等待该间隔。
+     *
+     * @return 以毫秒计的兜底轮询间隔，默认 1000 毫秒。
+     * @since 5.0.3
+     */
+    protected long idleWaitTime() {
+        return 1000L;
     }
 
     /**
@@ -41,6 +92,175 @@ public abstract class AbstractMetricRecorder extends KeelVerticleBase implements
         return 1000;
     }
 
+    /**
+     * 按需重载以启用自适应批次大小，此时 {@link #bufferSize()} 仅作为初始批次大小。
+     *
+     * @return 是否启用自适应批次大小，默认不启用。
+     * @since 5.0.3
+     */
+    protected boolean adaptiveBatchSize() {
+        return false;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的下界。
+     *
+     * @return 批次大小下界，默认 100。
+     * @since 5.0.3
+     */
+    protected int minBatchSize() {
+        return 100;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的上界。
+     *
+     * @return 批次大小上界，默认 10000。
+     * @since 5.0.3
+     */
+    protected int maxBatchSize() {
+        return 10_000;
+    }
+
+    /**
+     * 按需重载以改写自适应批次大小的目标处理耗时；一批处理超过该耗时时批次将缩小。
+     *
+     * @return 以毫秒计的单批处理耗时目标，默认 100 毫秒。
+     * @since 5.0.3
+     */
+    protected long targetDrainLatency() {
+        return 100L;
+    }
+
+    /**
+     * 按需重载以为停止设定时限。
+     * <p>
+     * 时限内处理循环以 {@link #maxBatchSize()} 为批次全速处理剩余记录；超时后剩余记录转存到 {@link #shutdownSpillPath()}，
+     * 或在未指定转存文件时丢弃并计数，正在处理的批次不再等待。
+     *
+     * @return 以毫秒计的停止时限；小于等于 0 表示一直等待到全部记录处理完毕（默认）。
+     * @since 5.0.3
+     */
+    protected long shutdownTimeout() {
+        return 0L;
+    }
+
+    /**
+     * 按需重载以指定停止超时后剩余记录的转存文件，记录以每行一个 JSON 对象的格式追加写入。
+     *
+     * @return 转存文件路径；返回 null 表示丢弃剩余记录（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable Path shutdownSpillPath() {
+        return null;
+    }
+
+    /**
+     * 按需重载以启用磁盘溢出层。
+     * <p>
+     * 目录由本记录器独占；其中未回放完的记录在下次启动时继续回放，崩溃前已读出但未确认的记录可能被再次处理。
+     *
+     * @return 溢出分段文件所在目录；返回 null 表示不启用（默认）。
+     * @since 5.0.3
+     */
+    protected @Nullable Path overflowDirectory() {
+        return null;
+    }
+
+    /**
+     * 按需重载以改写溢出到磁盘的指标记录的编解码器。
+     *
+     * @return 编解码器，默认为 {@link MetricRecordSpillCodec}。
+     * @since 5.0.3
+     */
+    protected SpillCodec<MetricRecord> overflowCodec() {
+        return MetricRecordSpillCodec.getInstance();
+    }
+
+    /**
+     * 按需重载以改写触发溢出的内存积压阈值。
+     *
+     * @return 内存积压记录数，超过时积压记录全部写入磁盘，默认 100000。
+     * @since 5.0.3
+     */
+    protected long overflowThreshold() {
+        return 100_000L;
+    }
+
+    /**
+     * 按需重载以改写溢出分段文件的大小。
+     *
+     * @return 以字节计的分段大小，默认 64MB。
+     * @since 5.0.3
+     */
+    protected long overflowSegmentSize() {
+        return 64L * 1024 * 1024;
+    }
+
+    /**
+     * 按需重载以改写内存积压的检查间隔。
+     *
+     * @return 以毫秒计的检查间隔，默认 100 毫秒。
+     * @since 5.0.3
+     */
+    protected long overflowCheckInterval() {
+        return 100L;
+    }
+
+    /**
+     * 按需重载以改写溢出层回放失败后的退避时间。
+     * <p>
+     * 回放的一次读取中任一批次处理失败时，读取进度回退到上次确认处，等待后重新回放；
+     * 连续失败时等待时间逐次翻倍，至多为本值的 32 倍。
+     *
+     * @return 以毫秒计的首次退避时间，默认 1 秒。
+     * @since 5.0.3
+     */
+    protected long overflowReplayRetryDelay() {
+        return 1000L;
+    }
+
+    /**
+     * @return 磁盘溢出层中尚未处理的指标记录数；未启用时为 0
+     * @since 5.0.3
+     */
+    public long getOverflowRecordCount() {
+        return drainControl.overflowRecordCount();
+    }
+
+    /**
+     * @return 磁盘溢出层中因编解码或写入失败而丢失的指标记录数；未启用时为 0
+     * @since 5.0.3
+     */
+    public long getOverflowLostCount() {
+        return drainControl.overflowLostCount();
+    }
+
+    /**
+     * @return 停止超时后被转存到文件的指标记录数
+     * @since 5.0.3
+     */
+    public long getShutdownSpilledCount() {
+        return drainControl.shutdownSpilledCount();
+    }
+
+    /**
+     * @return 停止超时后被丢弃的指标记录数
+     * @since 5.0.3
+     */
+    public long getShutdownDroppedCount() {
+        return drainControl.shutdownDroppedCount();
+    }
+
+    /**
+     * @return 当前每批至多处理的指标记录数；启用自适应批次大小时为当前选定的批次大小
+     * @since 5.0.3
+     */
+    public int currentBatchSize() {
+        AdaptiveBatchSizer sizer = batchSizer;
+        return sizer == null ? Math.max(1, bufferSize()) : sizer.currentSize();
+    }
+
     /**
      * 重载以改变指标记录的主题。
      *
@@ -53,50 +273,146 @@ public abstract class AbstractMetricRecorder extends KeelVerticleBase implements
     @Override
     protected final Future<Void> startVerticle() {
         return prepareForLoop()
-                .onSuccess(prepared -> runLoop());
+                .compose(prepared -> drainControl.openOverflowTier(getKeel(), overflowDirectory(), overflowSegmentSize(), overflowCodec()))
+                .onSuccess(opened -> runLoop());
     }
 
     abstract protected Future<Void> prepareForLoop();
 
     private void runLoop() {
-        getKeel().asyncCallRepeatedly(repeatedlyCallTask -> {
+        if (adaptiveBatchSize()) {
+            batchSizer = new AdaptiveBatchSizer(
+                    bufferSize(),
+                    minBatchSize(),
+                    maxBatchSize(),
+                    TimeUnit.MILLISECONDS.toNanos(targetDrainLatency())
+            );
+        }
+        drainControl.startOverflowCheck(getKeel(), overflowCheckInterval(), queuedCount::sum, overflowThreshold());
+        getKeel().asyncCallRepeatedly(getVerticleInstanceIdentity(), repeatedlyCallTask -> {
+            if (drainControl.isAbandoned()) {
+                repeatedlyCallTask.stop();
+                return Future.succeededFuture();
+            }
+            if (drainControl.hasOverflowRecords()) {
+                // 溢出层中的记录早于内存队列中的记录，先行回放
+                return drainControl.replayOverflowTier(
+                        getKeel(),
+                        currentBatchSize(),
+                        overflowReplayRetryDelay(),
+                        repeatedlyCallTask,
+                        this::handleForTopic
+                );
+            }
             return Future.succeededFuture()
                          .compose(v -> {
                              List<MetricRecord> buffer = new ArrayList<>();
+                             int selfReported = 0;
+                             int batchSize = currentBatchSize();
+                             if (drainControl.isClosing()) {
+                                 // 停止阶段以最大批次全速处理剩余记录
+                                 batchSize = Math.max(batchSize, maxBatchSize());
+                             }
 
                              while (true) {
                                  MetricRecord metricRecord = metricRecordQueue.poll();
                                  if (metricRecord == null)
                                      break;
 
+                                 if (countPolled(metricRecord)) {
+                                     selfReported++;
+                                 }
                                  buffer.add(metricRecord);
-                                 if (buffer.size() >= bufferSize())
+                                 if (buffer.size() >= batchSize)
                                      break;
                              }
 
                              if (!buffer.isEmpty()) {
-                                 return handleForTopic(topic(), buffer);
+                                 queuedCount.add(-buffer.size());
+                                 if (selfReported == buffer.size()) {
+                                     // 仅含自身报告的批次不参与批次大小的调整，以免报告引发新一轮调整与报告
+                                     return handleForTopic(topic(), buffer);
+                                 }
+                                 long startedAt = System.nanoTime();
+                                 return handleForTopic(topic(), buffer)
+                                         .andThen(ar -> adjustBatchSize(System.nanoTime() - startedAt));
                              }
 
                              return Future.succeededFuture();
                          })
                          .eventually(() -> {
-                             if (endSwitch.get()) {
+                             if (!metricRecordQueue.isEmpty() || drainControl.hasOverflowRecords()) {
+                                 return Future.succeededFuture();
+                             }
+                             if (drainControl.isClosing()) {
                                  repeatedlyCallTask.stop();
                                  return Future.succeededFuture();
                              } else {
-                                 return getKeel().asyncSleep(10L);
+                                 return getKeel().asyncSleep(
+                                         idleWaitTime(),
+                                         drainSignal.park(() -> drainControl.isClosing() || !metricRecordQueue.isEmpty())
+                                 );
                              }
                          });
         })
-                .andThen(endedPromise::handle);
+                .andThen(drainControl::loopEnded);
+    }
+
+    private List<Map.Entry<String, MetricRecord>> pollAllMetricRecords() {
+        String topic = topic();
+        List<Map.Entry<String, MetricRecord>> records = new ArrayList<>();
+        while (true) {
+            MetricRecord metricRecord = metricRecordQueue.poll();
+            if (metricRecord == null) break;
+            countPolled(metricRecord);
+            records.add(Map.entry(topic, metricRecord));
+        }
+        queuedCount.add(-records.size());
+        return records;
+    }
+
+    /**
+     * @return 取出的记录是否为本记录器自身报告的批次大小指标
+     */
+    private boolean countPolled(MetricRecord metricRecord) {
+        if (metricRecord instanceof BatchSizeMetricRecord) {
+            selfReportedCount.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    private void adjustBatchSize(long latencyNanos) {
+        AdaptiveBatchSizer sizer = batchSizer;
+        if (sizer != null && sizer.adjust(latencyNanos, queuedCount.sum() - selfReportedCount.sum())) {
+            selfReportedCount.increment();
+            recordMetric(new BatchSizeMetricRecord(
+                    "metric_recorder_batch_size",
+                    System.currentTimeMillis(),
+                    sizer.currentSize(),
+                    Map.of("topic", topic())
+            ));
+        }
+    }
+
+    /**
+     * 以单行 JSON 对象渲染停止超时后转存的指标记录。
+     */
+    private static void renderSpillLine(String topic, MetricRecord metricRecord, StringBuilder line) {
+        JsonObject labels = new JsonObject();
+        metricRecord.labels().forEach(labels::put);
+        line.append(new JsonObject()
+                .put("topic", topic)
+                .put("metricName", metricRecord.metricName())
+                .put("timestamp", metricRecord.timestamp())
+                .put("value", metricRecord.value())
+                .put("labels", labels)
+                .encode());
     }
 
     @Override
     protected Future<?> stopVerticle() {
-        endSwitch.set(true);
-        return endedPromise.future()
-                           .eventually(Future::succeededFuture);
+        return drainControl.stop(getKeel(), shutdownTimeout(), shutdownSpillPath());
     }
 
     /**
@@ -107,4 +423,15 @@ public abstract class AbstractMetricRecorder extends KeelVerticleBase implements
      * @return 处理结果
      */
     abstract protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer);
+
+    /**
+     * 本记录器自身报告的批次大小指标，以类型与其他指标区分。
+     */
+    private record BatchSizeMetricRecord(
+            String metricName,
+            long timestamp,
+            double value,
+            Map<String, String> labels
+    ) implements MetricRecord {
+    }
 }
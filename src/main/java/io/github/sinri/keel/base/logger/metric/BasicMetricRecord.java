@@ -0,0 +1,38 @@
+package io.github.sinri.keel.base.logger.metric;
+
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Map;
+
+/**
+ * 一个基本的不可变定量指标记录实现。
+ *
+ * @param metricName 指标名称
+ * @param timestamp  以毫秒计的时间戳
+ * @param value      指标数值
+ * @param labels     指标标签
+ * @since 5.0.3
+ */
+@NullMarked
+public record BasicMetricRecord(
+        String metricName,
+        long timestamp,
+        double value,
+        Map<String, String> labels
+) implements MetricRecord {
+    public BasicMetricRecord {
+        labels = Map.copyOf(labels);
+    }
+
+    /**
+     * 以当前时间为时间戳构建指标记录。
+     *
+     * @param metricName 指标名称
+     * @param value      指标数值
+     * @param labels     指标标签
+     */
+    public BasicMetricRecord(String metricName, double value, Map<String, String> labels) {
+        this(metricName, System.currentTimeMillis(), value, labels);
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.sinri.keel.base.logger.metric;
+
+import io.github.sinri.keel.base.async.Keel;
+import io.github.sinri.keel.base.verticles.KeelVerticleBase;
+import io.github.sinri.keel.logger.api.factory.LoggerFactory;
+import io.github.sinri.keel.logger.api.logger.Logger;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.ThreadingModel;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 事件循环调度延迟与阻塞监测 Verticle。
+ * <p>
+ * 本 Verticle 部署于事件循环线程上，以固定间隔设置定时器，并比较定时器的期望触发时间与实际触发时间，
+ * 其差值即为所在事件循环线程的调度延迟（lag）。各采样周期内的延迟分布（均值、P50、P99、最大值）
+ * 通过 {@link AbstractMetricRecorder#recordMetric} 定期上报，作为事件循环饱和程度的持续信号。
+ * <p>
+ * 同时，一个守护线程观察定时器的心跳；当事件循环线程超过阈值未能触发定时器时，视为被阻塞，
+ * 采样该线程的调用栈并记录日志，每次阻塞仅记录一次。
+ * <p>
+ * 一个实例只监测其所在的事件循环线程；如需覆盖多个事件循环线程，使用
+ * {@link #deployOnEventLoops(Keel, Supplier, int)} 部署多个实例，由 Vert.x 轮流分配到各事件循环上。
+ *
+ * @since 5.0.3
+ */
+@NullMarked
+public class EventLoopLagMonitor extends KeelVerticleBase {
+    private final AbstractMetricRecorder metricRecorder;
+    private final long sampleInterval;
+    private final long reportInterval;
+    private final long blockedThreshold;
+    private final long[] lagSamples;
+    private final Logger logger;
+    private int lagSampleCount = 0;
+    private long sampleTimerID = -1;
+    private long reportTimerID = -1;
+    private volatile long lastHeartbeatNanos;
+    private volatile @Nullable Thread eventLoopThread;
+    private volatile @Nullable Thread watchdogThread;
+    private volatile boolean running = false;
+
+    /**
+     * 以默认参数构造：每 100 毫秒采样一次，每 10 秒上报一次，阻塞阈值 2 秒。
+     *
+     * @param metricRecorder 用于上报指标的记录器
+     */
+    public EventLoopLagMonitor(AbstractMetricRecorder metricRecorder) {
+        this(metricRecorder, 100L, 10_000L, 2_000L);
+    }
+
+    /**
+     * @param metricRecorder   用于上报指标的记录器
+     * @param sampleInterval   以毫秒计的采样间隔
+     * @param reportInterval   以毫秒计的上报间隔
+     * @param blockedThreshold 以毫秒计的阻塞判定阈值
+     */
+    public EventLoopLagMonitor(
+            AbstractMetricRecorder metricRecorder,
+            long sampleInterval,
+            long reportInterval,
+            long blockedThreshold
+    ) {
+        super();
+        if (sampleInterval <= 0 || reportInterval <= 0 || blockedThreshold <= 0) {
+            throw new IllegalArgumentException("intervals and threshold must be greater than 0");
+        }
+        this.metricRecorder = metricRecorder;
+        this.sampleInterval = sampleInterval;
+        this.reportInterval = reportInterval;
+        this.blockedThreshold = blockedThreshold;
+        this.lagSamples = new long[(int) Math.min(100_000, reportInterval / sampleInterval + 1)];
+        this.logger = LoggerFactory.getShared().createLogger(getClass().getName());
+    }
+
+    /**
+     * 部署多个监测实例，由 Vert.x 轮流分配到各事件循环线程上。
+     *
+     * @param keel      Keel 实例
+     * @param supplier  监测实例的构造逻辑
+     * @param instances 实例数，通常取事件循环线程数
+     * @return 部署 ID
+     */
+    public static Future<String> deployOnEventLoops(Keel keel, Supplier<EventLoopLagMonitor> supplier, int instances) {
+        return keel.deployVerticle(
+                supplier,
+                new DeploymentOptions()
+                        .setThreadingModel(ThreadingModel.EVENT_LOOP)
+                        .setInstances(instances)
+        );
+    }
+
+    /**
+     * 重载以改变指标名称的前缀。
+     *
+     * @return 指标名称的前缀
+     */
+    protected String metricNamePrefix() {
+        return "event_loop_lag";
+    }
+
+    @Override
+    protected Future<?> startVerticle() {
+        if (getCurrentThreadingModel() != ThreadingModel.EVENT_LOOP) {
+            return Future.failedFuture(new IllegalStateException("EventLoopLagMonitor must be deployed on an event loop"));
+        }
+        running = true;
+        lastHeartbeatNanos = System.nanoTime();
+        getContext().runOnContext(v -> {
+            eventLoopThread = Thread.currentThread();
+            scheduleSample();
+            reportTimerID = getKeel().setPeriodic(reportInterval, id -> report());
+            startWatchdog();
+        });
+        return Future.succeededFuture();
+    }
+
+    private void scheduleSample() {
+        if (!running) return;
+        long expectedAt = System.nanoTime() + sampleInterval * 1_000_000L;
+        sampleTimerID = getKeel().setTimer(sampleInterval, id -> {
+            long now = System.nanoTime();
+            lastHeartbeatNanos = now;
+            if (lagSampleCount < lagSamples.length) {
+                lagSamples[lagSampleCount++] = Math.max(0, now - expectedAt);
+            }
+            scheduleSample();
+        });
+    }
+
+    private void report() {
+        Thread thread = eventLoopThread;
+        if (lagSampleCount == 0 || thread == null) return;
+        long[] sorted = Arrays.copyOf(lagSamples, lagSampleCount);
+        lagSampleCount = 0;
+        Arrays.sort(sorted);
+
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        Map<String, String> labels = Map.of("thread", thread.getName());
+        long timestamp = System.currentTimeMillis();
+        String prefix = metricNamePrefix();
+        metricRecorder.recordMetric(new BasicMetricRecord(prefix + "_mean_ms", timestamp, nanosToMillis(sum / sorted.length), labels));
+        metricRecorder.recordMetric(new BasicMetricRecord(prefix + "_p50_ms", timestamp, nanosToMillis(percentile(sorted, 0.5)), labels));
+        metricRecorder.recordMetric(new BasicMetricRecord(prefix + "_p99_ms", timestamp, nanosToMillis(percentile(sorted, 0.99)), labels));
+        metricRecorder.recordMetric(new BasicMetricRecord(prefix + "_max_ms", timestamp, nanosToMillis(sorted[sorted.length - 1]), labels));
+        metricRecorder.recordMetric(new BasicMetricRecord(prefix + "_samples", timestamp, sorted.length, labels));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void startWatchdog() {
+        Thread thread = new Thread(() -> {
+            boolean reported = false;
+            long checkInterval = Math.max(1, blockedThreshold / 2);
+            while (running) {
+                try {
+                    Thread.sleep(checkInterval);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                long blockedNanos = System.nanoTime() - lastHeartbeatNanos - sampleInterval * 1_000_000L;
+                if (blockedNanos > blockedThreshold * 1_000_000L) {
+                    if (!reported) {
+                        reported = true;
+                        reportBlocked(blockedNanos);
+                    }
+                } else {
+                    reported = false;
+                }
+            }
+        }, "keel-event-loop-watchdog-" + deploymentID());
+        thread.setDaemon(true);
+        watchdogThread = thread;
+        thread.start();
+    }
+
+    private void reportBlocked(long blockedNanos) {
+        Thread thread = eventLoopThread;
+        if (thread == null) return;
+        BlockedEventLoopException blocked = new BlockedEventLoopException(thread, blockedNanos);
+        metricRecorder.recordMetric(new BasicMetricRecord(
+                metricNamePrefix() + "_blocked_ms",
+                nanosToMillis(blockedNanos),
+                Map.of("thread", thread.getName())
+        ));
+        logger.warning(log -> log.message(blocked.getMessage()).exception(blocked));
+    }
+
+    @Override
+    protected Future<?> stopVerticle() {
+        running = false;
+        if (sampleTimerID >= 0) getKeel().cancelTimer(sampleTimerID);
+        if (reportTimerID >= 0) getKeel().cancelTimer(reportTimerID);
+        Thread thread = watchdogThread;
+        if (thread != null) thread.interrupt();
+        return Future.succeededFuture();
+    }
+
+    /**
+     * 用于承载被阻塞的事件循环线程调用栈的异常，仅用于记录，不会被抛出。
+     *
+     * @since 5.0.3
+     */
+    public static class BlockedEventLoopException extends Exception {
+        public BlockedEventLoopException(Thread thread, long blockedNanos) {
+            super("Event loop thread " + thread.getName() + " has been blocked for " + nanosToMillis(blockedNanos) + " ms");
+            setStackTrace(thread.getStackTrace());
+        }
+    }
+}
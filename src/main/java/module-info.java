@@ -14,6 +14,7 @@ module io.github.sinri.keel.base {
     exports io.github.sinri.keel.base.json;
     exports io.github.sinri.keel.base.verticles;
     exports io.github.sinri.keel.base.logger.adapter;
+    exports io.github.sinri.keel.base.logger.codec;
     exports io.github.sinri.keel.base.logger.factory;
     exports io.github.sinri.keel.base.logger.logger;
     exports io.github.sinri.keel.base.logger.metric;
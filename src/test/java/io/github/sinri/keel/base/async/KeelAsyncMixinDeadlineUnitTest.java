@@ -0,0 +1,85 @@
+package io.github.sinri.keel.base.async;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步调用截止时间传递的单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+public class KeelAsyncMixinDeadlineUnitTest extends KeelJUnit5Test {
+
+    public KeelAsyncMixinDeadlineUnitTest() {
+        super();
+    }
+
+    @Test
+    void testNoDeadlineByDefault() {
+        assertEquals(Long.MAX_VALUE, getKeel().currentDeadline());
+        assertEquals(Long.MAX_VALUE, getKeel().remainingTimeBudget());
+    }
+
+    @Test
+    void testRepeatedlyCallStopsAtDeadline(VertxTestContext testContext) {
+        getKeel().asyncCallWithinDeadline(100, () -> getKeel().asyncCallRepeatedly(task -> getKeel().asyncSleep(10)))
+                 .onComplete(ar -> {
+                     if (ar.failed()) {
+                         assertInstanceOf(DeadlineExceededException.class, ar.cause());
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(new AssertionError("Should have failed"));
+                     }
+                 });
+    }
+
+    @Test
+    void testParallelWithStuckProcessor(VertxTestContext testContext) {
+        Promise<Void> neverCompleted = Promise.promise();
+        getKeel().asyncCallWithinDeadline(100, () -> getKeel().parallelForAllComplete(
+                         List.of(1, 2, 3),
+                         i -> i == 2 ? neverCompleted.future() : Future.succeededFuture()
+                 ))
+                 .onComplete(ar -> {
+                     if (ar.failed()) {
+                         assertInstanceOf(DeadlineExceededException.class, ar.cause());
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(new AssertionError("Should have failed"));
+                     }
+                 });
+    }
+
+    @Test
+    void testNestedCallInheritsRemainingBudget(VertxTestContext testContext) {
+        getKeel().asyncCallWithinDeadline(500, () -> getKeel().asyncSleep(50)
+                                                               .compose(v -> getKeel().asyncCallWithinDeadline(
+                                                                       10_000,
+                                                                       () -> Future.succeededFuture(getKeel().remainingTimeBudget())
+                                                               )))
+                 .onComplete(ar -> {
+                     if (ar.succeeded()) {
+                         assertTrue(ar.result() <= 450, "Nested call should inherit the outer budget");
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(ar.cause());
+                     }
+                 });
+    }
+
+    @Test
+    void testSleepWithinBudget(VertxTestContext testContext) {
+        getKeel().asyncCallWithinDeadline(500, () -> getKeel().asyncSleep(10))
+                 .onComplete(testContext.succeedingThenComplete());
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.sinri.keel.base.async;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeelAsyncMixinScope单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+public class KeelAsyncMixinScopeUnitTest extends KeelJUnit5Test {
+
+    public KeelAsyncMixinScopeUnitTest() {
+        super();
+    }
+
+    @Test
+    void testCloseWaitsForChildren(VertxTestContext testContext) {
+        KeelAsyncScope scope = getKeel().openScope();
+        AtomicInteger finished = new AtomicInteger(0);
+        for (int i = 0; i < 3; i++) {
+            scope.fork(() -> getKeel().asyncSleep(50).onSuccess(v -> finished.incrementAndGet()));
+        }
+        assertEquals(3, scope.activeChildCount());
+
+        scope.close()
+             .onComplete(ar -> {
+                 if (ar.succeeded()) {
+                     assertEquals(3, finished.get());
+                     assertEquals(0, scope.activeChildCount());
+                     assertFalse(scope.isCancelled());
+                     testContext.completeNow();
+                 } else {
+                     testContext.failNow(ar.cause());
+                 }
+             });
+    }
+
+    @Test
+    void testChildFailureCancelsSiblings(VertxTestContext testContext) {
+        KeelAsyncScope scope = getKeel().openScope();
+        Future<Void> slow = scope.fork(() -> getKeel().asyncSleep(200));
+        scope.fork(() -> getKeel().asyncSleep(10)
+                                  .compose(v -> Future.failedFuture(new RuntimeException("child failed"))));
+
+        scope.close()
+             .onComplete(ar -> {
+                 if (ar.failed()) {
+                     assertEquals("child failed", ar.cause().getMessage());
+                     assertTrue(slow.failed());
+                     assertInstanceOf(KeelAsyncScope.ScopeCancelledException.class, slow.cause());
+                     assertTrue(scope.fork(Future::succeededFuture).failed());
+                     testContext.completeNow();
+                 } else {
+                     testContext.failNow(new AssertionError("Should have failed"));
+                 }
+             });
+    }
+
+    @Test
+    void testScopeTimeout(VertxTestContext testContext) {
+        getKeel().asyncCallWithinScope(50, scope -> scope.fork(() -> getKeel().asyncSleep(1000)))
+                 .onComplete(ar -> {
+                     if (ar.failed()) {
+                         assertInstanceOf(KeelAsyncScope.ScopeTimeoutException.class, ar.cause());
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(new AssertionError("Should have failed"));
+                     }
+                 });
+    }
+
+    @Test
+    void testChildObservesCancellation(VertxTestContext testContext) {
+        getKeel().asyncCallWithinScope(50, scope -> scope.fork(() -> {
+                     Promise<Void> interrupter = Promise.promise();
+                     scope.cancellation().onSuccess(v -> interrupter.tryComplete());
+                     return getKeel().asyncSleep(10_000, interrupter);
+                 }))
+                 .onComplete(ar -> {
+                     if (ar.failed()) {
+                         assertInstanceOf(KeelAsyncScope.ScopeTimeoutException.class, ar.cause());
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(new AssertionError("Should have failed"));
+                     }
+                 });
+    }
+}
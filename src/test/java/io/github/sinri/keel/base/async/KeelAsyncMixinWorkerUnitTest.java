@@ -0,0 +1,140 @@
+package io.github.sinri.keel.base.async;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * KeelAsyncMixinWorker单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+public class KeelAsyncMixinWorkerUnitTest extends KeelJUnit5Test {
+
+    public KeelAsyncMixinWorkerUnitTest() {
+        super();
+    }
+
+    @Test
+    void testExecuteBlockingOn(VertxTestContext testContext) {
+        NamedWorkerExecutor executor = getKeel().createNamedWorkerExecutor(
+                "test-execute", 2, 10, NamedWorkerExecutor.RejectionPolicy.ABORT);
+        assertSame(executor, getKeel().getNamedWorkerExecutor("test-execute"));
+
+        getKeel().executeBlockingOn("test-execute", () -> Thread.currentThread().getName())
+                 .onComplete(ar -> {
+                     if (ar.succeeded()) {
+                         assertTrue(ar.result().contains("test-execute"));
+                         assertEquals(1, executor.completedCount());
+                         assertEquals(0, executor.activeCount());
+                         assertEquals(0, executor.queuedCount());
+                         getKeel().closeNamedWorkerExecutor("test-execute")
+                                  .onComplete(closed -> testContext.completeNow());
+                     } else {
+                         testContext.failNow(ar.cause());
+                     }
+                 });
+    }
+
+    @Test
+    void testExecuteBlockingOnUnknownExecutor(VertxTestContext testContext) {
+        getKeel().executeBlockingOn("test-unknown", () -> "x")
+                 .onComplete(ar -> {
+                     if (ar.failed()) {
+                         assertInstanceOf(IllegalArgumentException.class, ar.cause());
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(new AssertionError("Should have failed"));
+                     }
+                 });
+    }
+
+    @Test
+    void testRejectWhenSaturated(VertxTestContext testContext) {
+        NamedWorkerExecutor executor = getKeel().createNamedWorkerExecutor(
+                "test-saturated", 1, 1, NamedWorkerExecutor.RejectionPolicy.ABORT);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Future<Void> first = executor.executeBlocking(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        Future<Void> second = executor.executeBlocking(() -> null);
+        Future<Void> third = executor.executeBlocking(() -> null);
+
+        assertTrue(third.failed());
+        assertInstanceOf(RejectedExecutionException.class, third.cause());
+        assertEquals(1, executor.rejectedCount());
+
+        latch.countDown();
+        Future.all(first, second)
+              .onComplete(ar -> {
+                  if (ar.succeeded()) {
+                      assertEquals(2, executor.completedCount());
+                      assertTrue(executor.maxWaitTime() >= executor.averageWaitTime());
+                      getKeel().closeNamedWorkerExecutor("test-saturated")
+                               .onComplete(closed -> testContext.completeNow());
+                  } else {
+                      testContext.failNow(ar.cause());
+                  }
+              });
+    }
+
+    @Test
+    void testDelegateToDefaultPoolWhenSaturated(VertxTestContext testContext) {
+        NamedWorkerExecutor executor = getKeel().createNamedWorkerExecutor(
+                "test-delegate", 1, 0, NamedWorkerExecutor.RejectionPolicy.DELEGATE_TO_DEFAULT_POOL);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Future<String> first = executor.executeBlocking(() -> {
+            latch.await(5, TimeUnit.SECONDS);
+            return "first";
+        });
+        Future<String> second = executor.executeBlocking(() -> "second");
+
+        second.compose(s -> {
+                  assertEquals("second", s);
+                  assertEquals(1, executor.rejectedCount());
+                  latch.countDown();
+                  return first;
+              })
+              .onComplete(ar -> {
+                  if (ar.succeeded()) {
+                      assertEquals("first", ar.result());
+                      getKeel().closeNamedWorkerExecutor("test-delegate")
+                               .onComplete(closed -> testContext.completeNow());
+                  } else {
+                      testContext.failNow(ar.cause());
+                  }
+              });
+    }
+
+    @Test
+    void testAsyncTransformRawFutureOnNamedExecutor(VertxTestContext testContext) {
+        getKeel().createNamedWorkerExecutor("test-raw", 1, 10, NamedWorkerExecutor.RejectionPolicy.ABORT);
+        CompletableFuture<String> cf = new CompletableFuture<>();
+        getVertx().setTimer(50, id -> cf.complete("raw-result"));
+
+        getKeel().asyncTransformRawFuture(cf, "test-raw")
+                 .onComplete(ar -> {
+                     if (ar.succeeded()) {
+                         assertEquals("raw-result", ar.result());
+                         getKeel().closeNamedWorkerExecutor("test-raw")
+                                  .onComplete(closed -> testContext.completeNow());
+                     } else {
+                         testContext.failNow(ar.cause());
+                     }
+                 });
+    }
+}
@@ -4,6 +4,7 @@ import io.github.sinri.keel.base.KeelJUnit5Test;
 import io.github.sinri.keel.base.internal.async.RepeatedlyCallTaskImpl;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.junit.jupiter.api.Test;
@@ -11,8 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * RepeatedlyCallTask单元测试。
@@ -121,5 +121,60 @@ class RepeatedlyCallTaskUnitTest extends KeelJUnit5Test {
             }
         });
     }
-}
 
+    @Test
+    void testRepeatedlyCallTaskStatistics(VertxTestContext testContext) {
+        AtomicInteger count = new AtomicInteger(0);
+        getKeel().asyncCallRepeatedly("statistics-test", repeatedlyCallTask -> {
+                     assertEquals("statistics-test", repeatedlyCallTask.getName());
+                     assertTrue(getKeel().getLiveRepeatedlyCallTasks().contains(repeatedlyCallTask));
+                     if (count.incrementAndGet() >= 3) {
+                         repeatedlyCallTask.stop();
+                         assertEquals(2, repeatedlyCallTask.getIterationCount());
+                         assertTrue(repeatedlyCallTask.getAverageIterationLatency() >= 5);
+                         assertTrue(repeatedlyCallTask.getTotalIdleTime() > 0);
+                     }
+                     return getKeel().asyncSleep(10);
+                 })
+                 .onComplete(ar -> {
+                     if (ar.succeeded()) {
+                         assertTrue(getKeel().getLiveRepeatedlyCallTasks()
+                                             .stream()
+                                             .noneMatch(task -> "statistics-test".equals(task.getName())));
+                         testContext.completeNow();
+                     } else {
+                         testContext.failNow(ar.cause());
+                     }
+                 });
+    }
+
+    /**
+     * 测试存活任务表按 Keel 实例隔离，且实例关闭后被清空。
+     */
+    @Test
+    void testLiveTasksScopedToKeelInstance(VertxTestContext testContext) {
+        Keel other = Keel.create(Vertx.vertx());
+        Promise<Void> started = Promise.promise();
+        other.asyncCallRepeatedly("other-keel-loop", repeatedlyCallTask -> {
+            started.tryComplete();
+            return other.asyncSleep(10);
+        });
+        started.future()
+               .compose(v -> {
+                   testContext.verify(() -> {
+                       assertTrue(other.getLiveRepeatedlyCallTasks()
+                                       .stream()
+                                       .anyMatch(task -> "other-keel-loop".equals(task.getName())));
+                       assertTrue(getKeel().getLiveRepeatedlyCallTasks()
+                                           .stream()
+                                           .noneMatch(task -> "other-keel-loop".equals(task.getName())));
+                   });
+                   return other.close();
+               })
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded());
+                   assertTrue(other.getLiveRepeatedlyCallTasks().isEmpty());
+                   testContext.completeNow();
+               }));
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.sinri.keel.base.internal.queue;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpillSegmentQueue单元测试，直接改写分段文件以模拟崩溃时的残缺写入与磁盘损坏。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class SpillSegmentQueueUnitTest extends KeelJUnit5Test {
+    /**
+     * 每条测试记录的负载为 8 字节，帧为 16 字节；40 字节的分段恰好容纳两帧。
+     */
+    private static final long TWO_FRAME_SEGMENT_SIZE = 40L;
+
+    public SpillSegmentQueueUnitTest() {
+        super();
+    }
+
+    /**
+     * 测试重新打开时截断最后一个分段末尾残缺的帧，其前的记录完好，其后可继续追加。
+     */
+    @Test
+    void testTornTailTruncated(@TempDir Path directory) throws IOException {
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, 1024L)) {
+            queue.append(payloads(0, 3));
+        }
+        Path segment = segmentPath(directory, 0);
+        long validSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // 帧头声明 100 字节的负载，实际只写入了 10 字节
+            ByteBuffer torn = ByteBuffer.allocate(18);
+            torn.putInt(100).putInt(0).put(new byte[10]).flip();
+            channel.write(torn);
+        }
+
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, 1024L)) {
+            assertEquals(validSize, Files.size(segment));
+            assertEquals(3, queue.pendingCount());
+            queue.append(payloads(3, 1));
+            assertEquals(texts(0, 4), decode(queue.read(10)));
+            assertEquals(0, queue.corruptedCount());
+        }
+    }
+
+    /**
+     * 测试非最后分段中校验失败的帧及该分段的剩余内容被跳过，且只计数一次。
+     */
+    @Test
+    void testCorruptedFrameSkippedAndCounted(@TempDir Path directory) throws IOException {
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            queue.append(payloads(0, 6));
+        }
+        // 改写第二个分段首帧负载的第一个字节，使其校验失败
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, 1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 8);
+        }
+
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            List<String> read = decode(queue.read(10));
+            assertEquals(List.of("record-0", "record-1", "record-4", "record-5"), read);
+            assertEquals(1, queue.corruptedCount());
+            queue.commit();
+            assertEquals(0, queue.pendingCount());
+            assertFalse(Files.exists(segmentPath(directory, 1)), "Fully read segments should be deleted on commit");
+        }
+    }
+
+    /**
+     * 测试重新打开后从检查点继续读取，已提交的记录不再读出。
+     */
+    @Test
+    void testResumeFromCheckpointAfterReopen(@TempDir Path directory) throws IOException {
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            queue.append(payloads(0, 5));
+            assertEquals(texts(0, 3), decode(queue.read(3)));
+            queue.commit();
+        }
+
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            assertEquals(2, queue.pendingCount());
+            assertEquals(texts(3, 2), decode(queue.read(10)));
+        }
+    }
+
+    /**
+     * 测试已读出但未提交的记录在重新打开后被再次读出。
+     */
+    @Test
+    void testUncommittedRecordsRedeliveredAfterReopen(@TempDir Path directory) throws IOException {
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            queue.append(payloads(0, 4));
+            assertEquals(texts(0, 2), decode(queue.read(2)));
+            queue.commit();
+            assertEquals(texts(2, 2), decode(queue.read(10)));
+        }
+
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            assertEquals(2, queue.pendingCount());
+            assertEquals(texts(2, 2), decode(queue.read(10)));
+        }
+    }
+
+    /**
+     * 测试回退后自检查点起的记录被再次读出，期间跳过残缺帧的计数被撤销。
+     */
+    @Test
+    void testRewindRedeliversSinceCheckpoint(@TempDir Path directory) throws IOException {
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            queue.append(payloads(0, 6));
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, 1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 8);
+        }
+
+        try (SpillSegmentQueue queue = SpillSegmentQueue.open(directory, TWO_FRAME_SEGMENT_SIZE)) {
+            assertEquals(texts(0, 1), decode(queue.read(1)));
+            queue.commit();
+            assertEquals(List.of("record-1", "record-4"), decode(queue.read(2)));
+            assertEquals(1, queue.corruptedCount());
+
+            queue.rewind();
+            assertEquals(0, queue.corruptedCount());
+            assertEquals(List.of("record-1", "record-4", "record-5"), decode(queue.read(10)));
+            assertEquals(1, queue.corruptedCount());
+        }
+    }
+
+    private static List<byte[]> payloads(int from, int count) {
+        List<byte[]> payloads = new ArrayList<>(count);
+        for (String text : texts(from, count)) {
+            payloads.add(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    private static List<String> texts(int from, int count) {
+        List<String> texts = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            texts.add("record-" + i);
+        }
+        return texts;
+    }
+
+    private static List<String> decode(List<byte[]> payloads) {
+        List<String> texts = new ArrayList<>(payloads.size());
+        for (byte[] payload : payloads) {
+            texts.add(new String(payload, StandardCharsets.UTF_8));
+        }
+        return texts;
+    }
+
+    private static Path segmentPath(Path directory, long seq) {
+        return directory.resolve(String.format("%020d.seg", seq));
+    }
+}
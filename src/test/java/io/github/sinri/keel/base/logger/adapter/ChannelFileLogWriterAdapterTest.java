@@ -0,0 +1,176 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ChannelFileLogWriterAdapter单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class ChannelFileLogWriterAdapterTest extends KeelJUnit5Test {
+
+    @TempDir
+    Path tempDir;
+
+    public ChannelFileLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试部署于事件循环上时，日志记录按序写入对应文件，且停止时所有写入已完成。
+     */
+    @Test
+    void testWriteOffEventLoop(VertxTestContext testContext) {
+        TestChannelFileLogWriterAdapter adapter = new TestChannelFileLogWriterAdapter(tempDir);
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   for (int i = 0; i < 1000; i++) {
+                       Log log = new Log();
+                       log.message("Channel message " + i);
+                       adapter.accept(i % 2 == 0 ? "even" : "odd", log);
+                   }
+                   Log discarded = new Log();
+                   discarded.message("Discarded message");
+                   adapter.accept("null-topic", discarded);
+                   return getKeel().asyncSleep(500L);
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   List<String> evenLines = Files.readAllLines(tempDir.resolve("even.log"));
+                   List<String> oddLines = Files.readAllLines(tempDir.resolve("odd.log"));
+                   assertEquals(500, evenLines.size());
+                   assertEquals(500, oddLines.size());
+                   assertEquals("[even] Channel message 0", evenLines.get(0));
+                   assertEquals("[odd] Channel message 999", oddLines.get(499));
+                   assertFalse(Files.exists(tempDir.resolve("null-topic.log")));
+                   testContext.completeNow();
+               }));
+    }
+
+    /**
+     * 测试按 topic 指定的落盘策略：每批落盘的 topic 产生落盘，交由操作系统的 topic 不产生落盘。
+     */
+    @Test
+    void testFsyncPolicyPerTopic(VertxTestContext testContext) {
+        TestChannelFileLogWriterAdapter adapter = new TestChannelFileLogWriterAdapter(tempDir) {
+            @Override
+            protected FsyncPolicy fsyncPolicyForTopic(String topic) {
+                return "audit".equals(topic) ? FsyncPolicy.EVERY_BATCH : FsyncPolicy.NEVER;
+            }
+        };
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   Log debug = new Log();
+                   debug.message("Debug message");
+                   adapter.accept("debug", debug);
+                   return getKeel().asyncSleep(200L);
+               })
+               .compose(v -> {
+                   testContext.verify(() -> assertEquals(0, adapter.getFsyncCount()));
+                   Log audit = new Log();
+                   audit.message("Audit message");
+                   adapter.accept("audit", audit);
+                   return getKeel().asyncSleep(200L);
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   assertTrue(adapter.getFsyncCount() >= 1, "Audit batch should have been synced");
+                   assertTrue(adapter.getWriteCount() >= 2);
+                   assertTrue(adapter.getMaxFsyncLatency() >= adapter.getAverageFsyncLatency());
+                   testContext.completeNow();
+               }));
+    }
+
+    /**
+     * 测试闲置超时的文件通道被关闭，之后再写入同一文件时以追加方式重新打开。
+     */
+    @Test
+    void testIdleChannelsClosed(VertxTestContext testContext) {
+        TestChannelFileLogWriterAdapter adapter = new TestChannelFileLogWriterAdapter(tempDir) {
+            @Override
+            protected long channelIdleTimeout() {
+                return 300L;
+            }
+        };
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   // 模拟按日期滚动的路径，每个路径只写入一段时间
+                   for (int day = 1; day <= 5; day++) {
+                       Log log = new Log();
+                       log.message("first write");
+                       adapter.accept("day-" + day, log);
+                   }
+                   return getKeel().asyncSleep(100L);
+               })
+               .compose(v -> {
+                   testContext.verify(() -> assertEquals(5, adapter.getOpenChannelCount()));
+                   return getKeel().asyncSleep(700L);
+               })
+               .compose(v -> {
+                   testContext.verify(() -> assertEquals(0, adapter.getOpenChannelCount()));
+                   Log log = new Log();
+                   log.message("second write");
+                   adapter.accept("day-1", log);
+                   return getKeel().asyncSleep(50L);
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   assertEquals(
+                           List.of("[day-1] first write", "[day-1] second write"),
+                           Files.readAllLines(tempDir.resolve("day-1.log"))
+                   );
+                   assertEquals(0, adapter.getOpenChannelCount());
+                   testContext.completeNow();
+               }));
+    }
+
+    private static class TestChannelFileLogWriterAdapter extends ChannelFileLogWriterAdapter {
+        private final Path logDir;
+
+        public TestChannelFileLogWriterAdapter(Path logDir) {
+            super();
+            this.logDir = logDir;
+        }
+
+        @Override
+        protected @Nullable Path getFilePathForTopic(String topic) {
+            if ("null-topic".equals(topic)) {
+                return null;
+            }
+            return logDir.resolve(topic + ".log");
+        }
+
+        @Override
+        public String render(String topic, SpecificLog<?> log) {
+            String message = log.message();
+            return String.format("[%s] %s", topic, message == null ? "" : message);
+        }
+
+        @Override
+        protected Future<Void> prepareForLoop() {
+            return Future.succeededFuture();
+        }
+    }
+}
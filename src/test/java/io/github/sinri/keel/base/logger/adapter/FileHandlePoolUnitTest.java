@@ -0,0 +1,63 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * FileHandlePool单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class FileHandlePoolUnitTest extends KeelJUnit5Test {
+
+    @TempDir
+    Path tempDir;
+
+    public FileHandlePoolUnitTest() {
+        super();
+    }
+
+    @Test
+    void testLruEvictionAndAppendReopen() throws Exception {
+        FileHandlePool<FileWriter> pool = new FileHandlePool<>(2, path -> new FileWriter(path.toFile(), StandardCharsets.UTF_8, true));
+        Path a = tempDir.resolve("a.log");
+        Path b = tempDir.resolve("b.log");
+        Path c = tempDir.resolve("c.log");
+
+        pool.acquire(a).write("a1\n");
+        pool.acquire(b).write("b1\n");
+        pool.acquire(a).write("a2\n");
+        // 打开 c 时关闭最久未使用的 b
+        pool.acquire(c).write("c1\n");
+        assertEquals(2, pool.openCount());
+        assertEquals(1, pool.evictionCount());
+
+        // b 以追加方式重新打开
+        pool.acquire(b).write("b2\n");
+        pool.closeAll();
+
+        assertEquals(1, pool.hitCount());
+        assertEquals(4, pool.missCount());
+        assertEquals(2, pool.evictionCount());
+        assertEquals("a1\na2\n", Files.readString(a));
+        assertEquals("b1\nb2\n", Files.readString(b));
+        assertEquals("c1\n", Files.readString(c));
+
+        pool.acquire(a);
+        assertEquals(1, pool.closeIdle(0));
+        assertEquals(0, pool.openCount());
+    }
+}
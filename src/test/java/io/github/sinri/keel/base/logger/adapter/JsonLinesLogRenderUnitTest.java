@@ -0,0 +1,63 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonLinesLogRender单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class JsonLinesLogRenderUnitTest extends KeelJUnit5Test {
+
+    public JsonLinesLogRenderUnitTest() {
+        super();
+    }
+
+    /**
+     * 测试多条日志被依次追加到同一缓冲区，且每条各占一行、可被解析为 JSON。
+     */
+    @Test
+    void testRenderIntoSharedBuffer() {
+        JsonLinesLogRender render = JsonLinesLogRender.getInstance();
+        StringBuilder buffer = new StringBuilder();
+
+        Log first = new Log();
+        first.message("第一行\n含换行");
+        render.renderInto("json-lines", first, buffer);
+        buffer.append('\n');
+
+        Log second = new Log();
+        second.message("second");
+        second.exception(new IllegalStateException("outer", new IllegalArgumentException("inner")));
+        render.renderInto("json-lines", second, buffer);
+        buffer.append('\n');
+
+        String[] lines = buffer.toString().split("\n");
+        assertEquals(2, lines.length);
+
+        JsonObject firstRecord = new JsonObject(lines[0]);
+        assertEquals("json-lines", firstRecord.getString("topic"));
+        assertEquals("第一行\n含换行", firstRecord.getString("message"));
+        assertNotNull(firstRecord.getLong("timestamp"));
+        assertNotNull(firstRecord.getString("level"));
+        assertFalse(firstRecord.containsKey("exception"));
+
+        JsonObject secondRecord = new JsonObject(lines[1]);
+        JsonObject exception = secondRecord.getJsonObject("exception");
+        assertEquals(IllegalStateException.class.getName(), exception.getString("class"));
+        assertEquals("outer", exception.getString("message"));
+        assertEquals("inner", exception.getJsonObject("cause").getString("message"));
+
+        assertEquals(lines[1], render.render("json-lines", second));
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.ThreadingModel;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappedSegmentLogWriterAdapter单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class MappedSegmentLogWriterAdapterTest extends KeelJUnit5Test {
+
+    @TempDir
+    Path tempDir;
+
+    public MappedSegmentLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试分段写满后滚动，且停止后各分段被截断到实际长度、内容完整有序。
+     */
+    @Test
+    void testRollAndTruncate(VertxTestContext testContext) {
+        TestMappedSegmentLogWriterAdapter adapter = new TestMappedSegmentLogWriterAdapter(tempDir);
+        int lineCount = 300;
+        adapter.deployMe(getVertx(), new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+               .compose(deploymentID -> {
+                   for (int i = 0; i < lineCount; i++) {
+                       Log log = new Log();
+                       log.message("Mapped message " + i);
+                       adapter.accept("audit", log);
+                   }
+                   return getKeel().asyncSleep(500L);
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   List<Path> segments;
+                   try (Stream<Path> stream = Files.list(tempDir)) {
+                       segments = stream.sorted().toList();
+                   }
+                   assertTrue(segments.size() > 1, "Segments should have been rolled");
+                   List<String> lines = new ArrayList<>();
+                   for (Path segment : segments) {
+                       byte[] bytes = Files.readAllBytes(segment);
+                       assertTrue(bytes.length <= 1024);
+                       for (byte b : bytes) {
+                           assertNotEquals(0, b, "Segments should be truncated to the written length");
+                       }
+                       lines.addAll(Files.readAllLines(segment));
+                   }
+                   assertEquals(lineCount, lines.size());
+                   for (int i = 0; i < lineCount; i++) {
+                       assertEquals("Mapped message " + i, lines.get(i));
+                   }
+                   testContext.completeNow();
+               }));
+    }
+
+    /**
+     * 测试在事件循环上部署时，超过分段大小的单行从当前分段起拆分写入，不留下空的分段文件。
+     */
+    @Test
+    void testOversizedLineLeavesNoEmptySegment(VertxTestContext testContext) {
+        TestMappedSegmentLogWriterAdapter adapter = new TestMappedSegmentLogWriterAdapter(tempDir);
+        String oversized = "x".repeat(2500);
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   adapter.accept("audit", new Log().message(oversized));
+                   adapter.accept("audit", new Log().message("after oversized"));
+                   return getKeel().asyncSleep(500L);
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   List<Path> segments;
+                   try (Stream<Path> stream = Files.list(tempDir)) {
+                       segments = stream.sorted().toList();
+                   }
+                   StringBuilder content = new StringBuilder();
+                   for (Path segment : segments) {
+                       assertTrue(Files.size(segment) > 0, "No empty segment should be left behind");
+                       content.append(Files.readString(segment));
+                   }
+                   assertEquals(3, segments.size());
+                   assertEquals(oversized + "\nafter oversized\n", content.toString());
+                   testContext.completeNow();
+               }));
+    }
+
+    private static class TestMappedSegmentLogWriterAdapter extends MappedSegmentLogWriterAdapter {
+        private final Path logDir;
+
+        public TestMappedSegmentLogWriterAdapter(Path logDir) {
+            super();
+            this.logDir = logDir;
+        }
+
+        @Override
+        protected @Nullable Path getSegmentDirectoryForTopic(String topic) {
+            return logDir;
+        }
+
+        @Override
+        protected int segmentSize() {
+            return 1024;
+        }
+
+        @Override
+        protected String segmentFileName(String topic, long createdAt) {
+            // 同一毫秒内可能滚动多次，以零填充保证按名称排序即按创建顺序
+            return String.format("%s.%020d.log", topic, createdAt);
+        }
+
+        @Override
+        public String render(String topic, SpecificLog<?> log) {
+            String message = log.message();
+            return message == null ? "" : message;
+        }
+    }
+}
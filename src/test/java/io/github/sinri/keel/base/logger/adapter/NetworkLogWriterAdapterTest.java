@@ -0,0 +1,331 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.datagram.DatagramSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NetworkLogWriterAdapter单元测试，以进程内的 TCP 与 UDP 服务端模拟日志采集端。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class NetworkLogWriterAdapterTest extends KeelJUnit5Test {
+
+    public NetworkLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试以换行符分帧经 TCP 发送，各条日志按序到达。
+     */
+    @Test
+    void testNewlineFramedOverTcp(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        NetServer server = vertx.createNetServer()
+                                .connectHandler(socket -> socket.handler(RecordParser.newDelimited(
+                                        "\n",
+                                        line -> messages.add(new JsonObject(line).getString("message"))
+                                )));
+        int total = 500;
+        server.listen(0, "127.0.0.1")
+              .compose(listening -> {
+                  NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", listening.actualPort(), NetworkLogFraming.NEWLINE);
+                  return adapter.deployMe(vertx, new DeploymentOptions())
+                                .compose(v -> {
+                                    for (int i = 0; i < total; i++) {
+                                        adapter.accept("tcp-topic", new Log().message("line " + i));
+                                    }
+                                    return awaitCondition(vertx, () -> messages.size() >= total, 3000L);
+                                })
+                                .compose(v -> adapter.undeployMe());
+              })
+              .eventually(server::close)
+              .onComplete(ar -> testContext.verify(() -> {
+                  assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                  assertEquals(total, messages.size());
+                  for (int i = 0; i < total; i++) {
+                      assertEquals("line " + i, messages.get(i));
+                  }
+                  testContext.completeNow();
+              }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试以长度前缀分帧经 TCP 发送，包含换行符的日志也能完整还原。
+     */
+    @Test
+    void testLengthPrefixedOverTcp(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        NetServer server = vertx.createNetServer()
+                                .connectHandler(socket -> {
+                                    RecordParser parser = RecordParser.newFixed(4);
+                                    boolean[] readingLength = {true};
+                                    parser.handler(frame -> {
+                                        if (readingLength[0]) {
+                                            parser.fixedSizeMode(frame.getInt(0));
+                                        } else {
+                                            messages.add(new JsonObject(frame).getString("message"));
+                                            parser.fixedSizeMode(4);
+                                        }
+                                        readingLength[0] = !readingLength[0];
+                                    });
+                                    socket.handler(parser);
+                                });
+        server.listen(0, "127.0.0.1")
+              .compose(listening -> {
+                  NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", listening.actualPort(), NetworkLogFraming.LENGTH_PREFIXED);
+                  return adapter.deployMe(vertx, new DeploymentOptions())
+                                .compose(v -> {
+                                    adapter.accept("framed-topic", new Log().message("第一行\n第二行"));
+                                    adapter.accept("framed-topic", new Log().message("plain"));
+                                    return awaitCondition(vertx, () -> messages.size() >= 2, 3000L);
+                                })
+                                .compose(v -> adapter.undeployMe());
+              })
+              .eventually(server::close)
+              .onComplete(ar -> testContext.verify(() -> {
+                  assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                  assertEquals(List.of("第一行\n第二行", "plain"), messages);
+                  testContext.completeNow();
+              }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试采集端断开连接后自动重连，重连后的日志照常送达。
+     */
+    @Test
+    void testReconnectAfterCollectorDisconnect(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        AtomicInteger connections = new AtomicInteger(0);
+        NetServer server = vertx.createNetServer()
+                                .connectHandler(socket -> {
+                                    if (connections.incrementAndGet() == 1) {
+                                        // 首个连接立即断开，模拟采集端重启
+                                        socket.close();
+                                        return;
+                                    }
+                                    socket.handler(RecordParser.newDelimited(
+                                            "\n",
+                                            line -> messages.add(new JsonObject(line).getString("message"))
+                                    ));
+                                });
+        NetworkLogWriterAdapter[] adapterHolder = new NetworkLogWriterAdapter[1];
+        server.listen(0, "127.0.0.1")
+              .compose(listening -> {
+                  NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", listening.actualPort(), NetworkLogFraming.NEWLINE) {
+                      @Override
+                      protected long reconnectInitialDelay() {
+                          return 20L;
+                      }
+                  };
+                  adapterHolder[0] = adapter;
+                  return adapter.deployMe(vertx, new DeploymentOptions())
+                                .compose(v -> awaitCondition(vertx, () -> connections.get() >= 2 && adapter.isConnected(), 3000L))
+                                .compose(v -> {
+                                    for (int i = 0; i < 10; i++) {
+                                        adapter.accept("reconnect-topic", new Log().message("after " + i));
+                                    }
+                                    return awaitCondition(vertx, () -> messages.size() >= 10, 3000L);
+                                })
+                                .compose(v -> adapter.undeployMe());
+              })
+              .eventually(server::close)
+              .onComplete(ar -> testContext.verify(() -> {
+                  assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                  assertEquals(1, adapterHolder[0].getReconnectCount());
+                  assertEquals("after 0", messages.get(0));
+                  assertEquals("after 9", messages.get(9));
+                  testContext.completeNow();
+              }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试采集端停止读取时写队列的背压暂停处理循环，恢复读取后全部日志送达。
+     */
+    @Test
+    void testBackpressurePausesDrainLoop(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        AtomicInteger received = new AtomicInteger(0);
+        NetSocket[] serverSocket = new NetSocket[1];
+        NetServer server = vertx.createNetServer()
+                                .connectHandler(socket -> {
+                                    serverSocket[0] = socket;
+                                    socket.handler(RecordParser.newDelimited("\n", line -> received.incrementAndGet()));
+                                    // 模拟处理缓慢的采集端
+                                    socket.pause();
+                                });
+        String padding = "x".repeat(2048);
+        int total = 5000;
+        NetworkLogWriterAdapter[] adapterHolder = new NetworkLogWriterAdapter[1];
+        server.listen(0, "127.0.0.1")
+              .compose(listening -> {
+                  NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", listening.actualPort(), NetworkLogFraming.NEWLINE) {
+                      @Override
+                      protected int writeQueueMaxSize() {
+                          return 64 * 1024;
+                      }
+                  };
+                  adapterHolder[0] = adapter;
+                  return adapter.deployMe(vertx, new DeploymentOptions())
+                                .compose(v -> awaitCondition(vertx, adapter::isConnected, 3000L))
+                                .compose(v -> {
+                                    for (int i = 0; i < total; i++) {
+                                        adapter.accept("slow-topic", new Log().message(i + padding));
+                                    }
+                                    return awaitCondition(vertx, () -> adapter.getBackpressurePauseCount() > 0, 3000L);
+                                })
+                                .compose(v -> {
+                                    serverSocket[0].resume();
+                                    return awaitCondition(vertx, () -> received.get() >= total, 5000L);
+                                })
+                                .compose(v -> adapter.undeployMe());
+              })
+              .eventually(server::close)
+              .onComplete(ar -> testContext.verify(() -> {
+                  assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                  assertTrue(adapterHolder[0].getBackpressurePauseCount() > 0);
+                  assertEquals(0, adapterHolder[0].getLostRecordCount());
+                  assertEquals(total, received.get());
+                  testContext.completeNow();
+              }));
+
+        testContext.awaitCompletion(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试经 UDP 发送，多条日志合并为不超过上限的数据报。
+     */
+    @Test
+    void testDatagram(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        AtomicInteger datagrams = new AtomicInteger(0);
+        DatagramSocket receiver = vertx.createDatagramSocket()
+                                       .handler(packet -> {
+                                           datagrams.incrementAndGet();
+                                           for (String line : packet.data().toString().split("\n")) {
+                                               messages.add(new JsonObject(line).getString("message"));
+                                           }
+                                       });
+        int total = 50;
+        receiver.listen(0, "127.0.0.1")
+                .compose(listening -> {
+                    NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", listening.localAddress().port(), NetworkLogFraming.DATAGRAM) {
+                        @Override
+                        protected int maxDatagramSize() {
+                            return 1024;
+                        }
+                    };
+                    return adapter.deployMe(vertx, new DeploymentOptions())
+                                  .compose(v -> {
+                                      for (int i = 0; i < total; i++) {
+                                          adapter.accept("udp-topic", new Log().message("datagram " + i));
+                                      }
+                                      return awaitCondition(vertx, () -> messages.size() >= total, 3000L);
+                                  })
+                                  .compose(v -> adapter.undeployMe());
+                })
+                .eventually(receiver::close)
+                .onComplete(ar -> testContext.verify(() -> {
+                    assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                    assertEquals(total, messages.size());
+                    assertTrue(datagrams.get() > 1, "Records should be split across datagrams");
+                    assertTrue(datagrams.get() < total, "Records should be coalesced into datagrams");
+                    testContext.completeNow();
+                }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试采集端不可用时停止不会一直等待连接恢复，而在等待时限后结束；等待连接的记录计入丢失数。
+     */
+    @Test
+    void testUndeployWhileCollectorDown(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        // 先占用再释放一个端口，使连接被拒绝
+        NetServer probe = vertx.createNetServer();
+        long[] stoppedIn = new long[1];
+        probe.listen(0, "127.0.0.1")
+             .compose(listening -> {
+                 int port = listening.actualPort();
+                 return probe.close().map(v -> port);
+             })
+             .compose(port -> {
+                 NetworkLogWriterAdapter adapter = new NetworkLogWriterAdapter("127.0.0.1", port, NetworkLogFraming.NEWLINE) {
+                     @Override
+                     protected long reconnectInitialDelay() {
+                         return 20L;
+                     }
+
+                     @Override
+                     protected long stopConnectionWaitTime() {
+                         return 200L;
+                     }
+                 };
+                 return adapter.deployMe(vertx, new DeploymentOptions())
+                               .compose(v -> {
+                                   for (int i = 0; i < 10; i++) {
+                                       adapter.accept("down-topic", new Log().message("pending " + i));
+                                   }
+                                   return getKeel().asyncSleep(100L);
+                               })
+                               .compose(v -> {
+                                   long startedAt = System.currentTimeMillis();
+                                   return adapter.undeployMe()
+                                                 .andThen(ar -> stoppedIn[0] = System.currentTimeMillis() - startedAt);
+                               })
+                               .map(v -> adapter);
+             })
+             .onComplete(ar -> testContext.verify(() -> {
+                 assertTrue(ar.succeeded(), () -> String.valueOf(ar.cause()));
+                 assertFalse(ar.result().isConnected());
+                 assertEquals(10, ar.result().getLostRecordCount());
+                 assertTrue(stoppedIn[0] < 2000L, () -> "Undeploy took " + stoppedIn[0] + " ms");
+                 testContext.completeNow();
+             }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    private static Future<Void> awaitCondition(Vertx vertx, BooleanSupplier condition, long timeoutMillis) {
+        Promise<Void> promise = Promise.promise();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        vertx.setPeriodic(10L, timerID -> {
+            if (condition.getAsBoolean()) {
+                vertx.cancelTimer(timerID);
+                promise.tryComplete();
+            } else if (System.currentTimeMillis() > deadline) {
+                vertx.cancelTimer(timerID);
+                promise.tryFail(new IllegalStateException("Condition not met within " + timeoutMillis + " ms"));
+            }
+        });
+        return promise.future();
+    }
+}
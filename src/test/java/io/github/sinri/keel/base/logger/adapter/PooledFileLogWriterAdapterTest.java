@@ -0,0 +1,117 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.ThreadingModel;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PooledFileLogWriterAdapter单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class PooledFileLogWriterAdapterTest extends KeelJUnit5Test {
+
+    @TempDir
+    Path tempDir;
+
+    public PooledFileLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试同时打开的文件数为 1 时，两个 topic 交替写入会关闭最久未使用的文件，
+     * 再次写入时以追加方式重新打开，且命中、未命中与关闭次数如实计数。
+     */
+    @Test
+    void testEvictionAndReopenInAppend(VertxTestContext testContext) {
+        TestPooledFileLogWriterAdapter adapter = new TestPooledFileLogWriterAdapter(tempDir);
+        adapter.deployMe(getVertx(), new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+               .compose(deploymentID -> write(adapter, "a", "a-1"))
+               .compose(v -> write(adapter, "a", "a-2"))
+               .compose(v -> {
+                   testContext.verify(() -> {
+                       assertEquals(1, adapter.getFileHandleMissCount());
+                       assertEquals(1, adapter.getFileHandleHitCount());
+                       assertEquals(0, adapter.getFileHandleEvictionCount());
+                   });
+                   return write(adapter, "b", "b-1");
+               })
+               .compose(v -> {
+                   testContext.verify(() -> {
+                       assertEquals(2, adapter.getFileHandleMissCount());
+                       assertEquals(1, adapter.getFileHandleEvictionCount());
+                       assertEquals(1, adapter.getOpenFileCount());
+                   });
+                   return write(adapter, "a", "a-3");
+               })
+               .compose(v -> adapter.undeployMe())
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   assertEquals(1, adapter.getFileHandleHitCount());
+                   assertEquals(3, adapter.getFileHandleMissCount());
+                   assertEquals(2, adapter.getFileHandleEvictionCount());
+                   assertEquals(0, adapter.getOpenFileCount());
+                   assertEquals(List.of("[a] a-1", "[a] a-2", "[a] a-3"), Files.readAllLines(tempDir.resolve("a.log")));
+                   assertEquals(List.of("[b] b-1"), Files.readAllLines(tempDir.resolve("b.log")));
+                   testContext.completeNow();
+               }));
+    }
+
+    /**
+     * 写入一条日志并等待其被处理，使每条日志各自成批。
+     */
+    private Future<Void> write(TestPooledFileLogWriterAdapter adapter, String topic, String message) {
+        Log log = new Log();
+        log.message(message);
+        adapter.accept(topic, log);
+        return getKeel().asyncSleep(200L);
+    }
+
+    private static class TestPooledFileLogWriterAdapter extends PooledFileLogWriterAdapter {
+        private final Path logDir;
+
+        public TestPooledFileLogWriterAdapter(Path logDir) {
+            super();
+            this.logDir = logDir;
+        }
+
+        @Override
+        protected @Nullable Path getFilePathForTopic(String topic) {
+            return logDir.resolve(topic + ".log");
+        }
+
+        @Override
+        protected int maxOpenFiles() {
+            return 1;
+        }
+
+        @Override
+        public String render(String topic, SpecificLog<?> log) {
+            String message = log.message();
+            return String.format("[%s] %s", topic, message == null ? "" : message);
+        }
+
+        @Override
+        protected Future<Void> prepareForLoop() {
+            return Future.succeededFuture();
+        }
+    }
+}
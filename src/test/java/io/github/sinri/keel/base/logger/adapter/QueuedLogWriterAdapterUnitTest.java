@@ -1,12 +1,17 @@
 package io.github.sinri.keel.base.logger.adapter;
 
 import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.base.logger.codec.SpillCodec;
+import io.github.sinri.keel.base.logger.metric.AbstractMetricRecorder;
 import io.github.sinri.keel.logger.api.log.Log;
 import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.ThreadingModel;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.jspecify.annotations.NullMarked;
@@ -14,11 +19,19 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -203,6 +216,541 @@ class QueuedLogWriterAdapterUnitTest extends KeelJUnit5Test {
         testContext.completeNow();
     }
 
+    /**
+     * 测试大量topic的单轮处理。
+     * <p>
+     * 验证topic数量不会成倍增加处理延迟。
+     */
+    @Test
+    void testManyTopicsDrainedInOnePass(VertxTestContext testContext) {
+        int topicCount = 200;
+        for (int i = 0; i < topicCount; i++) {
+            Log log = new Log();
+            log.message("Many topics message " + i);
+            adapter.accept("many-topic-" + i, log);
+        }
+        getKeel().asyncSleep(500L)
+                 .onComplete(ar -> {
+                     testContext.verify(() -> assertEquals(
+                             topicCount,
+                             adapter.getProcessedCount(),
+                             "All topics should be drained without a timer hop per topic"
+                     ));
+                     testContext.completeNow();
+                 });
+    }
+
+    /**
+     * 测试预算不足以覆盖全部积压时，各 topic 在 ⌈topic 数 × 批次大小 / 预算⌉ 轮内都被处理。
+     */
+    @Test
+    void testRoundRobinServesEveryTopicWithinBoundedPasses(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        int topicCount = 20;
+        int quantum = 4;
+        int budget = 16;
+        Promise<Void> gate = Promise.promise();
+        List<String> servedTopics = new CopyOnWriteArrayList<>();
+        TestQueuedLogWriterAdapter fairAdapter = new TestQueuedLogWriterAdapter(quantum) {
+            @Override
+            protected int drainBudget() {
+                return budget;
+            }
+
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                if ("gate-topic".equals(topic)) {
+                    // 积压全部入队前阻塞处理循环
+                    return gate.future();
+                }
+                servedTopics.add(topic);
+                return super.processLogRecords(topic, batch);
+            }
+        };
+        fairAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                   .compose(v -> {
+                       fairAdapter.accept("gate-topic", new Log().message("gate"));
+                       return getKeel().asyncSleep(100L);
+                   })
+                   .compose(v -> {
+                       for (int i = 0; i < topicCount; i++) {
+                           for (int j = 0; j < quantum * 10; j++) {
+                               fairAdapter.accept("fair-topic-" + i, new Log().message("fair " + i + "-" + j));
+                           }
+                       }
+                       gate.complete();
+                       return getKeel().asyncSleep(300L);
+                   })
+                   .onComplete(ar -> testContext.verify(() -> {
+                       assertTrue(ar.succeeded());
+                       int passes = (topicCount * quantum + budget - 1) / budget;
+                       int batchesPerPass = budget / quantum;
+                       assertTrue(servedTopics.size() >= passes * batchesPerPass);
+                       Set<String> servedWithinBound = new HashSet<>(servedTopics.subList(0, passes * batchesPerPass));
+                       assertEquals(topicCount, servedWithinBound.size(), "Every topic should be served within " + passes + " passes");
+                       testContext.completeNow();
+                   }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+        fairAdapter.undeployMe();
+    }
+
+    /**
+     * 测试空闲停驻后的唤醒。
+     * <p>
+     * 验证处理循环空闲停驻后，新到达的日志记录能立即唤醒处理循环，而无需等待兜底轮询间隔。
+     */
+    @Test
+    void testWakeupAfterIdle(VertxTestContext testContext) {
+        String topic = "wakeup-topic";
+        getKeel().asyncSleep(300L)
+                 .compose(v -> {
+                     Log log = new Log();
+                     log.message("Wakeup message");
+                     adapter.accept(topic, log);
+                     return getKeel().asyncSleep(200L);
+                 })
+                 .onComplete(ar -> {
+                     testContext.verify(() -> assertTrue(
+                             adapter.getProcessedLogs().containsKey(topic),
+                             "Log should be processed well before the idle wait time"
+                     ));
+                     testContext.completeNow();
+                 });
+    }
+
+    /**
+     * 测试重复记录的去重。
+     * <p>
+     * 验证窗口内的重复记录仅写出首条，并在窗口结束时写出一条汇总记录。
+     */
+    @Test
+    void testDeduplication(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        TestQueuedLogWriterAdapter dedupAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected long deduplicationWindow() {
+                return 200L;
+            }
+        };
+        String topic = "dedup-topic";
+        dedupAdapter.deployMe(
+                vertx,
+                new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER)
+        ).compose(v -> {
+            for (int i = 0; i < 100; i++) {
+                Log log = new Log();
+                log.message("Retry failed");
+                dedupAdapter.accept(topic, log);
+            }
+            Log other = new Log();
+            other.message("Something else");
+            dedupAdapter.accept(topic, other);
+            return getKeel().asyncSleep(600L);
+        }).compose(v -> dedupAdapter.undeployMe()).onComplete(ar -> {
+            testContext.verify(() -> {
+                List<SpecificLog<?>> logs = dedupAdapter.getProcessedLogs().get(topic);
+                assertNotNull(logs);
+                assertEquals(3, logs.size(), "First record, the other record and one summary should be written");
+                assertEquals("Retry failed", logs.get(0).message());
+                String summary = logs.get(2).message();
+                assertNotNull(summary);
+                assertTrue(summary.contains("repeated 99 more times"), summary);
+                assertEquals(logs.get(0).level(), logs.get(2).level());
+                assertEquals(logs.get(0).classification(), logs.get(2).classification());
+            });
+            testContext.completeNow();
+        });
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试去重追踪的记录数达到上限后，新出现的记录不再被折叠。
+     */
+    @Test
+    void testDeduplicationCapacity(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        TestQueuedLogWriterAdapter dedupAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected long deduplicationWindow() {
+                return 200L;
+            }
+
+            @Override
+            protected int deduplicationCapacity() {
+                return 1;
+            }
+        };
+        String topic = "dedup-capacity-topic";
+        dedupAdapter.deployMe(
+                vertx,
+                new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER)
+        ).compose(v -> {
+            for (int i = 0; i < 5; i++) {
+                Log tracked = new Log();
+                tracked.message("tracked");
+                dedupAdapter.accept(topic, tracked);
+                Log untracked = new Log();
+                untracked.message("untracked");
+                dedupAdapter.accept(topic, untracked);
+            }
+            return getKeel().asyncSleep(600L);
+        }).compose(v -> dedupAdapter.undeployMe()).onComplete(ar -> {
+            testContext.verify(() -> {
+                List<SpecificLog<?>> logs = dedupAdapter.getProcessedLogs().get(topic);
+                assertNotNull(logs);
+                assertEquals(1, logs.stream().filter(log -> "tracked".equals(log.message())).count());
+                assertEquals(5, logs.stream().filter(log -> "untracked".equals(log.message())).count());
+            });
+            testContext.completeNow();
+        });
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试自适应批次大小在积压时增大批次，且不超过上界。
+     */
+    @Test
+    void testAdaptiveBatchSize(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        AtomicInteger largestBatch = new AtomicInteger(0);
+        TestQueuedLogWriterAdapter adaptiveAdapter = new TestQueuedLogWriterAdapter(16) {
+            @Override
+            protected boolean adaptiveBatchSize() {
+                return true;
+            }
+
+            @Override
+            protected int maxBatchSize() {
+                return 512;
+            }
+
+            @Override
+            protected long targetDrainLatency() {
+                return 1_000L;
+            }
+
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                largestBatch.accumulateAndGet(batch.size(), Math::max);
+                return super.processLogRecords(topic, batch);
+            }
+        };
+        String topic = "adaptive-topic";
+        int logCount = 20_000;
+        for (int i = 0; i < logCount; i++) {
+            adaptiveAdapter.accept(topic, new Log().message("m" + i));
+        }
+        adaptiveAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                       .compose(v -> getKeel().asyncSleep(1_000L))
+                       .compose(v -> adaptiveAdapter.undeployMe())
+                       .onComplete(ar -> testContext.verify(() -> {
+                           assertTrue(ar.succeeded());
+                           assertEquals(logCount, adaptiveAdapter.getProcessedCount());
+                           assertTrue(largestBatch.get() > 16, "Batch size should grow under backlog");
+                           assertTrue(largestBatch.get() <= 512, "Batch size should stay within the upper bound");
+                           testContext.completeNow();
+                       }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试处理管道统计指标的查询与发布。
+     * <p>
+     * 某一 topic 的批次处理失败时计入失败次数，且不影响处理循环继续处理其他日志。
+     */
+    @Test
+    void testPipelineMetrics(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        List<MetricRecord> published = new CopyOnWriteArrayList<>();
+        AbstractMetricRecorder recorder = new AbstractMetricRecorder() {
+            @Override
+            protected Future<Void> prepareForLoop() {
+                return Future.succeededFuture();
+            }
+
+            @Override
+            protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+                published.addAll(buffer);
+                return Future.succeededFuture();
+            }
+        };
+        TestQueuedLogWriterAdapter metricAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                if ("failing-topic".equals(topic)) {
+                    return Future.failedFuture(new IllegalStateException("write failed"));
+                }
+                return super.processLogRecords(topic, batch);
+            }
+
+            @Override
+            protected AbstractMetricRecorder pipelineMetricRecorder() {
+                return recorder;
+            }
+
+            @Override
+            protected long pipelineMetricInterval() {
+                return 100L;
+            }
+        };
+
+        recorder.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                .compose(v -> metricAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER)))
+                .compose(v -> {
+                    for (int i = 0; i < 10; i++) {
+                        metricAdapter.accept("failing-topic", new Log().message("f" + i));
+                    }
+                    return getKeel().asyncSleep(200L);
+                })
+                .compose(v -> {
+                    for (int i = 0; i < 10; i++) {
+                        metricAdapter.accept("metric-topic", new Log().message("m" + i));
+                    }
+                    return getKeel().asyncSleep(300L);
+                })
+                .onSuccess(v -> testContext.verify(() -> {
+                    Map<String, Double> values = new HashMap<>();
+                    for (MetricRecord metricRecord : metricAdapter.getPipelineMetrics()) {
+                        if (!metricRecord.labels().containsKey("le")) {
+                            values.put(metricRecord.metricName() + "/" + metricRecord.labels().get("topic"), metricRecord.value());
+                        }
+                    }
+                    assertEquals(10.0, values.get("log_pipeline_enqueued_total/metric-topic"));
+                    assertEquals(10.0, values.get("log_pipeline_drained_total/metric-topic"));
+                    assertEquals(0.0, values.get("log_pipeline_queue_depth/metric-topic"));
+                    assertEquals(0.0, values.get("log_pipeline_failures_total/metric-topic"));
+                    assertTrue(values.get("log_pipeline_failures_total/failing-topic") >= 1.0);
+                    assertTrue(values.get("log_pipeline_batch_size_count/metric-topic") >= 1.0);
+                    assertEquals(10, metricAdapter.getProcessedLogs().get("metric-topic").size(),
+                            "A failed batch should not stop the loop");
+                }))
+                .compose(v -> metricAdapter.undeployMe())
+                .compose(v -> recorder.undeployMe())
+                .onComplete(ar -> testContext.verify(() -> {
+                    assertTrue(ar.succeeded());
+                    assertTrue(published.stream().anyMatch(r -> r.metricName().equals("log_pipeline_drain_rate")),
+                            "Pipeline metrics should be published");
+                    testContext.completeNow();
+                }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试下游阻塞时停止在时限内完成，剩余记录被转存到文件。
+     */
+    @Test
+    void testBoundedShutdownSpillsRemaining(Vertx vertx, VertxTestContext testContext, @TempDir Path tempDir) throws Throwable {
+        Path spillPath = tempDir.resolve("spill.jsonl");
+        TestQueuedLogWriterAdapter stuckAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                // 模拟永不完成的下游
+                return Promise.<Void>promise().future();
+            }
+
+            @Override
+            protected long shutdownTimeout() {
+                return 300L;
+            }
+
+            @Override
+            protected Path shutdownSpillPath() {
+                return spillPath;
+            }
+        };
+        String topic = "stuck-topic";
+        long[] stopStartedAt = new long[1];
+        stuckAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                    .compose(v -> {
+                        stuckAdapter.accept(topic, new Log().message("in flight"));
+                        return getKeel().asyncSleep(200L);
+                    })
+                    .compose(v -> {
+                        for (int i = 0; i < 5; i++) {
+                            stuckAdapter.accept(topic, new Log().message("remaining " + i));
+                        }
+                        stopStartedAt[0] = System.currentTimeMillis();
+                        return stuckAdapter.undeployMe();
+                    })
+                    .onComplete(ar -> testContext.verify(() -> {
+                        assertTrue(ar.succeeded(), "Undeploy should succeed");
+                        assertTrue(System.currentTimeMillis() - stopStartedAt[0] < 2_000L, "Stop should be bounded");
+                        assertEquals(5, stuckAdapter.getShutdownSpilledCount());
+                        List<String> lines = Files.readAllLines(spillPath);
+                        assertEquals(5, lines.size());
+                        JsonObject first = new JsonObject(lines.get(0));
+                        assertEquals(topic, first.getString("topic"));
+                        assertEquals("remaining 0", first.getString("message"));
+                        testContext.completeNow();
+                    }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试磁盘溢出层。
+     * <p>
+     * 验证下游不可用时内存积压超过阈值的记录被写入溢出层，下游恢复后按序回放且不丢失。
+     */
+    @Test
+    void testOverflowSpillAndReplay(Vertx vertx, VertxTestContext testContext, @TempDir Path tempDir) throws Throwable {
+        Promise<Void> gate = Promise.promise();
+        TestQueuedLogWriterAdapter overflowAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                // 下游恢复前阻塞，模拟长时间不可用的日志收集端
+                return gate.future().compose(v -> super.processLogRecords(topic, batch));
+            }
+
+            @Override
+            protected Path overflowDirectory() {
+                return tempDir;
+            }
+
+            @Override
+            protected SpillCodec<SpecificLog<?>> overflowCodec() {
+                return new SpillCodec<>() {
+                    @Override
+                    public byte[] encode(SpecificLog<?> record) {
+                        return String.valueOf(record.message()).getBytes(StandardCharsets.UTF_8);
+                    }
+
+                    @Override
+                    public SpecificLog<?> decode(byte[] bytes) {
+                        return new Log().message(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                };
+            }
+
+            @Override
+            protected long overflowThreshold() {
+                return 10L;
+            }
+
+            @Override
+            protected long overflowCheckInterval() {
+                return 20L;
+            }
+        };
+        String topic = "overflow-topic";
+        int total = 200;
+        overflowAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                       .compose(v -> {
+                           overflowAdapter.accept(topic, new Log().message("log 0"));
+                           return getKeel().asyncSleep(100L);
+                       })
+                       .compose(v -> {
+                           for (int i = 1; i < total; i++) {
+                               overflowAdapter.accept(topic, new Log().message("log " + i));
+                           }
+                           return getKeel().asyncSleep(300L);
+                       })
+                       .compose(v -> {
+                           testContext.verify(() -> assertEquals(total - 1, overflowAdapter.getOverflowRecordCount()));
+                           gate.complete();
+                           return getKeel().asyncSleep(500L);
+                       })
+                       .onComplete(ar -> testContext.verify(() -> {
+                           assertTrue(ar.succeeded());
+                           assertEquals(total, overflowAdapter.getProcessedCount());
+                           assertEquals(0, overflowAdapter.getOverflowRecordCount());
+                           List<SpecificLog<?>> processed = overflowAdapter.getProcessedLogs().get(topic);
+                           for (int i = 0; i < total; i++) {
+                               assertEquals("log " + i, processed.get(i).message());
+                           }
+                           testContext.completeNow();
+                       }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+        overflowAdapter.undeployMe();
+    }
+
+    /**
+     * 测试溢出层回放中处理失败的批次不被确认，回退后经退避重新回放，记录既不丢失也不乱序。
+     */
+    @Test
+    void testOverflowReplayRetriesFailedBatches(Vertx vertx, VertxTestContext testContext, @TempDir Path tempDir) throws Throwable {
+        Promise<Void> gate = Promise.promise();
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        TestQueuedLogWriterAdapter overflowAdapter = new TestQueuedLogWriterAdapter() {
+            @Override
+            protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+                return gate.future().compose(v -> {
+                    if (!"log 0".equals(batch.get(0).message()) && failuresLeft.getAndDecrement() > 0) {
+                        return Future.failedFuture(new IllegalStateException("downstream rejected the batch"));
+                    }
+                    return super.processLogRecords(topic, batch);
+                });
+            }
+
+            @Override
+            protected Path overflowDirectory() {
+                return tempDir;
+            }
+
+            @Override
+            protected SpillCodec<SpecificLog<?>> overflowCodec() {
+                return new SpillCodec<>() {
+                    @Override
+                    public byte[] encode(SpecificLog<?> record) {
+                        return String.valueOf(record.message()).getBytes(StandardCharsets.UTF_8);
+                    }
+
+                    @Override
+                    public SpecificLog<?> decode(byte[] bytes) {
+                        return new Log().message(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                };
+            }
+
+            @Override
+            protected long overflowThreshold() {
+                return 10L;
+            }
+
+            @Override
+            protected long overflowCheckInterval() {
+                return 20L;
+            }
+
+            @Override
+            protected long overflowReplayRetryDelay() {
+                return 20L;
+            }
+        };
+        String topic = "overflow-retry-topic";
+        int total = 200;
+        overflowAdapter.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                       .compose(v -> {
+                           overflowAdapter.accept(topic, new Log().message("log 0"));
+                           return getKeel().asyncSleep(100L);
+                       })
+                       .compose(v -> {
+                           for (int i = 1; i < total; i++) {
+                               overflowAdapter.accept(topic, new Log().message("log " + i));
+                           }
+                           return getKeel().asyncSleep(300L);
+                       })
+                       .compose(v -> {
+                           gate.complete();
+                           return getKeel().asyncSleep(800L);
+                       })
+                       .onComplete(ar -> testContext.verify(() -> {
+                           assertTrue(ar.succeeded());
+                           assertTrue(failuresLeft.get() < 0, "Both injected failures should have been hit");
+                           assertEquals(total, overflowAdapter.getProcessedCount());
+                           assertEquals(0, overflowAdapter.getOverflowRecordCount());
+                           List<SpecificLog<?>> processed = overflowAdapter.getProcessedLogs().get(topic);
+                           for (int i = 0; i < total; i++) {
+                               assertEquals("log " + i, processed.get(i).message());
+                           }
+                           testContext.completeNow();
+                       }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+        overflowAdapter.undeployMe();
+    }
+
     /**
      * 测试verticle的停止功能。
      * <p>
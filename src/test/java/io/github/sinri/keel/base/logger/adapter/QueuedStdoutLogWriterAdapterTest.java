@@ -0,0 +1,57 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * QueuedStdoutLogWriterAdapter单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class QueuedStdoutLogWriterAdapterTest extends KeelJUnit5Test {
+
+    public QueuedStdoutLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试日志记录经队列按序写出，每条一行，且停止时队列被排空。
+     */
+    @Test
+    void testWriteToStdout(VertxTestContext testContext) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonLinesLogRender render = JsonLinesLogRender.getInstance();
+        QueuedStdoutLogWriterAdapter adapter = new QueuedStdoutLogWriterAdapter(render, Channels.newChannel(output));
+        StringBuilder expected = new StringBuilder();
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   for (int i = 0; i < 10; i++) {
+                       Log log = new Log();
+                       log.message("Queued stdout 消息 " + i);
+                       expected.append(render.render("stdout-test", log)).append('\n');
+                       adapter.accept("stdout-test", log);
+                   }
+                   return adapter.undeployMe();
+               })
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed after draining");
+                   assertArrayEquals(expected.toString().getBytes(StandardCharsets.UTF_8), output.toByteArray());
+                   testContext.completeNow();
+               }));
+    }
+}
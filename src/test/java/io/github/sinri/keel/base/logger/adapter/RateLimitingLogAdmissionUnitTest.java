@@ -0,0 +1,62 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RateLimitingLogAdmission单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class RateLimitingLogAdmissionUnitTest extends KeelJUnit5Test {
+
+    public RateLimitingLogAdmissionUnitTest() {
+        super();
+    }
+
+    private static Log logOf(String message) {
+        Log log = new Log();
+        log.message(message);
+        return log;
+    }
+
+    @Test
+    void testTokenBucketPerTopic() {
+        RateLimitingLogAdmission admission = new RateLimitingLogAdmission(0.001, 5)
+                .setTopicLimit("vip", 0.001, 50);
+        int admitted = 0;
+        int vipAdmitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (admission.admit("noisy", logOf("m" + i))) admitted++;
+            if (admission.admit("vip", logOf("m" + i))) vipAdmitted++;
+        }
+        assertEquals(5, admitted);
+        assertEquals(50, vipAdmitted);
+
+        Map<String, Long> suppressed = admission.drainSuppressedCounts();
+        assertEquals(95L, suppressed.get("noisy"));
+        assertEquals(50L, suppressed.get("vip"));
+        assertTrue(admission.drainSuppressedCounts().isEmpty(), "Counts should be reset after draining");
+    }
+
+    @Test
+    void testSamplingByLevel() {
+        Log sample = logOf("sample");
+        RateLimitingLogAdmission admission = new RateLimitingLogAdmission(1_000_000, 1_000_000)
+                .setSamplingRate(String.valueOf(sample.level()), 0);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(admission.admit("sampled", logOf("m" + i)));
+        }
+        assertEquals(10L, admission.drainSuppressedCounts().get("sampled"));
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RenderBuffer单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class RenderBufferUnitTest extends KeelJUnit5Test {
+
+    public RenderBufferUnitTest() {
+        super();
+    }
+
+    @Test
+    void testEncodeReusesBufferAndGrows() throws Exception {
+        RenderBuffer renderBuffer = new RenderBuffer();
+
+        renderBuffer.reset().append("日志 line\n");
+        ByteBuffer first = renderBuffer.encode();
+        assertEquals("日志 line\n", StandardCharsets.UTF_8.decode(first).toString());
+
+        renderBuffer.reset().append("second\n");
+        ByteBuffer second = renderBuffer.encode();
+        assertSame(first, second, "Byte buffer should be reused across batches");
+        assertEquals("second\n", StandardCharsets.UTF_8.decode(second).toString());
+
+        String large = "记".repeat(20_000);
+        renderBuffer.reset().append(large);
+        ByteBuffer grown = renderBuffer.encode();
+        assertEquals(large.getBytes(StandardCharsets.UTF_8).length, grown.remaining());
+
+        StringWriter writer = new StringWriter();
+        renderBuffer.reset().append("to writer");
+        renderBuffer.writeTo(writer);
+        assertEquals("to writer", writer.toString());
+    }
+
+    /**
+     * 测试超大批次之后重置得到初始容量的缓冲区，而不是容量被收缩为零的缓冲区。
+     */
+    @Test
+    void testResetAfterOversizedBatchRestoresInitialCapacity() {
+        RenderBuffer renderBuffer = new RenderBuffer();
+
+        renderBuffer.reset().append("x".repeat(5 * 1024 * 1024));
+        renderBuffer.encode();
+
+        StringBuilder builder = renderBuffer.reset();
+        assertEquals(0, builder.length());
+        assertEquals(8192, builder.capacity());
+
+        builder.append("after");
+        assertEquals("after", StandardCharsets.UTF_8.decode(renderBuffer.encode()).toString());
+    }
+}
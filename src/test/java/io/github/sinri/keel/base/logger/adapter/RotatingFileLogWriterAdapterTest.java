@@ -0,0 +1,124 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RotatingFileLogWriterAdapter单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class RotatingFileLogWriterAdapterTest extends KeelJUnit5Test {
+
+    @TempDir
+    Path tempDir;
+
+    public RotatingFileLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试按大小滚动、滚动文件被压缩，且保留数量受限。
+     */
+    @Test
+    void testRotateBySizeWithCompressionAndRetention(VertxTestContext testContext) {
+        TestRotatingFileLogWriterAdapter adapter = new TestRotatingFileLogWriterAdapter(tempDir);
+        adapter.deployMe(getVertx(), new DeploymentOptions())
+               .compose(deploymentID -> {
+                   // 每轮写入一批后等待，使每批单独滚动
+                   Future<Void> future = Future.succeededFuture();
+                   for (int round = 0; round < 5; round++) {
+                       int r = round;
+                       future = future.compose(v -> {
+                           for (int i = 0; i < 20; i++) {
+                               Log log = new Log();
+                               log.message("Round " + r + " message " + i);
+                               adapter.accept("app", log);
+                           }
+                           return getKeel().asyncSleep(200L);
+                       });
+                   }
+                   return future;
+               })
+               .compose(v -> adapter.undeployMe())
+               .compose(v -> getKeel().asyncSleep(300L))
+               .onComplete(ar -> testContext.verify(() -> {
+                   assertTrue(ar.succeeded(), "Undeploy should succeed");
+                   List<Path> rolled;
+                   try (Stream<Path> stream = Files.list(tempDir)) {
+                       rolled = stream.filter(p -> p.getFileName().toString().startsWith("app.log."))
+                                      .sorted()
+                                      .toList();
+                   }
+                   assertEquals(2, rolled.size(), "Only the retained rolled files should be kept");
+                   for (Path path : rolled) {
+                       assertTrue(path.getFileName().toString().endsWith(".gz"), "Rolled files should be compressed");
+                   }
+                   String newest;
+                   try (InputStream in = new GZIPInputStream(Files.newInputStream(rolled.get(1)))) {
+                       newest = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                   }
+                   assertTrue(newest.contains("Round"));
+                   List<String> current = Files.readAllLines(tempDir.resolve("app.log"));
+                   assertEquals("Round 4 message 19", current.get(current.size() - 1));
+                   testContext.completeNow();
+               }));
+    }
+
+    private static class TestRotatingFileLogWriterAdapter extends RotatingFileLogWriterAdapter {
+        private final Path logDir;
+
+        public TestRotatingFileLogWriterAdapter(Path logDir) {
+            super();
+            this.logDir = logDir;
+        }
+
+        @Override
+        protected @Nullable Path getFilePathForTopic(String topic) {
+            return logDir.resolve(topic + ".log");
+        }
+
+        @Override
+        protected long maxFileSize() {
+            return 100L;
+        }
+
+        @Override
+        protected int retentionCount() {
+            return 2;
+        }
+
+        @Override
+        public String render(String topic, SpecificLog<?> log) {
+            String message = log.message();
+            return message == null ? "" : message;
+        }
+
+        @Override
+        protected Future<Void> prepareForLoop() {
+            return Future.succeededFuture();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ShardedLogWriterAdapter测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class ShardedLogWriterAdapterTest extends KeelJUnit5Test {
+
+    public ShardedLogWriterAdapterTest() {
+        super();
+    }
+
+    /**
+     * 测试同一 topic 始终由同一分片按序处理，且各分片运行于不同的线程上。
+     */
+    @Test
+    void testTopicsPinnedToShards(VertxTestContext testContext) {
+        ShardedLogWriterAdapter sharded = new ShardedLogWriterAdapter(4, RecordingShard::new);
+        int topicCount = 40;
+        int logsPerTopic = 50;
+
+        sharded.deploy(getVertx(), new DeploymentOptions())
+               .compose(v -> {
+                   for (int i = 0; i < logsPerTopic; i++) {
+                       for (int t = 0; t < topicCount; t++) {
+                           sharded.accept("topic-" + t, new Log().message(String.valueOf(i)));
+                       }
+                   }
+                   return sharded.undeploy();
+               })
+               .onSuccess(v -> testContext.verify(() -> {
+                   Set<String> threads = ConcurrentHashMap.newKeySet();
+                   int processed = 0;
+                   for (int index = 0; index < sharded.getShardCount(); index++) {
+                       RecordingShard shard = (RecordingShard) sharded.getShards().get(index);
+                       threads.addAll(shard.threads);
+                       for (Map.Entry<String, List<String>> entry : shard.messages.entrySet()) {
+                           assertEquals(index, sharded.shardIndexOf(entry.getKey()), "Topic should stay on its shard");
+                           List<String> expected = new ArrayList<>();
+                           for (int i = 0; i < logsPerTopic; i++) {
+                               expected.add(String.valueOf(i));
+                           }
+                           assertEquals(expected, entry.getValue(), "Order within a topic should be kept");
+                           processed += entry.getValue().size();
+                       }
+                   }
+                   assertEquals(topicCount * logsPerTopic, processed);
+                   assertTrue(threads.size() > 1, "Shards should run on different threads");
+                   testContext.completeNow();
+               }))
+               .onFailure(testContext::failNow);
+    }
+
+    private static class RecordingShard extends QueuedLogWriterAdapter {
+        private final Map<String, List<String>> messages = new ConcurrentHashMap<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        protected Future<Void> prepareForLoop() {
+            return Future.succeededFuture();
+        }
+
+        @Override
+        protected Future<Void> processLogRecords(String topic, List<SpecificLog<?>> batch) {
+            threads.add(Thread.currentThread().getName());
+            List<String> list = messages.computeIfAbsent(topic, k -> new ArrayList<>());
+            for (SpecificLog<?> log : batch) {
+                list.add(log.message());
+            }
+            return Future.succeededFuture();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.FileWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TextLogRender单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class TextLogRenderUnitTest extends KeelJUnit5Test {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+                                                                        .withZone(ZoneId.systemDefault());
+
+    public TextLogRenderUnitTest() {
+        super();
+    }
+
+    /**
+     * 测试首行的时间、级别、topic 与消息，以及追加到已有内容之后的渲染结果与 render 一致。
+     */
+    @Test
+    void testRenderIntoSharedBuffer() {
+        TextLogRender render = TextLogRender.getInstance();
+        Log log = new Log();
+        log.message("hello 日志");
+
+        StringBuilder buffer = new StringBuilder("previous\n");
+        render.renderInto("text-topic", log, buffer);
+
+        String expected = FORMATTER.format(Instant.ofEpochMilli(log.timestamp()))
+                + " [" + log.level() + "] text-topic hello 日志";
+        assertEquals("previous\n" + expected, buffer.toString());
+        assertEquals(expected, render.render("text-topic", log));
+    }
+
+    /**
+     * 测试异常及其原因链以堆栈行的形式接在首行之后。
+     */
+    @Test
+    void testRenderException() {
+        Log log = new Log();
+        log.message("failed");
+        IllegalStateException exception = new IllegalStateException("outer", new IllegalArgumentException("inner"));
+        log.exception(exception);
+
+        String[] lines = TextLogRender.getInstance().render("text-topic", log).split("\n");
+        assertTrue(lines[0].endsWith(" text-topic failed"));
+        assertEquals(IllegalStateException.class.getName() + ": outer", lines[1]);
+        StackTraceElement top = exception.getStackTrace()[0];
+        assertEquals("\tat " + top.getClassName() + "." + top.getMethodName()
+                + "(" + top.getFileName() + ":" + top.getLineNumber() + ")", lines[2]);
+
+        boolean causeFound = false;
+        for (String line : lines) {
+            if (line.equals("Caused by: " + IllegalArgumentException.class.getName() + ": inner")) {
+                causeFound = true;
+            }
+        }
+        assertTrue(causeFound);
+    }
+
+    /**
+     * 测试文件写入适配器默认沿用 render 的格式，仅在通过 textRender 选用时才以本渲染器直接写入缓冲区。
+     */
+    @Test
+    void testTextRenderIsOptIn() {
+        FileLogWriterAdapter customized = new FileLogWriterAdapter() {
+            @Override
+            protected @Nullable FileWriter getFileWriterForTopic(String topic) {
+                return null;
+            }
+
+            @Override
+            public String render(String topic, SpecificLog<?> log) {
+                return "custom " + log.message();
+            }
+        };
+        FileLogWriterAdapter optedIn = new FileLogWriterAdapter() {
+            @Override
+            protected @Nullable FileWriter getFileWriterForTopic(String topic) {
+                return null;
+            }
+
+            @Override
+            protected LogTextBufferRender textRender() {
+                return TextLogRender.getInstance();
+            }
+        };
+
+        Log log = new Log();
+        log.message("m");
+        StringBuilder buffer = new StringBuilder();
+        customized.renderInto("t", log, buffer);
+        assertEquals("custom m", buffer.toString());
+
+        buffer.setLength(0);
+        optedIn.renderInto("t", log, buffer);
+        assertEquals(TextLogRender.getInstance().render("t", log), buffer.toString());
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.sinri.keel.base.logger.adapter;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TopicLogQueue单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class TopicLogQueueUnitTest extends KeelJUnit5Test {
+
+    public TopicLogQueueUnitTest() {
+        super();
+    }
+
+    private static Log logOf(String message) {
+        Log log = new Log();
+        log.message(message);
+        return log;
+    }
+
+    @Test
+    void testUnboundedQueueNeverDrops() {
+        TopicLogQueue queue = TopicLogQueue.unbounded();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(logOf("m" + i)));
+        }
+        assertEquals(0, queue.droppedCount());
+    }
+
+    @Test
+    void testDropNewest() {
+        TopicLogQueue queue = TopicLogQueue.bounded(4, QueueOverflowPolicy.DROP_NEWEST, 0, 1);
+        for (int i = 0; i < 6; i++) {
+            queue.offer(logOf("m" + i));
+        }
+        assertEquals(2, queue.droppedCount());
+        SpecificLog<?> head = queue.poll();
+        assertNotNull(head);
+        assertEquals("m0", head.message());
+    }
+
+    @Test
+    void testDropOldest() {
+        TopicLogQueue queue = TopicLogQueue.bounded(4, QueueOverflowPolicy.DROP_OLDEST, 0, 1);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(queue.offer(logOf("m" + i)));
+        }
+        assertEquals(2, queue.droppedCount());
+        SpecificLog<?> head = queue.poll();
+        assertNotNull(head);
+        assertEquals("m2", head.message());
+    }
+
+    @Test
+    void testBlockBrieflyThenDrop() {
+        TopicLogQueue queue = TopicLogQueue.bounded(2, QueueOverflowPolicy.BLOCK_BRIEFLY, TimeUnit.MILLISECONDS.toNanos(5), 1);
+        assertTrue(queue.offer(logOf("m0")));
+        assertTrue(queue.offer(logOf("m1")));
+        assertFalse(queue.offer(logOf("m2")));
+        assertEquals(1, queue.droppedCount());
+    }
+
+    @Test
+    void testSample() {
+        TopicLogQueue queue = TopicLogQueue.bounded(2, QueueOverflowPolicy.SAMPLE, 0, 10);
+        queue.offer(logOf("m0"));
+        queue.offer(logOf("m1"));
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (queue.offer(logOf("x" + i))) {
+                admitted++;
+            }
+        }
+        assertEquals(10, admitted);
+        // 每次采样入队均挤出一条最早的记录
+        assertEquals(100, queue.droppedCount());
+    }
+}
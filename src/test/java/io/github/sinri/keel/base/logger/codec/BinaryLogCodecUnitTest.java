@@ -0,0 +1,122 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.log.Log;
+import io.github.sinri.keel.logger.api.log.SpecificLog;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinaryLogEncoder与BinaryLogDecoder单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class BinaryLogCodecUnitTest extends KeelJUnit5Test {
+
+    public BinaryLogCodecUnitTest() {
+        super();
+    }
+
+    @Test
+    void testRoundTripAcrossBlocks() throws Exception {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+
+        for (int block = 0; block < 2; block++) {
+            List<SpecificLog<?>> batch = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Log log = new Log();
+                log.message("Binary 日志 " + block + "-" + i);
+                if (i == 2) {
+                    log.exception(new IllegalStateException("boom"));
+                }
+                batch.add(log);
+            }
+            ByteBuffer encoded = encoder.encodeBlock("audit", batch);
+            file.write(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining());
+        }
+        // 内存映射分段未截断时末尾的零字节
+        file.write(new byte[16]);
+
+        List<JsonObject> records = new ArrayList<>();
+        BinaryLogDecoder.decode(new ByteArrayInputStream(file.toByteArray()), records::add);
+
+        assertEquals(6, records.size());
+        assertEquals("audit", records.get(0).getString("topic"));
+        assertEquals("Binary 日志 0-0", records.get(0).getString("message"));
+        assertEquals("Binary 日志 1-1", records.get(4).getString("message"));
+        assertNotNull(records.get(0).getLong("timestamp"));
+        JsonObject exception = records.get(5).getJsonObject("exception");
+        assertEquals(IllegalStateException.class.getName(), exception.getString("class"));
+        assertEquals("boom", exception.getString("message"));
+
+        StringWriter writer = new StringWriter();
+        BinaryLogDecoder.decodeToJsonLines(new ByteArrayInputStream(file.toByteArray()), writer);
+        assertEquals(6, writer.toString().split("\n").length);
+    }
+
+    /**
+     * 测试不完整的末尾块头（缺少版本、载荷长度不完整）视为文件结束，其前的完整块照常解码。
+     */
+    @Test
+    void testTruncatedBlockHeaderTreatedAsEnd() throws Exception {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        Log log = new Log();
+        log.message("complete");
+        ByteBuffer encoded = encoder.encodeBlock("audit", List.of(log));
+        byte[] block = new byte[encoded.remaining()];
+        encoded.get(block);
+
+        byte[][] truncatedHeaders = {
+                {BinaryLogFormat.MAGIC_0},
+                {BinaryLogFormat.MAGIC_0, BinaryLogFormat.MAGIC_1},
+                {BinaryLogFormat.MAGIC_0, BinaryLogFormat.MAGIC_1, BinaryLogFormat.VERSION},
+                {BinaryLogFormat.MAGIC_0, BinaryLogFormat.MAGIC_1, BinaryLogFormat.VERSION, (byte) 0x80},
+        };
+        for (byte[] truncatedHeader : truncatedHeaders) {
+            ByteArrayOutputStream file = new ByteArrayOutputStream();
+            file.write(block);
+            file.write(truncatedHeader);
+
+            List<JsonObject> records = new ArrayList<>();
+            BinaryLogDecoder.decode(new ByteArrayInputStream(file.toByteArray()), records::add);
+            assertEquals(1, records.size());
+            assertEquals("complete", records.get(0).getString("message"));
+        }
+    }
+
+    /**
+     * 测试记录长度超出块载荷时以 IOException 报告，而不是越界读取。
+     */
+    @Test
+    void testRecordLengthOutOfRangeRejected() {
+        // 载荷：空字典、基准时间戳 0、1 条记录、声明 100 字节而实际只有 2 字节
+        byte[] payload = {0, 0, 1, 100, 0, 0};
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(BinaryLogFormat.MAGIC_0);
+        file.write(BinaryLogFormat.MAGIC_1);
+        file.write(BinaryLogFormat.VERSION);
+        file.write(payload.length);
+        file.writeBytes(payload);
+
+        IOException exception = assertThrows(IOException.class,
+                () -> BinaryLogDecoder.decode(new ByteArrayInputStream(file.toByteArray()), record -> {
+                }));
+        assertTrue(exception.getMessage().contains("Record length out of range"));
+    }
+}
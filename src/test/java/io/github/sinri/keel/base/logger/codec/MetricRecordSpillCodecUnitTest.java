@@ -0,0 +1,56 @@
+package io.github.sinri.keel.base.logger.codec;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.base.logger.metric.BasicMetricRecord;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
+import io.vertx.junit5.VertxExtension;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MetricRecordSpillCodec单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class MetricRecordSpillCodecUnitTest extends KeelJUnit5Test {
+
+    public MetricRecordSpillCodecUnitTest() {
+        super();
+    }
+
+    /**
+     * 测试指标记录经编码、解码后名称、时间戳、数值与标签均不变。
+     */
+    @Test
+    void testRoundTrip() {
+        MetricRecord original = new BasicMetricRecord("请求耗时", 1_700_000_000_000L, 12.5, Map.of("host", "a", "path", "/x"));
+        MetricRecordSpillCodec codec = MetricRecordSpillCodec.getInstance();
+
+        MetricRecord decoded = codec.decode(codec.encode(original));
+
+        assertEquals(original.metricName(), decoded.metricName());
+        assertEquals(original.timestamp(), decoded.timestamp());
+        assertEquals(original.value(), decoded.value());
+        assertEquals(original.labels(), decoded.labels());
+    }
+
+    /**
+     * 测试解码被截断的编码结果时抛出异常，而不是返回残缺的记录。
+     */
+    @Test
+    void testTruncatedInputFails() {
+        MetricRecordSpillCodec codec = MetricRecordSpillCodec.getInstance();
+        byte[] encoded = codec.encode(new BasicMetricRecord("m", 1L, 1.0, Map.of()));
+        byte[] truncated = new byte[encoded.length - 3];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        assertThrows(RuntimeException.class, () -> codec.decode(truncated));
+    }
+}
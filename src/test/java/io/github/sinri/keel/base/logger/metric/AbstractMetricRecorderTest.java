@@ -4,8 +4,10 @@ import io.github.sinri.keel.base.KeelJUnit5Test;
 import io.github.sinri.keel.logger.api.metric.MetricRecord;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.ThreadingModel;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import org.jspecify.annotations.NullMarked;
@@ -13,11 +15,15 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -309,6 +315,247 @@ class AbstractMetricRecorderTest extends KeelJUnit5Test {
         testContext.awaitCompletion(5, TimeUnit.SECONDS);
     }
 
+    /**
+     * 测试自适应批次大小。
+     * <p>
+     * 验证积压时批次增大且不超过上界，批次大小的变化以指标记录；自身报告的指标不计入积压，
+     * 空闲后也不再引发新的调整与报告。
+     */
+    @Test
+    void testAdaptiveBatchSize(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        AtomicInteger largestBatch = new AtomicInteger(0);
+        List<Double> reportedSizes = new CopyOnWriteArrayList<>();
+        TestMetricRecorder adaptiveRecorder = new TestMetricRecorder(16) {
+            @Override
+            protected boolean adaptiveBatchSize() {
+                return true;
+            }
+
+            @Override
+            protected int minBatchSize() {
+                return 4;
+            }
+
+            @Override
+            protected int maxBatchSize() {
+                return 512;
+            }
+
+            @Override
+            protected long targetDrainLatency() {
+                return 1_000L;
+            }
+
+            @Override
+            protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+                int measured = 0;
+                for (MetricRecord metricRecord : buffer) {
+                    if ("metric_recorder_batch_size".equals(metricRecord.metricName())) {
+                        reportedSizes.add(metricRecord.value());
+                    } else {
+                        measured++;
+                    }
+                }
+                largestBatch.accumulateAndGet(measured, Math::max);
+                return super.handleForTopic(topic, buffer);
+            }
+        };
+        int metricCount = 20_000;
+        for (int i = 0; i < metricCount; i++) {
+            adaptiveRecorder.recordMetric(new TestMetricRecord("adaptive-" + i, i));
+        }
+        int[] reportsAfterDrain = new int[1];
+        adaptiveRecorder.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                        .compose(v -> getKeel().asyncSleep(1_000L))
+                        .compose(v -> {
+                            reportsAfterDrain[0] = reportedSizes.size();
+                            return getKeel().asyncSleep(500L);
+                        })
+                        .onComplete(ar -> testContext.verify(() -> {
+                            assertTrue(ar.succeeded());
+                            assertEquals(metricCount + reportedSizes.size(), adaptiveRecorder.getProcessedCount());
+                            assertTrue(largestBatch.get() > 16, "Batch size should grow under backlog");
+                            assertTrue(largestBatch.get() <= 512, "Batch size should stay within the upper bound");
+                            assertFalse(reportedSizes.isEmpty(), "Batch size changes should be reported");
+                            assertTrue(reportedSizes.stream().anyMatch(size -> size > 16));
+                            assertEquals(adaptiveRecorder.currentBatchSize(), reportedSizes.get(reportedSizes.size() - 1).doubleValue(),
+                                    "The last report should match the current batch size");
+                            assertEquals(reportsAfterDrain[0], reportedSizes.size(),
+                                    "Self reports should not keep adjusting the batch size when idle");
+                            testContext.completeNow();
+                        }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+        adaptiveRecorder.undeployMe();
+    }
+
+    /**
+     * 测试下游阻塞时停止在时限内完成，剩余记录被转存到文件。
+     */
+    @Test
+    void testBoundedShutdownSpillsRemaining(Vertx vertx, VertxTestContext testContext, @TempDir Path tempDir) throws Throwable {
+        Path spillPath = tempDir.resolve("metric-spill.jsonl");
+        TestMetricRecorder stuckRecorder = new TestMetricRecorder(1) {
+            @Override
+            protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+                // 模拟永不完成的下游
+                return Promise.<Void>promise().future();
+            }
+
+            @Override
+            protected long shutdownTimeout() {
+                return 300L;
+            }
+
+            @Override
+            protected Path shutdownSpillPath() {
+                return spillPath;
+            }
+        };
+        long[] stopStartedAt = new long[1];
+        stuckRecorder.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                     .compose(v -> {
+                         stuckRecorder.recordMetric(new TestMetricRecord("in-flight", 0));
+                         return getKeel().asyncSleep(200L);
+                     })
+                     .compose(v -> {
+                         for (int i = 0; i < 5; i++) {
+                             stuckRecorder.recordMetric(new TestMetricRecord("remaining-" + i, i));
+                         }
+                         stopStartedAt[0] = System.currentTimeMillis();
+                         return stuckRecorder.undeployMe();
+                     })
+                     .onComplete(ar -> testContext.verify(() -> {
+                         assertTrue(ar.succeeded(), "Undeploy should succeed");
+                         assertTrue(System.currentTimeMillis() - stopStartedAt[0] < 2_000L, "Stop should be bounded");
+                         assertEquals(5, stuckRecorder.getShutdownSpilledCount());
+                         assertEquals(0, stuckRecorder.getShutdownDroppedCount());
+                         List<String> lines = Files.readAllLines(spillPath);
+                         assertEquals(5, lines.size());
+                         JsonObject first = new JsonObject(lines.get(0));
+                         assertEquals("metric", first.getString("topic"));
+                         assertEquals("remaining-0", first.getString("metricName"));
+                         assertEquals(0.0, first.getDouble("value"));
+                         testContext.completeNow();
+                     }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试下游阻塞且未指定转存文件时，停止超时后剩余记录被丢弃并计数。
+     */
+    @Test
+    void testBoundedShutdownDropsRemaining(Vertx vertx, VertxTestContext testContext) throws Throwable {
+        TestMetricRecorder stuckRecorder = new TestMetricRecorder(1) {
+            @Override
+            protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+                return Promise.<Void>promise().future();
+            }
+
+            @Override
+            protected long shutdownTimeout() {
+                return 300L;
+            }
+        };
+        stuckRecorder.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                     .compose(v -> {
+                         stuckRecorder.recordMetric(new TestMetricRecord("in-flight", 0));
+                         return getKeel().asyncSleep(200L);
+                     })
+                     .compose(v -> {
+                         for (int i = 0; i < 3; i++) {
+                             stuckRecorder.recordMetric(new TestMetricRecord("remaining-" + i, i));
+                         }
+                         return stuckRecorder.undeployMe();
+                     })
+                     .onComplete(ar -> testContext.verify(() -> {
+                         assertTrue(ar.succeeded(), "Undeploy should succeed");
+                         assertEquals(3, stuckRecorder.getShutdownDroppedCount());
+                         assertEquals(0, stuckRecorder.getShutdownSpilledCount());
+                         testContext.completeNow();
+                     }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试磁盘溢出层。
+     * <p>
+     * 验证下游不可用时内存积压超过阈值的记录被写入溢出层；下游恢复后按序回放，
+     * 回放中处理失败的批次回退后经退避重新回放，记录既不丢失也不乱序。
+     */
+    @Test
+    void testOverflowSpillAndReplay(Vertx vertx, VertxTestContext testContext, @TempDir Path tempDir) throws Throwable {
+        Promise<Void> gate = Promise.promise();
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        TestMetricRecorder overflowRecorder = new TestMetricRecorder() {
+            @Override
+            protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+                // 下游恢复前阻塞，模拟长时间不可用的指标收集端
+                return gate.future().compose(v -> {
+                    if (!"overflow-0".equals(buffer.get(0).metricName()) && failuresLeft.getAndDecrement() > 0) {
+                        return Future.failedFuture(new IllegalStateException("downstream rejected the batch"));
+                    }
+                    return super.handleForTopic(topic, buffer);
+                });
+            }
+
+            @Override
+            protected Path overflowDirectory() {
+                return tempDir;
+            }
+
+            @Override
+            protected long overflowThreshold() {
+                return 10L;
+            }
+
+            @Override
+            protected long overflowCheckInterval() {
+                return 20L;
+            }
+
+            @Override
+            protected long overflowReplayRetryDelay() {
+                return 20L;
+            }
+        };
+        int total = 200;
+        overflowRecorder.deployMe(vertx, new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                        .compose(v -> {
+                            overflowRecorder.recordMetric(new TestMetricRecord("overflow-0", 0));
+                            return getKeel().asyncSleep(100L);
+                        })
+                        .compose(v -> {
+                            for (int i = 1; i < total; i++) {
+                                overflowRecorder.recordMetric(new TestMetricRecord("overflow-" + i, i));
+                            }
+                            return getKeel().asyncSleep(300L);
+                        })
+                        .compose(v -> {
+                            testContext.verify(() -> assertEquals(total - 1, overflowRecorder.getOverflowRecordCount()));
+                            gate.complete();
+                            return getKeel().asyncSleep(800L);
+                        })
+                        .onComplete(ar -> testContext.verify(() -> {
+                            assertTrue(ar.succeeded());
+                            assertTrue(failuresLeft.get() < 0, "The injected failure should have been hit");
+                            assertEquals(total, overflowRecorder.getProcessedCount());
+                            assertEquals(0, overflowRecorder.getOverflowRecordCount());
+                            assertEquals(0, overflowRecorder.getOverflowLostCount());
+                            List<MetricRecord> processed = overflowRecorder.getProcessedMetrics().get("metric");
+                            for (int i = 0; i < total; i++) {
+                                assertEquals("overflow-" + i, processed.get(i).metricName());
+                                assertEquals(i, processed.get(i).value());
+                            }
+                            testContext.completeNow();
+                        }));
+
+        testContext.awaitCompletion(5, TimeUnit.SECONDS);
+        overflowRecorder.undeployMe();
+    }
+
     /**
      * 测试用的 MetricRecord 实现。
      * <p>
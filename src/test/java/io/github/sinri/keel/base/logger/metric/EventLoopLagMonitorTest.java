@@ -0,0 +1,81 @@
+package io.github.sinri.keel.base.logger.metric;
+
+import io.github.sinri.keel.base.KeelJUnit5Test;
+import io.github.sinri.keel.logger.api.metric.MetricRecord;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.ThreadingModel;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EventLoopLagMonitor单元测试。
+ *
+ * @since 5.0.3
+ */
+@ExtendWith(VertxExtension.class)
+@NullMarked
+class EventLoopLagMonitorTest extends KeelJUnit5Test {
+
+    public EventLoopLagMonitorTest() {
+        super();
+    }
+
+    /**
+     * 测试事件循环调度延迟与阻塞的指标上报。
+     * <p>
+     * 在监测实例所在的事件循环上人为阻塞一段时间，验证延迟分布与阻塞指标均被上报。
+     */
+    @Test
+    void testLagAndBlockedMetricsReported(VertxTestContext testContext) {
+        CollectingMetricRecorder recorder = new CollectingMetricRecorder();
+        EventLoopLagMonitor monitor = new EventLoopLagMonitor(recorder, 10L, 300L, 100L);
+
+        recorder.deployMe(getVertx(), new DeploymentOptions().setThreadingModel(ThreadingModel.WORKER))
+                .compose(recorderDeploymentID -> monitor.deployMe(getVertx(), new DeploymentOptions()))
+                .compose(monitorDeploymentID -> {
+                    monitor.getContext().runOnContext(v -> {
+                        long blockUntil = System.currentTimeMillis() + 300;
+                        while (System.currentTimeMillis() < blockUntil) {
+                            Thread.onSpinWait();
+                        }
+                    });
+                    return getKeel().asyncSleep(1_000L);
+                })
+                .compose(v -> monitor.undeployMe())
+                .compose(v -> recorder.undeployMe())
+                .onSuccess(v -> {
+                    assertTrue(recorder.names().contains("event_loop_lag_max_ms"), "Lag metrics should be reported");
+                    assertTrue(recorder.names().contains("event_loop_lag_blocked_ms"), "Blocked metric should be reported");
+                    testContext.completeNow();
+                })
+                .onFailure(testContext::failNow);
+    }
+
+    private static class CollectingMetricRecorder extends AbstractMetricRecorder {
+        private final List<MetricRecord> records = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected Future<Void> prepareForLoop() {
+            return Future.succeededFuture();
+        }
+
+        @Override
+        protected Future<Void> handleForTopic(String topic, List<MetricRecord> buffer) {
+            records.addAll(buffer);
+            return Future.succeededFuture();
+        }
+
+        public List<String> names() {
+            return records.stream().map(MetricRecord::metricName).toList();
+        }
+    }
+}